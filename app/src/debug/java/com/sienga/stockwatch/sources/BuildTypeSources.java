@@ -0,0 +1,51 @@
+package com.sienga.stockwatch.sources;
+
+import android.util.Log;
+
+import com.sienga.stockwatch.BuildConfig;
+
+import java.io.IOException;
+
+
+/**
+ * Sets the {@link Sources} of debug builds. If {@link
+ * BuildConfig#USE_LOCAL_QUOTE_SERVER} is true, all data is taken from a
+ * {@link LocalQuoteServer}, so that the app can be run without a network
+ * connection, and always shows the same data. Otherwise, the default sources
+ * are kept.
+ * <p>
+ * Release builds have their own version of this class, which does nothing.
+ */
+public final class BuildTypeSources {
+
+    /**
+     * Null unless {@link BuildConfig#USE_LOCAL_QUOTE_SERVER} is true, and the
+     * server was started. The server runs until the process ends.
+     */
+    private static LocalQuoteServer localQuoteServer;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private BuildTypeSources() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate(), before any of the Activities start.
+     */
+    public static void init() {
+        if (!BuildConfig.USE_LOCAL_QUOTE_SERVER || localQuoteServer != null) {
+            return;
+        }
+
+        try {
+            localQuoteServer = LocalQuoteServer.start();
+            Sources.useJsonApi(localQuoteServer.getBaseUrl());
+        } catch (final IOException ioe) {
+            // Keep the default sources
+            Log.w("BuildTypeSources", "LocalQuoteServer could not be started", ioe);
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+package com.sienga.stockwatch.sources;
+
+import org.threeten.bp.LocalDate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.util.Locale;
+
+
+/**
+ * A local stand-in for the JSON API that {@link JsonApiSource} reads from.
+ * Every response is generated from the requested symbol, so the same request
+ * always gets the same response, and no network connection is needed. This is
+ * only included in debug builds.
+ * <p>
+ * Usage:
+ * <pre>
+ * final LocalQuoteServer server = LocalQuoteServer.start();
+ * Sources.useJsonApi(server.getBaseUrl());
+ * </pre>
+ * Symbols that start with "ZZ" do not exist, and get 404 responses from the
+ * single quote endpoint. Symbols that start with "PM" or "AH" are in the
+ * premarket or after hours state, respectively. All other symbols are open.
+ */
+public final class LocalQuoteServer {
+
+    /**
+     * The number of daily prices in each chart response. This is less than
+     * five years of prices, so that the "Before IPO" padding is exercised.
+     */
+    private static final int NUM_DAILY_PRICES = 1000;
+
+    /**
+     * The number of intraday prices in each chart response.
+     */
+    private static final int NUM_INTRADAY_PRICES = 78;
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+
+    private LocalQuoteServer(final ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        acceptThread = new Thread(this::acceptConnections, "LocalQuoteServer");
+        acceptThread.setDaemon(true);
+    }
+
+    /**
+     * Starts a server on a free port of the loopback interface.
+     *
+     * @return The started server
+     * @throws IOException If the server could not be started
+     */
+    public static LocalQuoteServer start() throws IOException {
+        final LocalQuoteServer server = new LocalQuoteServer(
+                new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1")));
+        server.acceptThread.start();
+        return server;
+    }
+
+    /**
+     * @return The base URL to pass to {@link Sources#useJsonApi(String)}
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (final IOException ioe) {
+            // Already closed
+        }
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try (final Socket socket = serverSocket.accept()) {
+                handle(socket);
+            } catch (final IOException ioe) {
+                // Drop this connection, or stop if the server was closed
+            }
+        }
+    }
+
+    /**
+     * Responds to a single request, then closes the connection.
+     */
+    private static void handle(final Socket socket) throws IOException {
+        final BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), "UTF-8"));
+        final String requestLine = in.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        // Skip headers
+        String line;
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            // Do nothing
+        }
+
+        // Request line form: GET <path>?<query> HTTP/1.1
+        final String[] parts = requestLine.split(" ");
+        final String target = parts.length > 1 ? parts[1] : "/";
+        final int queryNdx = target.indexOf('?');
+        final String path = queryNdx == -1 ? target : target.substring(0, queryNdx);
+        final String query = queryNdx == -1 ? "" : target.substring(queryNdx + 1);
+
+        int statusCode = 200;
+        String body;
+        switch (path) {
+            case "/v1/quotes":
+                body = quotes(getParam(query, "symbols"));
+                break;
+            case "/v1/quote":
+                body = quote(getParam(query, "symbol"));
+                if (body == null) {
+                    statusCode = 404;
+                }
+                break;
+            case "/v1/chart":
+                body = chart(getParam(query, "symbol"));
+                break;
+            case "/v1/news":
+                body = news(getParam(query, "symbol"));
+                break;
+            default:
+                statusCode = 404;
+                body = null;
+        }
+        if (body == null) {
+            body = "{}";
+        }
+
+        final byte[] bodyBytes = body.getBytes("UTF-8");
+        final String head = "HTTP/1.1 " + statusCode + (statusCode == 200 ? " OK" : " Not Found") +
+                "\r\nContent-Type: application/json; charset=utf-8" +
+                "\r\nContent-Length: " + bodyBytes.length +
+                "\r\nCache-Control: no-cache" +
+                "\r\nConnection: close\r\n\r\n";
+        final OutputStream out = socket.getOutputStream();
+        out.write(head.getBytes("UTF-8"));
+        out.write(bodyBytes);
+        out.flush();
+    }
+
+    private static String quotes(final String symbols) {
+        final StringBuilder sb = new StringBuilder("{\"quotes\":[");
+        if (!symbols.isEmpty()) {
+            for (final String symbol : symbols.split(",")) {
+                sb.append(quoteFields(symbol, false)).append(',');
+            }
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @return The single quote response, or null if symbol does not exist
+     */
+    private static String quote(final String symbol) {
+        if (symbol.startsWith("ZZ")) {
+            return null;
+        }
+        return quoteFields(symbol, true);
+    }
+
+    private static String quoteFields(final String symbol, final boolean withStats) {
+        final double price = basePrice(symbol);
+        final double change = round(price * 0.01);
+        final String state = symbol.startsWith("PM") ? "PREMARKET" :
+                symbol.startsWith("AH") ? "AFTER_HOURS" : "OPEN";
+
+        final StringBuilder sb = new StringBuilder(256);
+        sb.append(String.format(Locale.US,
+                "{\"symbol\":\"%s\",\"name\":\"%s Inc.\",\"state\":\"%s\"," +
+                        "\"price\":%.2f,\"change\":%.2f,\"changePercent\":1.00",
+                symbol, symbol, state, price, change));
+        if (!state.equals("OPEN")) {
+            sb.append(String.format(Locale.US,
+                    ",\"ehPrice\":%.2f,\"ehChange\":%.2f,\"ehChangePercent\":0.50",
+                    round(price + change * 0.5), round(change * 0.5)));
+        }
+        if (withStats) {
+            sb.append(String.format(Locale.US,
+                    ",\"open\":%.2f,\"prevClose\":%.2f,\"volume\":\"1,234,567\"," +
+                            "\"avgVolume\":\"2,345,678\",\"dayLow\":%.2f,\"dayHigh\":%.2f," +
+                            "\"yearLow\":%.2f,\"yearHigh\":%.2f,\"marketCap\":\"12.3 B\"," +
+                            "\"peRatio\":18.50,\"eps\":%.2f,\"yield\":null," +
+                            "\"description\":\"A stand-in company for %s.\"",
+                    round(price - change), round(price - change), round(price * 0.98),
+                    round(price * 1.02), round(price * 0.7), round(price * 1.3),
+                    round(price / 18.5), symbol));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String chart(final String symbol) {
+        final double price = basePrice(symbol);
+        final StringBuilder sb = new StringBuilder(64 * 1024);
+        sb.append("{\"intraday\":[");
+        for (int i = 0; i < NUM_INTRADAY_PRICES; i++) {
+            sb.append(String.format(Locale.US, "%.2f,", wave(price, i, 0.01)));
+        }
+        sb.setLength(sb.length() - 1);
+        sb.append("],\"daily\":[");
+        // One price a day, ending today
+        final LocalDate firstDate = LocalDate.now().minusDays(NUM_DAILY_PRICES - 1);
+        for (int i = 0; i < NUM_DAILY_PRICES; i++) {
+            sb.append(String.format(Locale.US, "{\"date\":\"%s\",\"close\":%.2f},",
+                    firstDate.plusDays(i), wave(price, i, 0.2)));
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.append("]}").toString();
+    }
+
+    private static String news(final String symbol) {
+        final StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"articles\":[");
+        for (int i = 0; i < 6; i++) {
+            sb.append(String.format(Locale.US,
+                    "{\"date\":\"Day-%d\",\"title\":\"%s headline %d\",\"source\":\"Local\"," +
+                            "\"url\":\"http://127.0.0.1/%s/%d\"},",
+                    i / 2, symbol, i + 1, symbol, i + 1));
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @return A price between 10 and 510 that is always the same for symbol
+     */
+    private static double basePrice(final String symbol) {
+        return round(10 + Math.abs(symbol.hashCode() % 50000) / 100.0);
+    }
+
+    /**
+     * @return A price that oscillates around price by up to amplitude * price
+     */
+    private static double wave(final double price, final int i, final double amplitude) {
+        return round(price * (1 + amplitude * Math.sin(i / 10.0)));
+    }
+
+    private static double round(final double d) {
+        return Math.round(d * 100) / 100.0;
+    }
+
+    /**
+     * @return The decoded value of the query parameter with name, or "" if
+     * query does not have the parameter
+     */
+    private static String getParam(final String query, final String name) {
+        for (final String pair : query.split("&")) {
+            final int equalsNdx = pair.indexOf('=');
+            if (equalsNdx != -1 && pair.substring(0, equalsNdx).equals(name)) {
+                try {
+                    return URLDecoder.decode(pair.substring(equalsNdx + 1), "UTF-8");
+                } catch (final UnsupportedEncodingException uee) {
+                    // UTF-8 is always supported
+                    throw new IllegalStateException(uee);
+                }
+            }
+        }
+        return "";
+    }
+
+}
@@ -6,9 +6,9 @@ import com.sienga.stockwatch.recyclerviews.NewsRecyclerAdapter;
 
 
 /**
- * This class represents a news article for an AdvancedStock. A SparseArray of
- * these are filled in {@link IndividualStockActivity.DownloadNewsTask}, then
- * displayed in the news section of IndividualStockActivity.
+ * This class represents a news article for an AdvancedStock. A List of these
+ * is filled in {@link IndividualStockActivity.DownloadNewsTask}, then the new
+ * ones are displayed in the news section of IndividualStockActivity.
  * <p>
  * This class' members are used to create both types of {@link
  * RecyclerView.ViewHolder} created in {@link NewsRecyclerAdapter}:
@@ -0,0 +1,163 @@
+package com.sienga.stockwatch;
+
+import android.util.SparseArray;
+
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.DaySeries;
+import com.sienga.stockwatch.stocks.PriceSeries;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Reduces a chart to about one point per {@link #PIXELS_PER_POINT} pixels of
+ * the width of the {@link CustomSparkView} that it is drawn in. Points are
+ * chosen with Largest-Triangle-Three-Buckets, which keeps the points that
+ * change the shape of the chart the most, so peaks and troughs are still
+ * shown. Charts that already fit are not reduced.
+ * <p>
+ * The reduced chart is cached for each (ChartPeriod, width), and is only
+ * computed again when the Stock's chart is replaced, i.e. when new prices are
+ * downloaded.
+ * <p>
+ * This class must only be used from the main thread.
+ */
+public final class ChartDownsampler {
+
+    /**
+     * The number of pixels of width per point. More points than this can not
+     * be told apart, and only slow down drawing.
+     */
+    private static final int PIXELS_PER_POINT = 3;
+
+    /**
+     * Maps each ChartPeriod to its reduced charts, keyed by width.
+     */
+    private final Map<ChartPeriod, SparseArray<Chart>> cache = new EnumMap<>(ChartPeriod.class);
+
+    /**
+     * @param chartPeriod The ChartPeriod of prices and dates
+     * @param prices      The chart's prices. This must be replaced rather than
+     *                    modified when the chart changes.
+     * @param dates       The date of each price in prices
+     * @param widthPx     The width that the chart is drawn in, in pixels
+     * @return The reduced chart. The prices and dates must not be modified.
+     */
+    public Chart downsample(final ChartPeriod chartPeriod, final PriceSeries prices,
+                            final DaySeries dates, final int widthPx) {
+        SparseArray<Chart> widthToChartMap = cache.get(chartPeriod);
+        if (widthToChartMap == null) {
+            widthToChartMap = new SparseArray<>();
+            cache.put(chartPeriod, widthToChartMap);
+        }
+
+        Chart chart = widthToChartMap.get(widthPx);
+        if (chart == null || chart.sourcePrices != prices || chart.sourceDates != dates) {
+            chart = reduce(prices, dates, Math.max(widthPx / PIXELS_PER_POINT, 3));
+            widthToChartMap.put(widthPx, chart);
+        }
+        return chart;
+    }
+
+    private static Chart reduce(final PriceSeries prices, final DaySeries dates,
+                                final int maxPts) {
+        if (prices.size() <= maxPts) {
+            return new Chart(prices, dates, prices, dates);
+        }
+
+        final int[] indexes = selectLargestTriangleThreeBuckets(prices, maxPts);
+        final PriceSeries reducedPrices = new PriceSeries(indexes.length);
+        final int[] reducedEpochDays = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            reducedPrices.add(prices.get(indexes[i]));
+            reducedEpochDays[i] = dates.get(indexes[i]);
+        }
+        return new Chart(prices, dates, reducedPrices, DaySeries.wrap(reducedEpochDays));
+    }
+
+    /**
+     * Chooses maxPts points of prices with Largest-Triangle-Three-Buckets.
+     * The first and last points are always chosen. The points between are
+     * split into maxPts - 2 buckets, and from each bucket, the point that
+     * forms the largest triangle with the point chosen from the previous
+     * bucket and the average of the next bucket is chosen.
+     *
+     * @param prices The prices to choose from. The x value of each price is
+     *               its index.
+     * @param maxPts The number of points to choose. Must be at least 3, and
+     *               less than the size of prices.
+     * @return The indexes of the chosen points, in increasing order
+     */
+    static int[] selectLargestTriangleThreeBuckets(final PriceSeries prices, final int maxPts) {
+        final int numPts = prices.size();
+        final int[] indexes = new int[maxPts];
+        final double bucketSize = (double) (numPts - 2) / (maxPts - 2);
+
+        int prevNdx = 0;
+        indexes[0] = 0;
+        for (int bucket = 0; bucket < maxPts - 2; bucket++) {
+            // The average point of the next bucket. The last bucket is the last point.
+            final int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            final int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, numPts);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += i;
+                avgY += prices.get(i);
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            final int start = (int) (bucket * bucketSize) + 1;
+            final int end = (int) ((bucket + 1) * bucketSize) + 1;
+            final double prevY = prices.get(prevNdx);
+            double maxArea = -1;
+            int maxAreaNdx = start;
+            for (int i = start; i < end; i++) {
+                // Twice the area, which is enough to compare
+                final double area = Math.abs((prevNdx - avgX) * (prices.get(i) - prevY) -
+                        (prevNdx - i) * (avgY - prevY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaNdx = i;
+                }
+            }
+
+            indexes[bucket + 1] = maxAreaNdx;
+            prevNdx = maxAreaNdx;
+        }
+        indexes[maxPts - 1] = numPts - 1;
+        return indexes;
+    }
+
+
+    /**
+     * A reduced chart, and the chart that it was reduced from.
+     */
+    public static final class Chart {
+
+        private final PriceSeries sourcePrices;
+        private final DaySeries sourceDates;
+        private final PriceSeries prices;
+        private final DaySeries dates;
+
+        private Chart(final PriceSeries sourcePrices, final DaySeries sourceDates,
+                      final PriceSeries prices, final DaySeries dates) {
+            this.sourcePrices = sourcePrices;
+            this.sourceDates = sourceDates;
+            this.prices = prices;
+            this.dates = dates;
+        }
+
+        public PriceSeries getPrices() {
+            return prices;
+        }
+
+        public DaySeries getDates() {
+            return dates;
+        }
+
+    }
+
+}
@@ -23,9 +23,6 @@ import android.view.View;
 
 import com.robinhood.spark.SparkView;
 
-import java.util.Collections;
-import java.util.List;
-
 
 /**
  * This class is modeled after {@link com.robinhood.spark.ScrubGestureDetector}.
@@ -84,6 +81,9 @@ import java.util.List;
  * to change (override) the inherited functionality from SparkView. Therefore,
  * CustomSparkView does not need to override these methods because its
  * inherited definitions from SparkView are sufficient.
+ * <p>
+ * The index of the scrubbing line is found with a {@link ScrubIndexResolver},
+ * and the ScrubIndexListener is only called when the index changes.
  *
  * @see CustomSparkView
  */
@@ -96,13 +96,26 @@ public final class CustomScrubGestureDetector implements View.OnTouchListener {
     private final ScrubIndexListener scrubIndexListener;
     private final Handler handler;
     private final float touchSlop;
+    private final ScrubIndexResolver scrubIndexResolver = new ScrubIndexResolver();
+
+    /**
+     * The {@link CustomSparkView#getPointsVersion()} of the points that
+     * scrubIndexResolver has, or -1.
+     */
+    private int resolverPointsVersion = -1;
     private float downX, downY;
 
+    /**
+     * The index that was last passed to {@link
+     * ScrubIndexListener#onScrubbed(int)} during the current scrub, or -1.
+     */
+    private int scrubIndex = -1;
+
     private final Runnable longPressRunnable = new Runnable() {
         @Override
         public void run() {
             scrubListener.onScrubbed(downX, downY);
-            scrubIndexListener.onScrubbed(getNearestIndex(downX));
+            onScrubbedIndex(downX);
         }
     };
 
@@ -125,6 +138,7 @@ public final class CustomScrubGestureDetector implements View.OnTouchListener {
                 // Store the time to compute whether future events are 'long presses'
                 downX = x;
                 downY = y;
+                scrubIndex = -1;
 
                 handler.postDelayed(longPressRunnable, LONG_PRESS_TIMEOUT_MS);
                 return true;
@@ -136,7 +150,7 @@ public final class CustomScrubGestureDetector implements View.OnTouchListener {
                 if (timeDelta >= LONG_PRESS_TIMEOUT_MS) {
                     handler.removeCallbacks(longPressRunnable);
                     scrubListener.onScrubbed(x, y);
-                    scrubIndexListener.onScrubbed(getNearestIndex(x));
+                    onScrubbedIndex(x);
                 } else {
                     // If we moved before longpress, remove the callback if we exceeded the tap slop
                     float deltaX = x - downX;
@@ -160,32 +174,24 @@ public final class CustomScrubGestureDetector implements View.OnTouchListener {
         }
     }
 
-    private int getNearestIndex(final float x) {
-        final List<Float> points = sparkView.getXPoints();
-
-        int index = Collections.binarySearch(points, x);
-
-        // If binary search returns positive, it is an exact match. Return this index.
-        if (index >= 0) return index;
-
-        // Otherwise, calculate the binary search's specified insertion index
-        index = -1 - index;
-
-        // If inserting at 0, then our guaranteed nearest index is 0
-        if (index == 0) return index;
-
-        // If inserting at the very end, then our guaranteed nearest index is the final one
-        if (index == points.size()) return --index;
-
-        // Otherwise we need to check which of our two neighbors we're closer to
-        final double deltaUp = points.get(index) - x;
-        final double deltaDown = x - points.get(index - 1);
-        if (deltaUp > deltaDown) {
-            // If the below neighbor is closer, decrement index
-            index--;
+    /**
+     * Calls {@link ScrubIndexListener#onScrubbed(int)} with the index of the
+     * point nearest to x, if that index is not the index that was last passed
+     * to it. The points are copied again if they have changed since they
+     * were last copied.
+     *
+     * @param x The x coordinate of the scrub
+     */
+    private void onScrubbedIndex(final float x) {
+        if (resolverPointsVersion != sparkView.getPointsVersion()) {
+            resolverPointsVersion = sparkView.getPointsVersion();
+            scrubIndexResolver.update(sparkView.getXPoints());
+        }
+        final int index = scrubIndexResolver.getNearestIndex(x);
+        if (index != -1 && index != scrubIndex) {
+            scrubIndex = index;
+            scrubIndexListener.onScrubbed(index);
         }
-
-        return index;
     }
 
 
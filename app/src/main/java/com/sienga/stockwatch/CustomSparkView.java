@@ -18,20 +18,40 @@
 package com.sienga.stockwatch;
 
 import android.content.Context;
+import android.database.DataSetObserver;
 import android.util.AttributeSet;
 
+import com.robinhood.spark.SparkAdapter;
 import com.robinhood.spark.SparkView;
 
 
 /**
  * This is a wrapper class of {@link SparkView} that implements {@link
  * CustomScrubGestureDetector.ScrubListener}.
+ * <p>
+ * SparkView rebuilds its points whenever the data of its adapter or its size
+ * changes. {@link #getPointsVersion()} changes each time, so that copies of
+ * the points only need to be made again when the points have changed.
  *
  * @see CustomScrubGestureDetector
  */
 public final class CustomSparkView extends SparkView implements
         CustomScrubGestureDetector.ScrubListener {
 
+    private int pointsVersion = 0;
+
+    private final DataSetObserver dataSetObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            pointsVersion++;
+        }
+
+        @Override
+        public void onInvalidated() {
+            pointsVersion++;
+        }
+    };
+
     public CustomSparkView(final Context context) {
         super(context);
     }
@@ -50,4 +70,33 @@ public final class CustomSparkView extends SparkView implements
         super(context, attrs, defStyleAttr, defStyleRes);
     }
 
+    @Override
+    public void setAdapter(final SparkAdapter adapter) {
+        final SparkAdapter oldAdapter = getAdapter();
+        /* SparkView's constructor sets an adapter in edit mode, before
+         * dataSetObserver is initialized. */
+        if (oldAdapter != null && dataSetObserver != null) {
+            oldAdapter.unregisterDataSetObserver(dataSetObserver);
+        }
+        super.setAdapter(adapter);
+        if (adapter != null && dataSetObserver != null) {
+            adapter.registerDataSetObserver(dataSetObserver);
+        }
+        pointsVersion++;
+    }
+
+    @Override
+    protected void onSizeChanged(final int w, final int h, final int oldw, final int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        pointsVersion++;
+    }
+
+    /**
+     * @return A number that changes whenever the points of this, i.e. {@link
+     * #getXPoints()}, may have changed
+     */
+    public int getPointsVersion() {
+        return pointsVersion;
+    }
+
 }
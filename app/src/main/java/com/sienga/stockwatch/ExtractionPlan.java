@@ -0,0 +1,107 @@
+package com.sienga.stockwatch;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Collector;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A CSS selector that has been compiled once into a reusable Jsoup {@link
+ * Evaluator}. {@link Element#select(String)} and {@link
+ * Element#selectFirst(String)} parse their query every time that they are
+ * called, which is a large part of the time spent scraping a page,
+ * especially in loops over table rows (i.e. the historical prices table in
+ * DownloadChartsTask).
+ * <p>
+ * ExtractionPlans are obtained from a static registry with {@link
+ * #of(String)}, so each query is only compiled once per process. Scrapers
+ * that run a query in a loop should keep the ExtractionPlan in a static field
+ * to also skip the registry lookup.
+ * <p>
+ * Evaluators do not hold state between matches, so ExtractionPlans can be used
+ * from multiple threads at once.
+ */
+public final class ExtractionPlan {
+
+    /**
+     * Maps each query -> its compiled ExtractionPlan.
+     */
+    private static final Map<String, ExtractionPlan> plans = new ConcurrentHashMap<>();
+
+    private final String query;
+    private final Evaluator evaluator;
+
+    private ExtractionPlan(final String query) {
+        this.query = query;
+        evaluator = QueryParser.parse(query);
+    }
+
+    /**
+     * @param query The CSS selector to compile
+     * @return The ExtractionPlan for query, compiling it if this is the first
+     * time that query is used
+     * @throws org.jsoup.select.Selector.SelectorParseException If query is not
+     *                                                          a valid selector
+     */
+    public static ExtractionPlan of(final String query) {
+        return plans.computeIfAbsent(query, ExtractionPlan::new);
+    }
+
+    /**
+     * Same as {@link Element#select(String)}.
+     *
+     * @param root The Element to search from. ":root" in the query matches
+     *             root.
+     * @return The Elements under root that match this plan's query
+     */
+    public Elements select(final Element root) {
+        return Selector.select(evaluator, root);
+    }
+
+    /**
+     * Same as {@link Elements#select(String)}. Elements that are matched from
+     * more than one root are only included once.
+     *
+     * @param roots The Elements to search from. ":root" in the query matches
+     *              each root.
+     * @return The Elements under roots that match this plan's query, in the
+     * order of roots
+     */
+    public Elements select(final Elements roots) {
+        final Elements results = new Elements();
+        final IdentityHashMap<Element, Boolean> seen = new IdentityHashMap<>();
+        for (final Element root : roots) {
+            for (final Element e : Selector.select(evaluator, root)) {
+                if (seen.put(e, Boolean.TRUE) == null) {
+                    results.add(e);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Same as {@link Element#selectFirst(String)}.
+     *
+     * @param root The Element to search from. ":root" in the query matches
+     *             root.
+     * @return The first Element under root that matches this plan's query, or
+     * null if there is no match
+     */
+    public Element selectFirst(final Element root) {
+        return Collector.findFirst(evaluator, root);
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.sienga.stockwatch;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * A process-wide coordinator for the page downloads that are done with {@link
+ * Jsoup}. The same page is often requested by multiple AsyncTasks at nearly
+ * the same time. For example, the WSJ page of a stock is requested by
+ * HomeActivity's FindStockTask, and then by IndividualStockActivity's
+ * DownloadStatsTask and DownloadChartsTask as soon as IndividualStockActivity
+ * is opened.
+ * <p>
+ * Requests for the same URL that overlap in time are coalesced into a single
+ * network call. The first thread to request a URL (the owner) downloads and
+ * parses the page. Every other thread that requests the same URL while the
+ * owner is working waits for the owner, and then receives the same parsed
+ * {@link Document}. If the owner's download fails, every waiting thread
+ * receives the same {@link IOException}.
+ * <p>
+ * Pages are served from {@link HttpCache} when possible, so a Document may have
+ * been parsed by an earlier request. The Documents returned from this class
+ * can be shared between threads, so callers must only read from them.
+ */
+public final class FetchCoordinator {
+
+    /**
+     * Maps each URL that is currently being downloaded to the FutureTask that
+     * is downloading it. A URL is removed from this as soon as its download
+     * completes, so that later requests for the URL start a new download.
+     * <p>
+     * Guarded by itself.
+     */
+    private static final Map<String, FutureTask<Document>> inFlight = new HashMap<>();
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private FetchCoordinator() {
+    }
+
+    /**
+     * Downloads and parses the page at url, or joins the download of url if
+     * another thread is already downloading it. This method blocks, so it must
+     * be called from a worker thread (i.e. {@link
+     * android.os.AsyncTask#doInBackground(Object[])}).
+     *
+     * @param url           The URL of the page to get
+     * @param timeoutMillis The connect and read timeout. If the download of url
+     *                      is joined, the timeout of the thread that started
+     *                      the download is used.
+     * @return The parsed page
+     * @throws IOException If the page could not be downloaded
+     */
+    public static Document fetchDocument(final String url, final int timeoutMillis)
+            throws IOException {
+        return fetchDocument(url, timeoutMillis, 0);
+    }
+
+    /**
+     * Same as {@link #fetchDocument(String, int)}, but the page is considered
+     * fresh in {@link HttpCache} for at least minFreshMillis after it is
+     * downloaded. This is used for pages that rarely change.
+     *
+     * @param url            The URL of the page to get
+     * @param timeoutMillis  The connect and read timeout
+     * @param minFreshMillis The minimum amount of time that a downloaded page
+     *                       is served from the cache without revalidation
+     * @return The parsed page
+     * @throws IOException If the page could not be downloaded
+     * @see HttpCache#getDocument(String, int, long)
+     */
+    public static Document fetchDocument(final String url, final int timeoutMillis,
+                                         final long minFreshMillis) throws IOException {
+        final FutureTask<Document> task;
+        final boolean isOwner;
+        synchronized (inFlight) {
+            final FutureTask<Document> existing = inFlight.get(url);
+            if (existing != null) {
+                task = existing;
+                isOwner = false;
+            } else {
+                task = new FutureTask<>(() ->
+                        HttpCache.getDocument(url, timeoutMillis, minFreshMillis));
+                inFlight.put(url, task);
+                isOwner = true;
+            }
+        }
+
+        if (isOwner) {
+            // Download on this thread. Waiting threads are released when run() returns
+            try {
+                task.run();
+            } finally {
+                synchronized (inFlight) {
+                    inFlight.remove(url);
+                }
+            }
+        }
+
+        return getResult(task);
+    }
+
+    /**
+     * Waits for task to complete and unwraps its result. An {@link IOException}
+     * thrown by the download is rethrown as is, so that callers can handle
+     * failures the same way that they handle failures from {@link
+     * org.jsoup.Connection#get()}.
+     *
+     * @param task The task to get the result of
+     * @return The parsed page
+     * @throws IOException If the download threw an IOException, or this thread
+     *                     was interrupted while waiting
+     */
+    private static Document getResult(final FutureTask<Document> task) throws IOException {
+        try {
+            return task.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for page");
+        } catch (final ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+}
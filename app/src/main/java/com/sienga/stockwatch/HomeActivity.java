@@ -10,6 +10,7 @@ import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.helper.ItemTouchHelper;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.SearchView;
@@ -23,7 +24,8 @@ import com.sienga.stockwatch.listeners.FindStockTaskListener;
 import com.sienga.stockwatch.recyclerviews.StockRecyclerAdapter;
 import com.sienga.stockwatch.recyclerviews.StockRecyclerDivider;
 import com.sienga.stockwatch.recyclerviews.StockSwipeAndDragCallback;
-import com.sienga.stockwatch.stocks.ConcreteStock;
+import com.sienga.stockwatch.sources.QuoteSource;
+import com.sienga.stockwatch.sources.Sources;
 import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
 import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
 import com.sienga.stockwatch.stocks.Stock;
@@ -32,26 +34,18 @@ import com.sienga.stockwatch.stocks.StockInHomeActivity;
 import net.hockeyapp.android.CrashManager;
 import net.hockeyapp.android.UpdateManager;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 
 import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
-import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
 import static com.sienga.stockwatch.stocks.Stock.State.ERROR;
-import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
 import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
 import static java.lang.Double.parseDouble;
 
@@ -134,7 +128,18 @@ public final class HomeActivity
     private SearchView searchView;
     private SharedPreferences prefs;
     private RequestQueue requestQueue;
-    private Timer timer;
+
+    /**
+     * Decides when each Stock in {@link #stocks} should be updated. Started in
+     * {@link #onResume()} and stopped in {@link #onPause()}.
+     */
+    private RefreshScheduler refreshScheduler;
+
+    /**
+     * Sends the batch requests that update {@link #stocks}, a bounded number
+     * at a time.
+     */
+    private WatchlistRefresher watchlistRefresher;
 
     private RvSort rvSort;
     private MenuItem sortByTicker_menuItem;
@@ -218,6 +223,8 @@ public final class HomeActivity
         setTitle(getString(R.string.app_name));
         prefs = PreferenceManager.getDefaultSharedPreferences(this);
         requestQueue = Volley.newRequestQueue(this);
+        watchlistRefresher = new WatchlistRefresher(requestQueue, this, this,
+                this::onRefreshCycleCompleted);
         stocks = new ConcreteStockWithEhValsList();
 
         /* onCreate is only called if the app was just opened. These preferences
@@ -229,6 +236,8 @@ public final class HomeActivity
         initStocksFromPreferences();
         initRecyclerView();
         initRvSortFromPreferences();
+        refreshScheduler = new RefreshScheduler(stocks,
+                MarketSessionCalendar.newYorkCalendar(), this::updateStocks);
 
 
         checkForUpdates(); // ACRA
@@ -330,10 +339,10 @@ public final class HomeActivity
     }
 
     /**
-     * This method sets {@link #activityIsVisible} to true. This also
-     * re-initializes {@link #timer} because it is invalidated when {@link
-     * #onPause()} is called, then uses timer to call {@link #updateStocks()} on
-     * a constant interval. Additionally, this method checks if a Stock has been
+     * This method sets {@link #activityIsVisible} to true. This also starts
+     * {@link #refreshScheduler}, which calls {@link
+     * #updateStocks(ConcreteStockWithEhValsList)} immediately for every Stock,
+     * and then only for the Stocks that are due. Additionally, this method checks if a Stock has been
      * added or removed outside of this activity, and if so, updates {@link
      * #stocks} and {@link #tickerToIndexMap} to reflect the change.
      *
@@ -348,20 +357,8 @@ public final class HomeActivity
         checkIfStockAddedFromOtherActivity();
         checkIfStockRemovedFromOtherActivity();
 
-        // If there are stocks in favorites, update stocks and rv
-        final TimerTask timerTask = new TimerTask() {
-            @Override
-            public void run() {
-                if (!stocks.isEmpty()) {
-                    updateStocks();
-                }
-            }
-        };
-
-        timer = new Timer();
-
-        // Run every 10 seconds, starting immediately
-        timer.schedule(timerTask, 0, 10000);
+        // Update every stock now, then only stocks that are due while the market is open
+        refreshScheduler.start();
 
 
         checkForCrashes();
@@ -472,7 +469,8 @@ public final class HomeActivity
 
     /**
      * This method sets {@link #activityIsVisible} to false, stops calls to
-     * {@link #updateStocks()} by cancelling {@link #timer}, and saves {@link
+     * {@link #updateStocks(ConcreteStockWithEhValsList)} by stopping {@link
+     * #refreshScheduler}, and saves {@link
      * #stocks} and {@link #rvSort} to preferences - stocks is saved to Tickers,
      * Names, and Data TSV in prefs.
      */
@@ -481,8 +479,7 @@ public final class HomeActivity
         super.onPause();
         activityIsVisible = false;
 
-        // cancel() invalidates timer - it must be re-initialized to use again
-        timer.cancel();
+        refreshScheduler.stop();
 
         prefs.edit().putString("Tickers TSV", stocks.getStockTickersAsTSV()).apply();
         prefs.edit().putString("Names TSV", stocks.getStockNamesAsTSV()).apply();
@@ -505,81 +502,57 @@ public final class HomeActivity
     }
 
     /**
-     * Cancels all the {@link MultiStockRequest} in {@link #requestQueue}.
+     * Cancels all the batch requests of {@link #watchlistRefresher}.
      */
     @Override
     protected void onStop() {
         super.onStop();
-        requestQueue.cancelAll(this);
+        watchlistRefresher.cancelAll();
     }
 
     /**
-     * Partitions Stocks in {@link #stocks} into sets with a maximum size of 10.
-     * The maximum size of a partition is 10 because the Market Watch
-     * multiple-stock-website only supports displaying up to 10 stocks. The
-     * tickers from each partition's Stocks are used to build a URL for the
-     * Market Watch multiple-stock-website. For each partition, a {@link
-     * MultiStockRequest} is created to update the Stocks in that partition.
-     * Each partition's MultiStockRequest is added to {@link #requestQueue}.
+     * Called from {@link #refreshScheduler} on the main thread. Passes
+     * stocksToUpdate to {@link #watchlistRefresher}, which updates them in
+     * batches of the current {@link QuoteSource}.
+     *
+     * @param stocksToUpdate A new list that contains the Stocks in {@link
+     *                       #stocks} that are due to be updated
      */
-    private void updateStocks() {
+    private void updateStocks(final ConcreteStockWithEhValsList stocksToUpdate) {
         /* During this function's lifetime, the user could swipe-delete a stock.
          * Using the original stocks in stocks allows us to not worry about the
          * consequences of a stock being removed from stocks. As a result, this
-         * function, as well as MultiStockRequest could possibly edit stocks
+         * function, as well as the batch requests could possibly edit stocks
          * that have been removed from stocks. HomeActivity.onResponse() handles
          * this by ensuring that stocks contains a stock before updating the
          * UI. */
-        final ConcreteStockWithEhValsList stocksToUpdate = new ConcreteStockWithEhValsList(stocks);
-        final int numStocksTotal = stocksToUpdate.size();
-        int numStocksUpdated = 0;
-
-        // URL form: <base URL><ticker 1>,<ticker 2>,<ticker 3>,<ticker n>
-        final String BASE_URL_MULTI = "https://www.marketwatch.com/investing/multi?tickers=";
-        /* Up to 10 stocks are shown in the MarketWatch view multiple stocks
-         * website. The first 10 tickers listed in the URL are shown. Appending
-         * more than 10 tickers onto the URL has no effect on the website - the
-         * first 10 tickers will be shown. */
-        final StringBuilder tickersPartUrl = new StringBuilder(50); // Approximate size
-
-        ConcreteStockWithEhValsList stocksToUpdateThisIteration;
-        int numStocksToUpdateThisIteration;
-        while (numStocksUpdated < numStocksTotal) {
-            // Ex: if we've already updated 30 / 37 stocks, finish only 7 on the last iteration
-            if (numStocksTotal - numStocksUpdated >= 10) {
-                numStocksToUpdateThisIteration = 10;
-            } else {
-                numStocksToUpdateThisIteration = numStocksTotal - numStocksUpdated;
-            }
-
-            stocksToUpdateThisIteration = new ConcreteStockWithEhValsList(
-                    stocksToUpdate.subList(
-                            numStocksUpdated,
-                            numStocksUpdated + numStocksToUpdateThisIteration));
-
-            // Append tickers for stocks that will be updated in this iteration
-            for (final Stock s : stocksToUpdateThisIteration) {
-                tickersPartUrl.append(s.getTicker());
-                tickersPartUrl.append(',');
-            }
-            tickersPartUrl.deleteCharAt(tickersPartUrl.length() - 1); // Delete extra comma
-
-            // Send stocks that will be updated and their URL to the MultiStockRequest
-            requestQueue.add(new MultiStockRequest(BASE_URL_MULTI + tickersPartUrl.toString(),
-                    stocksToUpdateThisIteration, this, this));
+        watchlistRefresher.refresh(stocksToUpdate);
+    }
 
-            numStocksUpdated += numStocksToUpdateThisIteration;
-            tickersPartUrl.setLength(0); // Clear tickers part of the URL
+    /**
+     * Called from {@link #watchlistRefresher} when every batch of a refresh
+     * cycle has completed. The timing is only logged in debug builds, so that
+     * release builds do not format a message every refresh cycle.
+     */
+    private void onRefreshCycleCompleted(final int numStocks, final int numBatches,
+                                         final int numFailedBatches, final long elapsedMillis) {
+        if (BuildConfig.DEBUG) {
+            Log.d("HomeActivity", String.format(Locale.US,
+                    "Refreshed %d stocks in %d batches (%d failed) in %d ms",
+                    numStocks, numBatches, numFailedBatches, elapsedMillis));
         }
     }
 
     /**
-     * Called when a response is received from a queued {@link
-     * MultiStockRequest}. References to the Stocks in {@link #stocks} are
-     * passed to each MultiStockRequest. Using these references,
-     * MultiStockRequest can update the Stocks in stocks. This method notifies
-     * {@link #rvAdapter} that updated Stocks have been changed, so that the
-     * rvAdapter can update {@link #rv}.
+     * Called when a response is received from a queued batch request.
+     * References to the Stocks in {@link #stocks} are passed to each batch
+     * request. Using these references, the request can update the Stocks in
+     * stocks. This method notifies {@link #rvAdapter} that updated Stocks have
+     * been changed, so that the rvAdapter can update {@link #rv}.
+     * <p>
+     * Only Stocks whose values actually changed are rebound, and the changed
+     * {@link ConcreteStockWithEhVals.Field}s are passed as the payload, so that
+     * rvAdapter only updates the TextViews that display them.
      * <p>
      * If rv is updated while a cell is swiping or dragging, the action will be
      * stopped (as if the user lifted their finger off the screen). This method
@@ -593,17 +566,22 @@ public final class HomeActivity
      * This method also checks that tickerToIndexMap contains the ticker of the
      * current Stock to update before notifying rvAdapter. This is because the
      * user could have possible swipe-deleted the current Stock from stocks in
-     * the time that the MultiStockRequest was executing.
+     * the time that the batch request was executing.
      *
-     * @param updatedStocks The ConcreteStockWithEhValsList with a maximum size
-     *                      of 10 that contains the updated Stocks
+     * @param updatedStocks The ConcreteStockWithEhValsList that contains the
+     *                      updated Stocks of one batch
      */
     @Override
     public synchronized void onResponse(final ConcreteStockWithEhValsList updatedStocks) {
-        for (final Stock s : updatedStocks) {
+        for (final ConcreteStockWithEhVals s : updatedStocks) {
             if (rvAdapter.isNotSwipingOrDragging()) {
                 if (tickerToIndexMap.containsKey(s.getTicker())) {
-                    rvAdapter.notifyItemChanged(tickerToIndexMap.get(s.getTicker()));
+                    // Changes are kept until the Stock can be rebound, i.e. after swiping
+                    final int changedFields = s.takeChangedFields();
+                    if (changedFields != 0) {
+                        rvAdapter.notifyItemChanged(tickerToIndexMap.get(s.getTicker()),
+                                changedFields);
+                    }
                 } else {
                     updateTickerToIndexMap();
                 }
@@ -612,7 +590,7 @@ public final class HomeActivity
     }
 
     /**
-     * @param error The error resulting from a {@link MultiStockRequest}
+     * @param error The error resulting from a batch request
      */
     @Override
     public void onErrorResponse(final VolleyError error) {
@@ -943,8 +921,8 @@ public final class HomeActivity
 
 
     /**
-     * An AsyncTask that checks if a stock exists by checking if it exists on
-     * the WSJ website.
+     * An AsyncTask that checks if a stock exists by searching for it in the
+     * current {@link QuoteSource}.
      */
     private static class FindStockTask extends AsyncTask<Void, Integer, Integer> {
 
@@ -958,15 +936,13 @@ public final class HomeActivity
         }
 
         /**
-         * Connects to the WSJ website for the stock with ticker equal to {@link
-         * #searchTicker}. This function then checks for a specific Element that
-         * only exists on the WSJ stock-not-found page.
+         * Searches {@link Sources#getQuoteSource()} for the stock with ticker
+         * equal to {@link #searchTicker}.
          * <p>
-         * If an {@link IOException} is thrown while connecting to the WSJ
-         * website, this returns {@link Status#IO_EXCEPTION}. If the stock does
-         * not exist, this returns {@link Status#STOCK_DOES_NOT_EXIST}. If the
-         * stock exists, the information needed to create a {@link Stock} are
-         * parsed and used to initialize {@link #stock} as a {@link
+         * If an {@link IOException} is thrown while connecting to the source,
+         * this returns {@link Status#IO_EXCEPTION}. If the stock does not
+         * exist, this returns {@link Status#STOCK_DOES_NOT_EXIST}. If the stock
+         * exists, {@link #stock} is initialized as a {@link
          * StockInHomeActivity}, and {@link Status#STOCK_EXISTS} is returned.
          *
          * @param voids Take no parameters
@@ -974,82 +950,12 @@ public final class HomeActivity
          */
         @Override
         protected Integer doInBackground(final Void... voids) {
-            int status = -1;
-
-            final String URL = "https://quotes.wsj.com/" + searchTicker;
-
-            Document doc;
             try {
-                doc = Jsoup.connect(URL)
-                        .timeout(20000)
-                        .get();
+                stock = Sources.getQuoteSource().findStock(searchTicker);
             } catch (final IOException ioe) {
-                doc = null;
-                status = Status.IO_EXCEPTION;
+                return Status.IO_EXCEPTION;
             }
-
-            if (doc != null) {
-                final Element contentFrame = doc.selectFirst(
-                        "html > body > div.pageFrame > div.contentFrame");
-
-                // If the stock's page is found on WSJ, this element does not exist
-                final Element flagElmnt = contentFrame.selectFirst(
-                        "div[class$=notfound_header module]");
-
-                status = (flagElmnt == null) ? Status.STOCK_EXISTS : Status.STOCK_DOES_NOT_EXIST;
-
-                if (status == Status.STOCK_EXISTS) {
-                    final String name = contentFrame.selectFirst(
-                            "span.companyName").ownText();
-
-                    final Element module2 = contentFrame.selectFirst(
-                            ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]");
-                    final Element mainData = module2.selectFirst(
-                            "ul[class$=info_main]");
-
-                    // Remove ',' or '%' that could be in strings
-                    final double price = parseDouble(mainData.selectFirst(
-                            ":root > li[class$=quote] > span.curr_price > " +
-                                    "span > span#quote_val").ownText().replaceAll("[^0-9.]+", ""));
-                    final Elements diffs = mainData.select(
-                            ":root > li[class$=diff] > span > span");
-                    final double changePoint = parseDouble(
-                            diffs.get(0).ownText().replaceAll("[^0-9.-]+", ""));
-                    final double changePercent = parseDouble(
-                            diffs.get(1).ownText().replaceAll("[^0-9.-]+", ""));
-
-                    final Element subData = mainData.nextElementSibling();
-                    boolean stockHasAhVals = subData.className().endsWith("info_sub");
-
-                    final Stock.State state;
-                    final String stateStr;
-                    if (stockHasAhVals) {
-                        final double ehPrice, ehChangePoint, ehChangePercent;
-                        // Remove ',' or '%' that could be in strings
-                        ehPrice = parseDouble(subData.selectFirst(
-                                "span#ms_quote_val").ownText().replaceAll("[^0-9.]+", ""));
-                        final Elements ah_diffs = subData.select(
-                                "span[id] > span");
-                        ehChangePoint = parseDouble(ah_diffs.get(0).ownText().replaceAll("[^0-9.-]+", ""));
-                        ehChangePercent = parseDouble(ah_diffs.get(1).ownText().replaceAll("[^0-9.-]+", ""));
-
-                        stateStr = subData.selectFirst("span").ownText();
-                        state = stateStr.equals("AFTER HOURS") ? AFTER_HOURS : PREMARKET;
-
-                        stock = new ConcreteStockWithEhVals(state, searchTicker, name,
-                                price, changePoint, changePercent,
-                                ehPrice, ehChangePoint, ehChangePercent);
-                    } else {
-                        stateStr = mainData.selectFirst("span.timestamp_label").ownText();
-                        state = stateStr.equals("REAL TIME") ? OPEN : CLOSED;
-
-                        stock = new ConcreteStock(state, searchTicker, name,
-                                price, changePoint, changePercent);
-                    }
-                }
-            }
-
-            return status;
+            return stock != null ? Status.STOCK_EXISTS : Status.STOCK_DOES_NOT_EXIST;
         }
 
         /**
@@ -0,0 +1,310 @@
+package com.sienga.stockwatch;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import com.android.volley.Cache;
+import com.android.volley.NetworkResponse;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * An HTTP cache for the pages that are downloaded with {@link Jsoup}. Volley
+ * requests (i.e. {@link MultiStockRequest}) are already cached by their
+ * RequestQueue, but Jsoup does not cache anything, so every page that the
+ * AsyncTasks download used to be downloaded and parsed in full every time.
+ * <p>
+ * Response bodies are stored on disk in a {@link DiskBasedCache}, which is
+ * bounded to {@link #DISK_CACHE_MAX_BYTES} and evicts the least recently used
+ * entries first. Freshness is determined from the Cache-Control, Expires,
+ * ETag, and Last-Modified headers with {@link
+ * HttpHeaderParser#parseCacheHeaders(NetworkResponse)}, the same way that
+ * Volley does for MultiStockRequest.
+ * <ul>
+ * <li>If the cached entry is fresh, no network call is made.</li>
+ * <li>If the cached entry is stale, the request is sent with If-None-Match
+ * and If-Modified-Since. If the server responds with 304 Not Modified, the
+ * cached body is used, and the entry's freshness is updated.</li>
+ * <li>Otherwise, the full page is downloaded and cached.</li>
+ * </ul>
+ * The last few parsed Documents are also kept in memory, so that fresh hits
+ * and 304 responses do not need to parse the cached body again.
+ * <p>
+ * This class is used by {@link FetchCoordinator}, and should not be used
+ * directly.
+ */
+final class HttpCache {
+
+    /**
+     * The maximum size of all cached response bodies on disk. The five year
+     * WSJ historical prices page is the largest page, at a few hundred
+     * kilobytes.
+     */
+    private static final int DISK_CACHE_MAX_BYTES = 10 * 1024 * 1024;
+
+    /**
+     * The maximum number of parsed Documents that are kept in memory.
+     */
+    private static final int MEMORY_CACHE_MAX_DOCUMENTS = 6;
+
+    /**
+     * Null until {@link #init(Context)} is called. If this is null, every
+     * page is downloaded without caching.
+     */
+    private static volatile DiskBasedCache diskCache;
+
+    /**
+     * True once {@link #diskCache} has read its entries from disk. {@link
+     * DiskBasedCache#initialize()} reads files, so it is called lazily from
+     * the first worker thread that uses the cache rather than from {@link
+     * #init(Context)}.
+     * <p>
+     * Guarded by {@link HttpCache}.class.
+     */
+    private static boolean diskCacheIsInitialized = false;
+
+    /**
+     * Maps each URL to the parsed Document of its cached body. A
+     * ParsedDocument is only used if it was parsed from a body with the same
+     * ETag and Last-Modified values as the disk entry.
+     */
+    private static final LruCache<String, ParsedDocument> memoryCache =
+            new LruCache<>(MEMORY_CACHE_MAX_DOCUMENTS);
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private HttpCache() {
+    }
+
+    /**
+     * Called from {@link StockWatch#onCreate()}.
+     *
+     * @param context The Context whose cache directory to store pages in
+     */
+    static void init(final Context context) {
+        diskCache = new DiskBasedCache(new File(context.getCacheDir(), "pages"),
+                DISK_CACHE_MAX_BYTES);
+    }
+
+    /**
+     * Gets the page at url from the cache, revalidating or downloading it if
+     * needed. This method blocks, so it must be called from a worker thread.
+     *
+     * @param url                 The URL of the page to get
+     * @param timeoutMillis       The connect and read timeout
+     * @param minFreshMillis      The minimum amount of time that a downloaded
+     *                            page is considered fresh for, even if its
+     *                            headers say otherwise. This is used for pages
+     *                            that are known to rarely change, but that the
+     *                            server does not send freshness headers for. 0
+     *                            to only use the headers. This is not applied
+     *                            if the server sends no-cache or no-store.
+     * @return The parsed page
+     * @throws IOException If the page could not be downloaded
+     */
+    static Document getDocument(final String url, final int timeoutMillis,
+                                final long minFreshMillis) throws IOException {
+        final Cache cache = getInitializedDiskCache();
+        if (cache == null) {
+            return Jsoup.connect(url).timeout(timeoutMillis).get();
+        }
+
+        // Error statuses are checked below, because 304 is not a success status to Jsoup
+        final Connection connection = Jsoup.connect(url)
+                .timeout(timeoutMillis)
+                .ignoreHttpErrors(true);
+
+        final Cache.Entry cached = cache.get(url);
+        if (cached != null && !cached.refreshNeeded()) {
+            return getCachedDocument(url, cached);
+        }
+
+        if (cached != null) {
+            // Revalidate stale entry
+            if (cached.etag != null) {
+                connection.header("If-None-Match", cached.etag);
+            }
+            final String lastModified = getHeader(cached.responseHeaders, "Last-Modified");
+            if (lastModified != null) {
+                connection.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        final Connection.Response response = connection.execute();
+        final int statusCode = response.statusCode();
+
+        if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            // A 304 may omit headers that were sent with the original response
+            final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            if (cached.responseHeaders != null) {
+                headers.putAll(cached.responseHeaders);
+            }
+            headers.putAll(response.headers());
+
+            final Cache.Entry revalidated = parseEntry(
+                    new NetworkResponse(statusCode, cached.data, headers, true), minFreshMillis);
+            if (revalidated != null) {
+                cache.put(url, revalidated);
+            } else {
+                cache.remove(url);
+            }
+            return getCachedDocument(url, cached);
+        }
+
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new HttpStatusException("HTTP error fetching URL", statusCode, url);
+        }
+
+        final byte[] body = response.bodyAsBytes();
+        final Document doc = parse(body, response.charset(), url);
+
+        final Cache.Entry entry = parseEntry(
+                new NetworkResponse(statusCode, body, response.headers(), false),
+                minFreshMillis);
+        if (entry != null) {
+            cache.put(url, entry);
+            memoryCache.put(url, new ParsedDocument(entry, doc));
+        } else {
+            cache.remove(url);
+            memoryCache.remove(url);
+        }
+        return doc;
+    }
+
+    /**
+     * @return {@link #diskCache} after its entries have been read from disk,
+     * or null if {@link #init(Context)} has not been called
+     */
+    private static Cache getInitializedDiskCache() {
+        final DiskBasedCache cache = diskCache;
+        if (cache == null) {
+            return null;
+        }
+
+        synchronized (HttpCache.class) {
+            if (!diskCacheIsInitialized) {
+                cache.initialize();
+                diskCacheIsInitialized = true;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param url   The URL of the page
+     * @param entry The cache entry of the page
+     * @return The parsed body of entry. The parse is skipped if {@link
+     * #memoryCache} has a Document that was parsed from the same body.
+     */
+    private static Document getCachedDocument(final String url, final Cache.Entry entry) {
+        final ParsedDocument parsed = memoryCache.get(url);
+        if (parsed != null && parsed.isParsedFrom(entry)) {
+            return parsed.doc;
+        }
+
+        final Document doc = parse(entry.data,
+                HttpHeaderParser.parseCharset(entry.responseHeaders, null), url);
+        memoryCache.put(url, new ParsedDocument(entry, doc));
+        return doc;
+    }
+
+    /**
+     * @param body    The body of the page
+     * @param charset The charset from the Content-Type header, or null to
+     *                detect the charset from the page
+     * @param url     The URL of the page, used to resolve relative links
+     * @return The parsed page
+     */
+    private static Document parse(final byte[] body, final String charset, final String url) {
+        try {
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+        } catch (final IOException ioe) {
+            // Reading from a ByteArrayInputStream does not throw IOExceptions
+            throw new IllegalStateException(ioe);
+        }
+    }
+
+    /**
+     * @param response       The response to parse the cache headers of
+     * @param minFreshMillis See {@link #getDocument(String, int, long)}
+     * @return The cache entry for response, or null if response must not be
+     * cached
+     */
+    private static Cache.Entry parseEntry(final NetworkResponse response,
+                                          final long minFreshMillis) {
+        final Cache.Entry entry = HttpHeaderParser.parseCacheHeaders(response);
+        if (entry == null) {
+            // Cache-Control is no-cache or no-store
+            return null;
+        }
+
+        if (minFreshMillis > 0) {
+            final long minSoftTtl = System.currentTimeMillis() + minFreshMillis;
+            entry.softTtl = Math.max(entry.softTtl, minSoftTtl);
+            entry.ttl = Math.max(entry.ttl, entry.softTtl);
+        }
+        return entry;
+    }
+
+    /**
+     * @param headers The headers to search
+     * @param name    The name of the header to get
+     * @return The value of the header with name, ignoring case, or null if
+     * headers does not have the header
+     */
+    private static String getHeader(final Map<String, String> headers, final String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * A Document and the validators of the body it was parsed from.
+     */
+    private static final class ParsedDocument {
+
+        private final String etag;
+        private final long lastModified;
+        private final Document doc;
+
+        private ParsedDocument(final Cache.Entry entry, final Document doc) {
+            etag = entry.etag;
+            lastModified = entry.lastModified;
+            this.doc = doc;
+        }
+
+        /**
+         * @param entry The cache entry to compare with
+         * @return True if entry has the same validators as the body that {@link
+         * #doc} was parsed from
+         */
+        private boolean isParsedFrom(final Cache.Entry entry) {
+            return lastModified == entry.lastModified
+                    && (etag == null ? entry.etag == null : etag.equals(entry.etag));
+        }
+
+    }
+
+}
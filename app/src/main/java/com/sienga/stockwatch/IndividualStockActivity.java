@@ -12,6 +12,7 @@ import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.text.TextUtils;
 import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.Gravity;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -25,38 +26,34 @@ import android.widget.TextSwitcher;
 import android.widget.TextView;
 import android.widget.ViewFlipper;
 
-import com.jakewharton.threetenabp.AndroidThreeTen;
 import com.sienga.stockwatch.listeners.DownloadChartsTaskListener;
 import com.sienga.stockwatch.listeners.DownloadNewsTaskListener;
 import com.sienga.stockwatch.listeners.DownloadStatsTaskListener;
 import com.sienga.stockwatch.recyclerviews.NewsRecyclerAdapter;
 import com.sienga.stockwatch.recyclerviews.NewsRecyclerDivider;
+import com.sienga.stockwatch.sources.ChartSource;
+import com.sienga.stockwatch.sources.NewsSource;
+import com.sienga.stockwatch.sources.NewsStore;
+import com.sienga.stockwatch.sources.QuoteSource;
+import com.sienga.stockwatch.sources.Sources;
+import com.sienga.stockwatch.sources.StaticStatsStore;
 import com.sienga.stockwatch.stocks.AdvancedStock;
 import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
 import com.sienga.stockwatch.stocks.ConcreteAdvancedStock;
 import com.sienga.stockwatch.stocks.ConcreteAdvancedStockWithEhVals;
 import com.sienga.stockwatch.stocks.ConcreteStock;
 import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.IntradaySeries;
 import com.sienga.stockwatch.stocks.Stock;
 import com.sienga.stockwatch.stocks.StockInHomeActivity;
 import com.sienga.stockwatch.stocks.StockWithEhVals;
 import com.wefika.horizontalpicker.HorizontalPicker;
 
-import org.apache.commons.lang3.StringUtils;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.temporal.ChronoUnit;
-
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -76,7 +73,6 @@ import static com.sienga.stockwatch.stocks.Stock.State.ERROR;
 import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
 import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
 import static java.lang.Double.parseDouble;
-import static org.apache.commons.lang3.StringUtils.substringBetween;
 
 
 public final class IndividualStockActivity
@@ -122,17 +118,6 @@ public final class IndividualStockActivity
     @BindView(R.id.progressBar_loadingNews) ProgressBar loadingNewsProgressBar;
     @BindView(R.id.textView_newsStatus) TextView newsStatus;
 
-    /**
-     * A container of the big ChartPeriods (all ChartPeriods excluding {@link
-     * ChartPeriod#ONE_DAY}). The big ChartPeriods are often treated similarly,
-     * and unlike ONE_DAY.
-     */
-    private static final ChartPeriod[] BIG_CHART_PERIODS = {
-            ChartPeriod.FIVE_YEARS, ChartPeriod.ONE_YEAR,
-            ChartPeriod.THREE_MONTHS, ChartPeriod.ONE_MONTH,
-            ChartPeriod.TWO_WEEKS
-    };
-
     /**
      * Maps every {@link Stat} to the {@link TextSwitcher} that displays its
      * value.
@@ -164,6 +149,72 @@ public final class IndividualStockActivity
      */
     private boolean showsRealValues_charts = false;
 
+    /**
+     * This Activity's copy of stock's one day prices, which is kept while
+     * other ChartPeriods are shown, so that it does not need to be copied
+     * again when the one day chart is shown again. Empty until the one day
+     * chart is first shown.
+     *
+     * @see #setIntradayPrices()
+     */
+    private final IntradaySeries.Copy intradayCopy = new IntradaySeries.Copy();
+
+    private final ChartDownsampler chartDownsampler = new ChartDownsampler();
+
+    /**
+     * The scrubbing index to show in the next frame, or -1 if no frame is
+     * pending. Touch events can arrive faster than the display refreshes, so
+     * the top Views are updated at most once per frame, with the latest
+     * scrubbing index.
+     *
+     * @see #onScrubbed(int)
+     */
+    private int pendingScrubIndex = -1;
+
+    private final Choreographer.FrameCallback scrubFrameCallback = frameTimeNanos -> {
+        final int index = pendingScrubIndex;
+        pendingScrubIndex = -1;
+        showScrubIndex(index);
+    };
+
+    /**
+     * The prices that the change values are relative to while scrubbing. These
+     * are set at the first frame of a scrub, and are NaN when not scrubbing.
+     */
+    private double scrubFirstPrice = Double.NaN;
+    private double scrubClosePrice = Double.NaN;
+
+    /**
+     * Whether the extra hours Views show "After-Hours" for the scrubbing index
+     * that is shown. Only used for the one day chart.
+     */
+    private boolean scrubShowsAfterHours;
+
+    /**
+     * Maps each index of the one day chart to the text of its time, i.e.
+     * "9:35am ET". The time of an index is the same every day, so each text is
+     * only made the first time that its index is scrubbed.
+     */
+    private final SparseArray<String> intradayTimeTexts = new SparseArray<>();
+
+    /**
+     * Maps each index of the shown chart to the texts of its price, change
+     * point, and change percent, in that order. Each index's texts are only
+     * made the first time that it is scrubbed, and are kept until the shown
+     * prices, or the prices that the changes are relative to, change.
+     *
+     * @see #getScrubTexts(int, double, double)
+     * @see #clearScrubTexts()
+     */
+    private final SparseArray<String[]> scrubTexts = new SparseArray<>();
+
+    /**
+     * The {@link #scrubFirstPrice} and {@link #scrubClosePrice} that the
+     * changes of {@link #scrubTexts} are relative to.
+     */
+    private double scrubTextsFirstPrice = Double.NaN;
+    private double scrubTextsClosePrice = Double.NaN;
+
     /**
      * This is set to true once a {@link DownloadStatsTask} completes with a
      * status code of {@link DownloadStatsTask.Status#GOOD}. This variable's
@@ -178,6 +229,16 @@ public final class IndividualStockActivity
      */
     private boolean showsRealValues_stats = false;
 
+    /**
+     * The {@link AdvancedStock#STATIC_STATS} that were missing the last time
+     * they were downloaded or loaded, or null if they have not been yet. Once
+     * this is not null, each {@link DownloadStatsTask} only downloads the
+     * Stats that change during the day.
+     *
+     * @see #onDownloadStatsTaskCompleted(int, Set)
+     */
+    private volatile Set<Stat> staticMissingStats = null;
+
     /**
      * This is the number of consecutive times that a specific AsyncTask can
      * fail (IOException) and be restarted (new instance created and executed).
@@ -211,10 +272,33 @@ public final class IndividualStockActivity
      * complete with a {@link DownloadNewsTask.Status} not equal to {@link
      * DownloadNewsTask.Status#GOOD}.
      *
-     * @see #onDownloadNewsTaskCompleted(int)
+     * @see #onDownloadNewsTaskCompleted(int, List)
      */
     private int consecFails_newsTask = 0;
 
+    /**
+     * The age after which each section of {@link #stock} is downloaded again.
+     * The charts and stats are also downloaded again at these rates while this
+     * Activity is shown.
+     */
+    private static final long CHARTS_MAX_AGE_MS = 60000;
+    private static final long STATS_MAX_AGE_MS = 15000;
+    private static final long NEWS_MAX_AGE_MS = 10 * 60000;
+
+    /**
+     * The cached details of {@link #stock}, which are updated whenever a task
+     * completes with a status of GOOD.
+     *
+     * @see #showCachedDetails(StockDetailCache.Entry)
+     */
+    private StockDetailCache.Entry detailCacheEntry;
+
+    /**
+     * True while the cached details of stock are being shown through the
+     * tasks' completion methods, so that they are not cached again as new.
+     */
+    private boolean isShowingCachedDetails = false;
+
     /**
      * Called from {@link DownloadChartsTask#onPostExecute(Integer)}.
      * <p>
@@ -262,6 +346,10 @@ public final class IndividualStockActivity
         switch (status) {
             case DownloadChartsTask.Status.GOOD:
                 consecFails_chartTask = 0;
+                if (!isShowingCachedDetails) {
+                    detailCacheEntry.setChartsUpdated(missingChartPeriods);
+                    StockDetailCache.put(detailCacheEntry);
+                }
 
                 if (showsRealValues_charts) {
                     final ChartPeriod selectedPeriod = sparkViewAdapter.getChartPeriod();
@@ -271,11 +359,10 @@ public final class IndividualStockActivity
                      * differently than the big ChartPeriods. */
                     if (selectedPeriod == ChartPeriod.ONE_DAY) {
                         /* The 1D chart adds a data point every 5 minutes (while
-                         * OPEN). Check if a new data point has been added to
-                         * the prices list that is currently displayed. */
-                        if (sparkViewAdapter.getPrices().size() !=
-                                stock.getPrices(selectedPeriod).size()) {
-                            needToUpdate = true;
+                         * OPEN), and its last point can be corrected. Only
+                         * redraw if a shown price changed. */
+                        if (setIntradayPrices()) {
+                            sparkViewAdapter.notifyDataSetChanged();
                         }
                     } else if (selectedPeriod != null) {
                         /* sparkViewAdapter's ChartPeriod is null if stock does
@@ -290,20 +377,14 @@ public final class IndividualStockActivity
                          * ChartPeriod. Note that the charts for the big
                          * ChartPeriods will rarely need to be updated. Their
                          * data changes only once per trading day. */
-                        final String displayDate =
-                                sparkViewAdapter.getDate(
-                                        sparkViewAdapter.getDates().size() - 1);
-                        final String updatedDate =
-                                stock.getDates(selectedPeriod).get(
-                                        stock.getDates(selectedPeriod).size() - 1);
-                        if (!displayDate.equals(updatedDate)) {
+                        if (sparkViewAdapter.getDates().getLast() !=
+                                stock.getDates(selectedPeriod).getLast()) {
                             needToUpdate = true;
                         }
                     }
 
                     if (needToUpdate) {
-                        sparkViewAdapter.setPrices(stock.getPrices(selectedPeriod));
-                        sparkViewAdapter.setDates(stock.getDates(selectedPeriod));
+                        setBigChart(selectedPeriod);
                         sparkViewAdapter.notifyDataSetChanged();
                     }
                 } else {
@@ -311,7 +392,7 @@ public final class IndividualStockActivity
 
                     if (missingChartPeriods.size() != ChartPeriod.values().length) {
                         sparkViewAdapter.setChartPeriod(ChartPeriod.ONE_DAY);
-                        sparkViewAdapter.setPrices(stock.getPrices_1day());
+                        setIntradayPrices();
                         // Don't set dates for 1D chart
                         sparkViewAdapter.notifyDataSetChanged();
 
@@ -326,9 +407,9 @@ public final class IndividualStockActivity
                     loadingChartsProgressBar.setVisibility(View.GONE);
                 }
                 break;
-            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_MW_AND_WSJ:
-            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_MW_ONLY:
-            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_WSJ_ONLY:
+            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL:
+            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_INTRADAY_ONLY:
+            case DownloadChartsTask.Status.IO_EXCEPTION_FOR_HISTORICAL_ONLY:
                 consecFails_chartTask++;
 
                 if (consecFails_chartTask > NUM_CONSEC_TASK_FAILS_ALLOWED) {
@@ -343,6 +424,48 @@ public final class IndividualStockActivity
         }
     }
 
+    /**
+     * Makes {@link #sparkViewAdapter} show {@link #intradayCopy}, after
+     * bringing it up to date with stock's one day prices. If the copy is from
+     * the current trading session, only the prices that were appended or
+     * replaced since it was last updated are copied. This function does not
+     * call {@link SparkViewAdapter#notifyDataSetChanged()}.
+     *
+     * @return True if a price of the copy changed
+     */
+    private boolean setIntradayPrices() {
+        final int numCopiedPts = intradayCopy.getPrices().size();
+        final int firstChangedNdx = stock.getIntradaySeries().update(intradayCopy);
+        if (firstChangedNdx != -1 && firstChangedNdx < numCopiedPts) {
+            // A shown price was replaced, so the cached bounds may be wrong
+            sparkViewAdapter.invalidateBounds(ChartPeriod.ONE_DAY);
+        }
+        if (firstChangedNdx != -1 || sparkViewAdapter.getPrices() != intradayCopy.getPrices()) {
+            clearScrubTexts();
+        }
+        sparkViewAdapter.setPrices(intradayCopy.getPrices());
+        return firstChangedNdx != -1;
+    }
+
+    /**
+     * Makes {@link #sparkViewAdapter} show stock's chart of chartPeriod,
+     * reduced to the width of {@link #sparkView}. This function does not call
+     * {@link SparkViewAdapter#notifyDataSetChanged()}.
+     *
+     * @param chartPeriod A ChartPeriod other than {@link ChartPeriod#ONE_DAY}
+     */
+    private void setBigChart(final ChartPeriod chartPeriod) {
+        // sparkView is not measured until its first layout
+        final int widthPx = sparkView.getWidth() > 0 ?
+                sparkView.getWidth() :
+                getResources().getDisplayMetrics().widthPixels;
+        final ChartDownsampler.Chart chart = chartDownsampler.downsample(chartPeriod,
+                stock.getPrices(chartPeriod), stock.getDates(chartPeriod), widthPx);
+        sparkViewAdapter.setPrices(chart.getPrices());
+        sparkViewAdapter.setDates(chart.getDates());
+        clearScrubTexts();
+    }
+
     /**
      * Called from {@link DownloadStatsTask#onPostExecute(Integer)}.
      * <p>
@@ -377,6 +500,18 @@ public final class IndividualStockActivity
         switch (status) {
             case DownloadStatsTask.Status.GOOD:
                 consecFails_statsTask = 0;
+                if (!isShowingCachedDetails) {
+                    detailCacheEntry.setStatsUpdated(missingStats);
+                    StockDetailCache.put(detailCacheEntry);
+
+                    final Set<Stat> staticMissing = EnumSet.noneOf(Stat.class);
+                    for (final Stat s : AdvancedStock.STATIC_STATS) {
+                        if (missingStats.contains(s)) {
+                            staticMissing.add(s);
+                        }
+                    }
+                    staticMissingStats = staticMissing;
+                }
 
                 initTopViews(); // Update top views
 
@@ -430,7 +565,7 @@ public final class IndividualStockActivity
 
                     description.setText(getString(R.string.ioException_loadingDescription));
                 } else {
-                    new DownloadStatsTask(stock, this).execute();
+                    new DownloadStatsTask(stock, staticMissingStats, this).execute();
                 }
                 break;
         }
@@ -439,37 +574,49 @@ public final class IndividualStockActivity
     /**
      * Called from {@link DownloadNewsTask#onPostExecute(Integer)}.
      * <p>
-     * {@link DownloadNewsTask} updates {@link #newsRecyclerAdapter} within
-     * {@link DownloadNewsTask#doInBackground(Void...)}, so this method does not
-     * need to do much analysis on the completed DownloadNewsTask. The {@link
+     * {@link DownloadNewsTask} only downloads the Articles that are newer
+     * than the Articles in {@link #newsRecyclerAdapter}, and they are added to
+     * the top of newsRecyclerAdapter here, so that only the new rows are
+     * drawn. This method does not need to do much analysis on the completed
+     * DownloadNewsTask. The {@link
      * DownloadNewsTask.Status} codes are very clear, and determine what this
      * method does. If status equals {@link
      * DownloadNewsTask.Status#IO_EXCEPTION}, and {@link #consecFails_newsTask}
      * does not exceed {@link #NUM_CONSEC_TASK_FAILS_ALLOWED}, a
      * DownloadNewsTask is restarted (created and executed). If status equals
      * IOException and consecFails_newsTask does exceed
-     * NUM_CONSEC_TASK_FAILS_ALLOWED, a no connection message is shown. If
+     * NUM_CONSEC_TASK_FAILS_ALLOWED, a no connection message is shown, unless
+     * Articles from {@link NewsStore} are already shown. If
      * status equals {@link DownloadNewsTask.Status#NO_NEWS_ARTICLES}, a
      * corresponding message is shown. If status equals {@link
-     * DownloadNewsTask.Status#GOOD}, {@link #newsRv} is shown displaying the
-     * Articles that {@link #newsRecyclerAdapter} has.
+     * DownloadNewsTask.Status#GOOD}, articles are added to newsRecyclerAdapter,
+     * and {@link #newsRv} is shown displaying the Articles that
+     * newsRecyclerAdapter has.
      * <p>
      * Once DownloadNewsTasks are no longer being created, regardless of the
      * value of status, this method sets {@link #loadingNewsProgressBar}'s
      * visibility to {@link View#GONE}, and a response (newsRv or message) to
      * the DownloadNewsTask is shown.
      *
-     * @param status The {@link DownloadNewsTask.Status} of the task
+     * @param status   The {@link DownloadNewsTask.Status} of the task
+     * @param articles The new Articles, from newest to oldest
      * @see #consecFails_newsTask
      */
     @Override
-    public synchronized void onDownloadNewsTaskCompleted(final int status) {
+    public synchronized void onDownloadNewsTaskCompleted(final int status,
+                                                         final List<Article> articles) {
+        if (status == DownloadNewsTask.Status.GOOD) {
+            newsRecyclerAdapter.addNewArticles(articles);
+        }
+        if (!isShowingCachedDetails && status != DownloadNewsTask.Status.IO_EXCEPTION) {
+            detailCacheEntry.setNewsUpdated(newsRecyclerAdapter.getArticles(), status);
+            StockDetailCache.put(detailCacheEntry);
+        }
+
         switch (status) {
             case DownloadNewsTask.Status.GOOD:
                 loadingNewsProgressBar.setVisibility(View.GONE);
                 newsRv.setVisibility(View.VISIBLE);
-
-                newsRecyclerAdapter.notifyDataSetChanged();
                 break;
             case DownloadNewsTask.Status.NO_NEWS_ARTICLES:
                 loadingNewsProgressBar.setVisibility(View.GONE);
@@ -481,18 +628,37 @@ public final class IndividualStockActivity
                 consecFails_newsTask++;
 
                 if (consecFails_newsTask > NUM_CONSEC_TASK_FAILS_ALLOWED) {
+                    if (newsRecyclerAdapter.getItemCount() > 0) {
+                        // Keep showing the stored Articles
+                        break;
+                    }
                     loadingNewsProgressBar.setVisibility(View.GONE);
                     newsRv.setVisibility(View.GONE);
 
                     newsStatus.setText(getString(R.string.ioException_loadingNews));
                 } else {
-                    new DownloadNewsTask(stock.getTicker(), newsRecyclerAdapter.getArticleSparseArray(), this)
+                    new DownloadNewsTask(stock.getTicker(), newsRecyclerAdapter.getArticles(), this)
                             .execute();
                 }
                 break;
         }
     }
 
+    /**
+     * Called from {@link DownloadNewsTask#onProgressUpdate(Integer...)} when
+     * the Articles of {@link #stock} were read from {@link NewsStore}, before
+     * the newer Articles are downloaded. The stored Articles are shown right
+     * away, instead of {@link #loadingNewsProgressBar}.
+     *
+     * @param articles The stored Articles, from newest to oldest
+     */
+    @Override
+    public synchronized void onStoredNewsLoaded(final List<Article> articles) {
+        newsRecyclerAdapter.addNewArticles(articles);
+        loadingNewsProgressBar.setVisibility(View.GONE);
+        newsRv.setVisibility(View.VISIBLE);
+    }
+
     /**
      * Initialize the top TextViews that are changed during scrubbing. This
      * includes the live price (large), live change point, live change percent,
@@ -583,66 +749,162 @@ public final class IndividualStockActivity
     /**
      * Called from {@link CustomScrubGestureDetector#onTouch(View, MotionEvent)}.
      * <p>
+     * This method does not change the top Views. It schedules {@link
+     * #showScrubIndex(int)} for the next frame, if it is not already
+     * scheduled, and the index of the latest call is shown.
+     *
+     * @param index The scrubbing index; index of the scrubbing line
+     */
+    @Override
+    public void onScrubbed(final int index) {
+        if (pendingScrubIndex == -1) {
+            Choreographer.getInstance().postFrameCallback(scrubFrameCallback);
+        }
+        pendingScrubIndex = index;
+    }
+
+    /**
+     * Called once per frame while scrubbing, from {@link #scrubFrameCallback}.
+     * <p>
      * This method changes the top Views depending on which {@link ChartPeriod}
      * is selected, and the index of the scrubbing line.
      * <p>
      * If the selected ChartPeriod is {@link ChartPeriod#ONE_DAY}, this method
-     * calculates the time of day that corresponds to the scrubbing index, and
-     * displays it in {@link #top_time}. If the top time value is 4:00pm or
-     * later, {@link #top_eh_linearLayout} is set to {@link View#VISIBLE}, and
-     * the top extra hours Views display {@link #stock}'s extra hours values.
-     * Additionally, if the scrubbing index represents a time value of 4:00pm or
-     * later, the shown change values reset to be relative to stock's price at
-     * close. This differs from if the scrubbing index does not represent an
-     * extra hours time, and the change values are relative to the stock's price
-     * at open. This functionality is unique for when the selected ChartPeriod
-     * is ONE_DAY. This is the only ChartPeriod where top_eh_linearLayout is used
+     * displays the time of day that corresponds to the scrubbing index in
+     * {@link #top_time}. If the top time value is 4:00pm or later, {@link
+     * #top_eh_linearLayout} is set to {@link View#VISIBLE}, and the top extra
+     * hours Views display {@link #stock}'s extra hours values. Additionally,
+     * if the scrubbing index represents a time value of 4:00pm or later, the
+     * shown change values reset to be relative to stock's price at close. This
+     * differs from if the scrubbing index does not represent an extra hours
+     * time, and the change values are relative to the stock's price at open.
+     * This functionality is unique for when the selected ChartPeriod is
+     * ONE_DAY. This is the only ChartPeriod where top_eh_linearLayout is used
      * and VISIBLE, and the only ChartPeriod where the change values can be
-     * relative to different prices depending on the scrubbing index.
+     * relative to different prices depending on the scrubbing index. The
+     * extra hours Views are only changed when the scrubbing index crosses
+     * 4:00pm.
      * <p>
      * If the selected ChartPeriod is not ONE_DAY, this method sets top_time to
-     * show the date at this scrubbing index of the selected ChartPeriod. Unlike
-     * the time of day if the selected ChartPeriod were ONE_DAY, the date is not
-     * calculated of the scrubbing index of the selected ChartPeriod is not
-     * calculated in this method. The date at this scrubbing index is gotten
-     * from {@link SparkViewAdapter#getDate(int)}. For ChartPeriods not equal to
-     * ONE_DAY, the change values are always relative to the first price of the
-     * list of prices of the selected ChartPeriod.
+     * show the date at this scrubbing index of the selected ChartPeriod, which
+     * is gotten from {@link SparkViewAdapter#getDate(int)}. For ChartPeriods
+     * not equal to ONE_DAY, the change values are always relative to the
+     * first price of the list of prices of the selected ChartPeriod.
+     * <p>
+     * The prices that the change values are relative to are looked up once
+     * per scrub, at the first frame. The texts of the price and change values
+     * of each index are only formatted the first time that it is scrubbed
+     * (see {@link #getScrubTexts(int, double, double)}).
      *
      * @param index The scrubbing index; index of the scrubbing line
      */
-    @Override
-    public void onScrubbed(final int index) {
-        // Get scrubbing price from the chart data for the selected ChartPeriod
-        final double scrubPrice = sparkViewAdapter.getPrice(index);
-        top_price.setText(getString(R.string.double2dec, scrubPrice));
+    private void showScrubIndex(final int index) {
+        // The chart may have been replaced since the touch event
+        if (index >= sparkViewAdapter.getCount()) {
+            return;
+        }
 
-        final double firstPriceOfSection;
-        final double changePoint;
-        final double changePercent;
+        final boolean isNewScrub = Double.isNaN(scrubFirstPrice);
+        if (isNewScrub) {
+            scrubFirstPrice = sparkViewAdapter.getPrice(0);
+            /* Because stock instanceof StockWithEhVals if it has an after
+             * hours section, stock.getPrice() returns the price at close. */
+            scrubClosePrice = stock.getPrice();
+        }
 
+        final double firstPriceOfSection;
         if (sparkViewAdapter.getChartPeriod() == ChartPeriod.ONE_DAY) {
             /* After hours begins as soon as the open market closes. Therefore,
              * the after hours section of the chart should begin at 4:00pm,
              * which is at index 78. If the user is scrubbing in the after hours
              * range of the chart, the change values should change so that they
              * are relative to the price at close. */
-            if (index >= 78) {
-                /* Because stock instanceof StockWithEhVals,
-                 * stock.getPrice() returns the price at close. */
-                firstPriceOfSection = stock.getPrice();
-
-                // "Hide" extra hours change data, only show "After-Hours"
-                top_eh_changePoint.setText("");
-                top_eh_changePercent.setText("");
-                top_eh_time.setText(getString(R.string.afterHours));
-                top_eh_linearLayout.setVisibility(View.VISIBLE);
-            } else {
-                firstPriceOfSection = sparkViewAdapter.getPrice(0);
+            final boolean isAfterHours = index >= 78;
+            if (isNewScrub || isAfterHours != scrubShowsAfterHours) {
+                scrubShowsAfterHours = isAfterHours;
+                if (isAfterHours) {
+                    // "Hide" extra hours change data, only show "After-Hours"
+                    top_eh_changePoint.setText("");
+                    top_eh_changePercent.setText("");
+                    top_eh_time.setText(getString(R.string.afterHours));
+                    top_eh_linearLayout.setVisibility(View.VISIBLE);
+                } else {
+                    top_eh_linearLayout.setVisibility(View.INVISIBLE);
+                }
+            }
+            firstPriceOfSection = isAfterHours ? scrubClosePrice : scrubFirstPrice;
 
-                top_eh_linearLayout.setVisibility(View.INVISIBLE);
+            top_time.setText(getIntradayTimeText(index));
+        } else {
+            firstPriceOfSection = scrubFirstPrice;
+
+            // Get scrubbing date from the chart data for the selected ChartPeriod
+            top_time.setText(sparkViewAdapter.getDate(index));
+        }
+
+        final String[] texts = getScrubTexts(index, firstPriceOfSection, isNewScrub);
+        top_price.setText(texts[0]);
+        top_changePoint.setText(texts[1]);
+        top_changePercent.setText(texts[2]);
+    }
+
+    /**
+     * @param index               The scrubbing index
+     * @param firstPriceOfSection The price that the change values of index
+     *                            are relative to
+     * @param isNewScrub          True if this is the first frame of a scrub,
+     *                            in which case the texts are cleared if the
+     *                            prices that changes are relative to have
+     *                            changed since they were made
+     * @return The texts of the price, change point, and change percent of
+     * index in the shown chart, in that order
+     */
+    private String[] getScrubTexts(final int index, final double firstPriceOfSection,
+                                   final boolean isNewScrub) {
+        if (isNewScrub && (scrubFirstPrice != scrubTextsFirstPrice ||
+                scrubClosePrice != scrubTextsClosePrice)) {
+            clearScrubTexts();
+            scrubTextsFirstPrice = scrubFirstPrice;
+            scrubTextsClosePrice = scrubClosePrice;
+        }
+
+        String[] texts = scrubTexts.get(index);
+        if (texts == null) {
+            // Get scrubbing price from the chart data for the selected ChartPeriod
+            final double scrubPrice = sparkViewAdapter.getPrice(index);
+            final double changePoint = scrubPrice - firstPriceOfSection;
+            final double changePercent = (changePoint / firstPriceOfSection) * 100;
+
+            texts = new String[3];
+            texts[0] = getString(R.string.double2dec, scrubPrice);
+            if (changePoint < 0) {
+                // '-' is already part of the number
+                texts[1] = getString(R.string.double2dec, changePoint);
+                texts[2] = getString(R.string.openParen_double2dec_percent_closeParen, changePercent);
+            } else {
+                texts[1] = getString(R.string.plus_double2dec, changePoint);
+                texts[2] = getString(R.string.openParen_plus_double2dec_percent_closeParen, changePercent);
             }
+            scrubTexts.put(index, texts);
+        }
+        return texts;
+    }
+
+    /**
+     * Called when the prices that {@link #sparkViewAdapter} shows change, so
+     * that the texts of the old prices are not shown while scrubbing.
+     */
+    private void clearScrubTexts() {
+        scrubTexts.clear();
+    }
 
+    /**
+     * @param index An index of the one day chart
+     * @return The text of the time of day of index, i.e. "9:35am ET"
+     */
+    private String getIntradayTimeText(final int index) {
+        String text = intradayTimeTexts.get(index);
+        if (text == null) {
             /* There are 78 data points representing the open hours data
              * (9:30am - 4:00pm ET). This means that 78 data points represent
              * 6.5 hours. Therefore, there is one data point for every 5
@@ -660,28 +922,13 @@ public final class IndividualStockActivity
                 hour %= 12;
             }
             if (isPm) {
-                top_time.setText(getString(R.string.int_colon_int2dig_pm_ET, hour, minute));
+                text = getString(R.string.int_colon_int2dig_pm_ET, hour, minute);
             } else {
-                top_time.setText(getString(R.string.int_colon_int2dig_am_ET, hour, minute));
+                text = getString(R.string.int_colon_int2dig_am_ET, hour, minute);
             }
-        } else {
-            firstPriceOfSection = sparkViewAdapter.getPrice(0);
-
-            // Get scrubbing date from the chart data for the selected ChartPeriod
-            top_time.setText(getString(R.string.string, sparkViewAdapter.getDate(index)));
-        }
-
-        changePoint = scrubPrice - firstPriceOfSection;
-        changePercent = (changePoint / firstPriceOfSection) * 100;
-
-        if (changePoint < 0) {
-            // '-' is already part of the number
-            top_changePoint.setText(getString(R.string.double2dec, changePoint));
-            top_changePercent.setText(getString(R.string.openParen_double2dec_percent_closeParen, changePercent));
-        } else {
-            top_changePoint.setText(getString(R.string.plus_double2dec, changePoint));
-            top_changePercent.setText(getString(R.string.openParen_plus_double2dec_percent_closeParen, changePercent));
+            intradayTimeTexts.put(index, text);
         }
+        return text;
     }
 
     /**
@@ -689,10 +936,17 @@ public final class IndividualStockActivity
      * <p>
      * When scrubbing, the top Views are changed. Once the scrubbing ends, the
      * top Views need to be restored to their original, non-scrubbing states.
-     * This method calls {@link #initTopViews()} to do this.
+     * This method cancels the pending frame, if there is one, and calls
+     * {@link #initTopViews()} to do this.
      */
     @Override
     public void onScrubEnded() {
+        if (pendingScrubIndex != -1) {
+            Choreographer.getInstance().removeFrameCallback(scrubFrameCallback);
+            pendingScrubIndex = -1;
+        }
+        scrubFirstPrice = Double.NaN;
+        scrubClosePrice = Double.NaN;
         initTopViews();
     }
 
@@ -717,11 +971,32 @@ public final class IndividualStockActivity
         initNewsRecyclerView();
         initTopViews();
         initStatToViewMap();
-        AndroidThreeTen.init(this); // Used in DownloadChartsTask
         prefs = PreferenceManager.getDefaultSharedPreferences(this);
         isStarred = getIntent().getBooleanExtra("Is in favorites", false);
         wasStarredInitially = isStarred;
         isInPrefs = isStarred;
+        showCachedDetails(detailCacheEntry);
+    }
+
+    /**
+     * Shows the sections of entry that have been downloaded before, in the
+     * same way that they are shown when their tasks complete.
+     *
+     * @param entry The cached details of {@link #stock}
+     */
+    private void showCachedDetails(final StockDetailCache.Entry entry) {
+        isShowingCachedDetails = true;
+        if (entry.getStatsUpdateTime() != StockDetailCache.Entry.NEVER) {
+            onDownloadStatsTaskCompleted(DownloadStatsTask.Status.GOOD, entry.getMissingStats());
+        }
+        if (entry.getChartsUpdateTime() != StockDetailCache.Entry.NEVER) {
+            onDownloadChartsTaskCompleted(DownloadChartsTask.Status.GOOD,
+                    entry.getMissingChartPeriods());
+        }
+        if (entry.getNewsUpdateTime() != StockDetailCache.Entry.NEVER) {
+            onDownloadNewsTaskCompleted(entry.getNewsStatus(), entry.getArticles());
+        }
+        isShowingCachedDetails = false;
     }
 
     /**
@@ -759,19 +1034,47 @@ public final class IndividualStockActivity
         changePoint = parseDouble(data[2]);
         changePercent = parseDouble(data[3]);
 
+        /* If stock's details are cached, copy them into the correct type of
+         * AdvancedStock, and update the copy with the values from
+         * HomeActivity, which are more recent. */
+        final StockDetailCache.Entry cached = StockDetailCache.get(ticker);
+
         if (state == AFTER_HOURS || state == PREMARKET) {
             final double ehPrice, ehChangePoint, ehChangePercent;
             ehPrice = parseDouble(data[4]);
             ehChangePoint = parseDouble(data[5]);
             ehChangePercent = parseDouble(data[6]);
 
-            stock = new ConcreteAdvancedStockWithEhVals(state, ticker, name,
-                    price, changePoint, changePercent,
-                    ehPrice, ehChangePoint, ehChangePercent);
+            if (cached != null) {
+                final ConcreteAdvancedStockWithEhVals ehStock =
+                        new ConcreteAdvancedStockWithEhVals(cached.getStock());
+                ehStock.setExtraHoursPrice(ehPrice);
+                ehStock.setExtraHoursChangePoint(ehChangePoint);
+                ehStock.setExtraHoursChangePercent(ehChangePercent);
+                stock = ehStock;
+            } else {
+                stock = new ConcreteAdvancedStockWithEhVals(state, ticker, name,
+                        price, changePoint, changePercent,
+                        ehPrice, ehChangePoint, ehChangePercent);
+            }
+        } else if (cached != null) {
+            stock = new ConcreteAdvancedStock(cached.getStock());
         } else {
             stock = new ConcreteAdvancedStock(state, ticker, name,
                     price, changePoint, changePercent);
         }
+
+        if (cached != null) {
+            stock.setState(state);
+            stock.setPrice(price);
+            stock.setChangePoint(changePoint);
+            stock.setChangePercent(changePercent);
+        }
+        detailCacheEntry = new StockDetailCache.Entry(stock);
+        if (cached != null) {
+            detailCacheEntry.copySectionsFrom(cached);
+            StockDetailCache.put(detailCacheEntry);
+        }
     }
 
     /**
@@ -866,7 +1169,8 @@ public final class IndividualStockActivity
      * #onPause()} is called. This method then uses timer to create and execute
      * {@link DownloadChartsTask}s and {@link DownloadStatsTask}s on different
      * constant intervals. This method also creates and executes a single
-     * instance of {@link DownloadNewsTask}.
+     * instance of {@link DownloadNewsTask}. Sections of {@link #stock} whose
+     * cached details are still fresh are not downloaded until they are stale.
      */
     @Override
     protected void onResume() {
@@ -885,24 +1189,29 @@ public final class IndividualStockActivity
             @Override
             public void run() {
                 if (consecFails_statsTask < NUM_CONSEC_TASK_FAILS_ALLOWED) {
-                    new DownloadStatsTask(stock, IndividualStockActivity.this)
-                            .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+                    new DownloadStatsTask(stock, staticMissingStats,
+                            IndividualStockActivity.this).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
                 }
             }
         };
 
         timer = new Timer();
 
-        // Run charts task every 1 minute, starting immediately
-        timer.schedule(chartsTask, 0, 60000);
+        // Run charts task every 1 minute, starting when the cached charts are stale
+        timer.schedule(chartsTask, StockDetailCache.getMillisUntilStale(
+                detailCacheEntry.getChartsUpdateTime(), CHARTS_MAX_AGE_MS), CHARTS_MAX_AGE_MS);
 
-        // Run stats task every 15 seconds, starting immediately
-        timer.schedule(statsTask, 0, 15000);
+        // Run stats task every 15 seconds, starting when the cached stats are stale
+        timer.schedule(statsTask, StockDetailCache.getMillisUntilStale(
+                detailCacheEntry.getStatsUpdateTime(), STATS_MAX_AGE_MS), STATS_MAX_AGE_MS);
 
 
-        // Start tasks that don't update
-        new DownloadNewsTask(stock.getTicker(), newsRecyclerAdapter.getArticleSparseArray(), this)
-                .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        // Start tasks that don't update, unless their cached details are fresh
+        if (StockDetailCache.getMillisUntilStale(
+                detailCacheEntry.getNewsUpdateTime(), NEWS_MAX_AGE_MS) == 0) {
+            new DownloadNewsTask(stock.getTicker(), newsRecyclerAdapter.getArticles(), this)
+                    .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        }
     }
 
     /**
@@ -998,8 +1307,12 @@ public final class IndividualStockActivity
                 if (selected != sparkViewAdapter.getChartPeriod()) {
                     // If the selected ChartPeriod has changed
                     sparkViewAdapter.setChartPeriod(selected);
-                    sparkViewAdapter.setPrices(stock.getPrices(selected));
-                    sparkViewAdapter.setDates(stock.getDates(selected));
+                    if (selected == ChartPeriod.ONE_DAY) {
+                        setIntradayPrices();
+                        sparkViewAdapter.setDates(stock.getDates(selected));
+                    } else {
+                        setBigChart(selected);
+                    }
                     sparkViewAdapter.notifyDataSetChanged();
 
                     initTopViews();
@@ -1276,395 +1589,15 @@ public final class IndividualStockActivity
         }
 
         /**
-         * Gets the prices and dates needed for all the charts of {@link #stock}.
-         * The one day chart is taken from the MarketWatch multiple-stock
-         * website, and all other "big" charts are taken from two WSJ websites.
-         * This method connects to three websites:
-         * <ul>
-         * <li>to the MarketWatch multiple-stock website
-         * <li>to stock's WSJ overview website
-         * <li>to stock's WSJ historical quotes AJAX website
-         * </ul>
-         * <p>
-         * If an {@link IOException} is thrown during any of the three
-         * connections, the returned {@link DownloadChartsTask.Status} can
-         * represent which websites failed to connect. Because of the
-         * co-dependence of the information taken from the two WSJ websites,
-         * these two connections are treated as pair by the returned Status. For
-         * example, if this method throws and IOException when connecting to the
-         * WSJ historical quotes AJAX website, regardless of the status of the
-         * connection to the WSJ overview website, the returned Status will
-         * represent that there was an IOException from WSJ, without specifying
-         * which WSJ website threw the IOException.
-         * <p>
-         * The loading of the one day chart and the loading of the big charts
-         * are treated separately. Meaning that the loading of the big charts is
-         * not effected by the status of the one day chart, and vice versa.
-         * <p>
-         * If a Stock isn't old enough to contain all the data for a {@link
-         * ChartPeriod}'s chart, then that ChartPeriod's prices
-         * and dates are padded at the front of the data with filler data
-         * points.
+         * Gets the prices and dates needed for all the charts of {@link #stock}
+         * from {@link Sources#getChartSource()}.
          *
          * @param voids Take no parameters
          * @return The {@link DownloadChartsTask.Status} of the method
          */
         @Override
         protected Integer doInBackground(final Void... voids) {
-            int status = Status.GOOD;
-
-            Document multiDoc;
-            try {
-                multiDoc = Jsoup.connect(
-                        "https://www.marketwatch.com/investing/multi?tickers=" + stock.getTicker())
-                        .timeout(20000)
-                        .get();
-            } catch (final IOException ioe) {
-                multiDoc = null;
-                missingChartPeriods.add(ChartPeriod.ONE_DAY);
-                status = Status.IO_EXCEPTION_FOR_MW_ONLY;
-            }
-
-            if (multiDoc != null) {
-                final ArrayList<Double> prices_1day = new ArrayList<>();
-
-                final Element multiQuoteValueRoot = multiDoc.selectFirst(
-                        "html > body > div#blanket > div[class*=multi] > div#maincontent > " +
-                                "div[class^=block multiquote] > div[class^=quotedisplay] > " +
-                                "div[class^=section activeQuote bgQuote]");
-                final Element javascriptElmnt = multiQuoteValueRoot.selectFirst(
-                        ":root > div.intradaychart > script[type=text/javascript]");
-                final String jsonStr = substringBetween(
-                        javascriptElmnt.toString(),
-                        "var chartData = [", "];");
-
-                /* If there is no chart data, javascriptElmnt element still
-                 * exists in the HTML and there is still some javascript code in
-                 * javascriptElmnt.toString(). There is just no chart data
-                 * embedded in the javascript. This means that the call to
-                 * substringBetween() on javascriptElmnt.toString() will return
-                 * null, because no substring between the open and close
-                 * parameters (substringBetween() parameters) exists. */
-                final String javascriptStr = substringBetween(
-                        javascriptElmnt.toString(),
-                        "Trades\":[", "]");
-                if (javascriptStr != null) {
-                    try {
-                        final JSONArray tradesArr =
-                                new JSONObject(jsonStr)
-                                        .getJSONObject("Value")
-                                        .getJSONArray("Data")
-                                        .getJSONObject(0)
-                                        .getJSONObject("Value")
-                                        .getJSONArray("Sessions")
-                                        .getJSONObject(0)
-                                        .getJSONArray("Trades");
-
-                        final int numPrices = tradesArr.length();
-
-                        /* Fill prices_1day. If null values are found, replace them with the last
-                         * non-null value. If the first value is null, replace it with the first
-                         * non-null value. */
-                        if (tradesArr.length() > 0) {
-                            prices_1day.ensureCapacity(numPrices);
-
-                            /* Init as out of bounds. If firstNonNullNdx is never changed to an
-                             * index in bounds, then all values in tradesArr are null. */
-                            int firstNonNullNdx = numPrices;
-
-                            // Find firstNonNullNdx and fill chartPrices up through firstNonNullNdx
-                            /* After this if/else statement, chartPrices is filled with non-null
-                             * values up through firstNonNullNdx. */
-                            if (tradesArr.get(0).toString().equals("null")) {
-                                for (int i = 1; i < numPrices; i++) { // Redundant to check index 0
-                                    if (!tradesArr.get(i).toString().equals("null")) {
-                                        firstNonNullNdx = i;
-
-                                        /* The first non-null value has been found. The
-                                         * indexes < firstNonNullNdx have null values and therefore
-                                         * should be replaced with the first non-null value
-                                         * (firstNonNullValue) which is at firstNonNullNdx. */
-                                        final double firstNonNullValue =
-                                                parseDouble(tradesArr.get(firstNonNullNdx).toString());
-                                        while (i >= 0) {
-                                            prices_1day.add(firstNonNullValue);
-                                            i--;
-                                        }
-                                        break;
-                                    }
-                                }
-                            } else {
-                                firstNonNullNdx = 0;
-                                prices_1day.add(parseDouble(tradesArr.get(0).toString()));
-                            }
-
-                            // Fill chartPrices for the indexes after firstNonNullNdx
-                            for (int i = firstNonNullNdx + 1; i < numPrices; i++) {
-                                if (!tradesArr.get(i).toString().equals("null")) {
-                                    prices_1day.add(parseDouble(tradesArr.get(i).toString()));
-                                } else {
-                                    prices_1day.add(prices_1day.get(i - 1));
-                                }
-                            }
-
-
-                            /* The values given on the Market Watch multi stock page can be slightly
-                             * off by minutes. For example, the Market Watch multi stock page may
-                             * correctly say that AAPL closed at $171.00, but the value used for the
-                             * Market Watch graph (where we're getting the 1 day graph data) may
-                             * show that the AAPL price at 4:00pm (time of close) is $171.21; for
-                             * this example, it is likely that around the time of 4:00pm, AAPL's
-                             * price moved toward $171.21 (or at least increased from its closing
-                             * price). The largest problem that this issue causes is that a user
-                             * could be scrubbing through the 1 day graph, and notice that the price
-                             * at 4:00pm is different from the closing price - this also causes the
-                             * change values at 4:00pm to be nonzero, which is incorrect. Fix this
-                             * issue by manually setting the price at 4:00pm to the price at close.
-                             * Recall that in the 1 day chart, the prices are taken every 5 minutes,
-                             * starting at 9:30am - the 4:00pm price is at index 78. */
-                            if (prices_1day.size() >= 79) {
-                                prices_1day.set(78, stock.getPrice());
-                            }
-
-                            // Update stock's one day chart
-                            stock.setPrices_1day(prices_1day);
-                        }
-                    } catch (final JSONException jsone) {
-                        missingChartPeriods.add(ChartPeriod.ONE_DAY);
-                    }
-                } else {
-                    missingChartPeriods.add(ChartPeriod.ONE_DAY);
-                }
-            }
-            // Done with one day chart. Code below is for the big charts
-
-
-            Document individualDoc;
-            try {
-                individualDoc = Jsoup.connect(
-                        "https://quotes.wsj.com/" + stock.getTicker())
-                        .timeout(20000)
-                        .get();
-            } catch (final IOException ioe) {
-                individualDoc = null;
-                missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
-                status = status == Status.GOOD ?
-                        Status.IO_EXCEPTION_FOR_WSJ_ONLY :
-                        Status.IO_EXCEPTION_FOR_MW_AND_WSJ;
-            }
-
-            if (individualDoc != null) {
-                /* Get chart data for periods greater than one day from Wall
-                 * Street Journal. Certain values from WSJ page are needed for
-                 * the URL of the WSJ database of historical prices. */
-                final Element contentFrame = individualDoc.selectFirst(
-                        ":root > body > div.pageFrame > div.contentFrame");
-                final Element module2 = contentFrame.selectFirst(
-                        ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]");
-
-                final String countryCode = module2.selectFirst(
-                        ":root > input#quote_country_code").ownText();
-                final String exchangeCode = module2.selectFirst(
-                        ":root > input#quote_exchange_code").ownText();
-                final String quoteType = module2.selectFirst(
-                        ":root > input#quote_type").ownText();
-
-                final LocalDate today = LocalDate.now();
-                /* Deduct extra two weeks because it doesn't hurt and ensures
-                 * that the URL we create doesn't incorrectly believe that there
-                 * isn't enough data for the five year chart. */
-                final LocalDate fiveYearsAgo = today.minusYears(5).minusWeeks(2);
-                final int period_5years = (int) ChronoUnit.DAYS.between(fiveYearsAgo, today);
-
-                // Pad zeros on the left if necessary
-                final String wsj_todayDateStr = String.format(Locale.US, "%d/%d/%d",
-                        today.getMonthValue(), today.getDayOfMonth(), today.getYear());
-                final String wsj_5yearsAgoDateStr = String.format(Locale.US, "%d/%d/%d",
-                        fiveYearsAgo.getMonthValue(), fiveYearsAgo.getDayOfMonth(), fiveYearsAgo.getYear());
-
-                /* If the WSJ URL parameters (ie. start date) request data from
-                 * dates that are prior to a stock's existence, then the WSJ
-                 * response delivers all historical data available for the
-                 * stock. Because five years is the largest chart period we are
-                 * using, data for the smaller periods can be grabbed from the
-                 * five year WSJ response page. The actual number of data points
-                 * that exists for a stock can be determined by parsing the WSJ
-                 * response and counting the number of certain elements (ie.
-                 * table rows). */
-                final String wsj_url_5years = String.format(Locale.US,
-                        "https://quotes.wsj.com/ajax/historicalprices/4/%s?MOD_VIEW=page" +
-                                "&ticker=%s&country=%s&exchange=%s&instrumentType=%s&num_rows=%d" +
-                                "&range_days=%d&startDate=%s&endDate=%s",
-                        stock.getTicker(), stock.getTicker(), countryCode, exchangeCode, quoteType,
-                        period_5years, period_5years, wsj_5yearsAgoDateStr, wsj_todayDateStr);
-
-
-                Document fiveYearDoc;
-                try {
-                    fiveYearDoc = Jsoup.connect(wsj_url_5years)
-                            .timeout(20000)
-                            .get();
-                } catch (final IOException ioe) {
-                    fiveYearDoc = null;
-                    missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
-                    status = status == Status.GOOD ?
-                            Status.IO_EXCEPTION_FOR_WSJ_ONLY :
-                            Status.IO_EXCEPTION_FOR_MW_AND_WSJ;
-                }
-
-                if (fiveYearDoc != null) {
-                    final ArrayList<Double> prices_5years = new ArrayList<>();
-                    final ArrayList<Double> prices_1year = new ArrayList<>();
-                    final ArrayList<Double> prices_3months = new ArrayList<>();
-                    final ArrayList<Double> prices_1month = new ArrayList<>();
-                    final ArrayList<Double> prices_2weeks = new ArrayList<>();
-                    final ArrayList<ArrayList<Double>> pricesList =
-                            new ArrayList<>(Arrays.asList(
-                                    prices_5years, prices_1year, prices_3months,
-                                    prices_1month, prices_2weeks));
-                    final ArrayList<String> dates_5years = new ArrayList<>();
-                    final ArrayList<String> dates_1year = new ArrayList<>();
-                    final ArrayList<String> dates_3months = new ArrayList<>();
-                    final ArrayList<String> dates_1month = new ArrayList<>();
-                    final ArrayList<String> dates_2weeks = new ArrayList<>();
-                    final List<ArrayList<String>> datesList =
-                            new ArrayList<>(Arrays.asList(
-                                    dates_5years, dates_1year, dates_3months,
-                                    dates_1month, dates_2weeks));
-
-                    int i, reverseNdx, count;
-
-                    /* This is the number of data points - if incrementing by
-                     * 1 - needed for each period. The stock market is only open
-                     * on weekdays, and there are 9 holidays that the stock
-                     * market closes for. So the stock market is open for ~252
-                     * days a year. Use this value to approximate the number of
-                     * data points that should be in each period. */
-                    final int[] nonAdjustedSizes = {1260, 252, 63, 21, 10};
-
-                    /* Don't get too many data points for long chart periods
-                     * because it is unnecessary and looks bad. These are the
-                     * increments that should be used to iterate through (and
-                     * add) data points for each period. */
-                    final int[] increments = {9, 2, 1, 1, 1};
-
-                    /* adjustedSizes[i] = nonAdjustedSizes[i] / increments[i].
-                     * This is the actual number of data points that each chart
-                     * will have. These values are constant, which implies that
-                     * the size of each chart is constant, regardless of other
-                     * factors, such as NUM_DATA_PTS. */
-                    final int[] adjustedSizes = {140, 126, 63, 21, 10};
-
-                    for (i = 0; i < pricesList.size(); i++) {
-                        pricesList.get(i).ensureCapacity(adjustedSizes[i]);
-                        datesList.get(i).ensureCapacity(adjustedSizes[i]);
-                    }
-
-                    final Elements rowElmnts = fiveYearDoc.select(
-                            ":root > body > div > div#historical_data_table > " +
-                                    "div > table > tbody > tr");
-                    /* This is the number of data points that actually exist for
-                     * the Stock represented in this Activity. This number is
-                     * capped at 1260, which is the unadjusted number of data
-                     * points for the 5 year chart. */
-                    final int numActualPts = rowElmnts.size() <= 1260 ? rowElmnts.size() : 1260;
-
-                    final double[] allPrices = new double[numActualPts];
-                    final String[] allDates = new String[numActualPts];
-                    /* The most recent prices are at the top of the WSJ page
-                     * (top of the HTML table), and the oldest prices are at the
-                     * bottom. Fill allPrices starting with the last price
-                     * elements so that the oldest prices are the front of
-                     * allPrices and the recent prices are at the end. Do the
-                     * same for allDates. */
-                    for (i = 0, reverseNdx = numActualPts - 1; reverseNdx >= 0; i++, reverseNdx--) {
-                        /* Charts use the closing price of each day. The closing price is the 5th
-                         * column in each row. The date is the 1st column in each row. */
-                        allPrices[i] = parseDouble(rowElmnts.get(reverseNdx).selectFirst(
-                                ":root > :eq(4)").ownText());
-                        allDates[i] = rowElmnts.get(reverseNdx).selectFirst(
-                                ":root > :eq(0)").ownText();
-                    }
-
-                    if (allPrices.length != 0) {
-                        final double IPO_PRICE = allPrices[0];
-                        /* Fill chartPrices and chartDates for each period. If
-                         * there is not enough data to represent a full period,
-                         * add padding values to the front of the data. Pad the
-                         * chart with price being the first price of all the
-                         * prices available, and date being "Before IPO". */
-                        List<Double> curChartPrices;
-                        List<String> curChartDates;
-                        for (int periodNdx = 0; periodNdx < pricesList.size(); periodNdx++) {
-                            curChartPrices = pricesList.get(periodNdx);
-                            curChartDates = datesList.get(periodNdx);
-
-                            if (nonAdjustedSizes[periodNdx] <= numActualPts) {
-                                // If there are enough data points to fill this period
-
-                                i = numActualPts - nonAdjustedSizes[periodNdx];
-                                /* Let n = INCREMENTS[periodNdx]. If n > 1, all the data in
-                                 * allPrices and allDates is divided into sections of n,
-                                 * and from each section, one data point is taken. Initialize i to
-                                 * be the last index of the first section. For example, if n equals
-                                 * 9, initialize i to be 8. The purpose of this is that after
-                                 * iterating through the sections, the last data point will always
-                                 * be the most recent data point available. */
-                                if (increments[periodNdx] > 1) {
-                                    i += increments[periodNdx] - 1;
-                                }
-                                for (count = 1;
-                                     count <= adjustedSizes[periodNdx];
-                                     count++, i += increments[periodNdx]) {
-                                    curChartPrices.add(allPrices[i]);
-                                    curChartDates.add(allDates[i]);
-                                }
-                            } else {
-                                // There are not enough data points to fill this period
-
-                                /* If numAdjActualPts < increments[periodNdx], numAdjActualPts = 0.
-                                 * This means that there will be no actual data in this chart. All
-                                 * the data in the chart will be the padding data. */
-                                final int numAdjActualPts = numActualPts / increments[periodNdx];
-                                final int numAdjMissingPts = adjustedSizes[periodNdx] - numAdjActualPts;
-
-                                // Pad the front of the data to fill the missing data points
-                                for (count = 1; count <= numAdjMissingPts; count++) {
-                                    curChartPrices.add(IPO_PRICE);
-                                    curChartDates.add("Before IPO");
-                                }
-
-                                /* Initialize i so that after iterating through allPrices and
-                                 * allDates (using the increment of the current period), the last
-                                 * price and date will always be the most recent data point
-                                 * available. */
-                                i = numActualPts - ((numAdjActualPts - 1) * increments[periodNdx]) - 1;
-                                // Add the actual data points
-                                for (count = 1; count <= numAdjActualPts; count++, i += increments[periodNdx]) {
-                                    curChartPrices.add(allPrices[i]);
-                                    curChartDates.add(allDates[i]);
-                                }
-                            }
-                        }
-
-                        // Update stock's charts for the "big" ChartPeriods
-                        stock.setPrices_2weeks(prices_2weeks);
-                        stock.setPrices_1month(prices_1month);
-                        stock.setPrices_3months(prices_3months);
-                        stock.setPrices_1year(prices_1year);
-                        stock.setPrices_5years(prices_5years);
-                        stock.setDates_2weeks(dates_2weeks);
-                        stock.setDates_1month(dates_1month);
-                        stock.setDates_3months(dates_3months);
-                        stock.setDates_1year(dates_1year);
-                        stock.setDates_5years(dates_5years);
-                    } else {
-                        missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
-                    }
-                }
-            }
-
-            return status;
+            return Sources.getChartSource().downloadCharts(stock, missingChartPeriods);
         }
 
         /**
@@ -1683,13 +1616,7 @@ public final class IndividualStockActivity
         }
 
 
-        interface Status {
-
-            int GOOD = 0;
-            int IO_EXCEPTION_FOR_MW_ONLY = 1;
-            int IO_EXCEPTION_FOR_WSJ_ONLY = 2;
-            int IO_EXCEPTION_FOR_MW_AND_WSJ = 3;
-
+        interface Status extends ChartSource.Status {
         }
 
     }
@@ -1697,259 +1624,60 @@ public final class IndividualStockActivity
 
     /**
      * An AsyncTask that updates a {@link AdvancedStock} through setter methods
-     * defined in AdvancedStock. Updates the AdvancedStock with values that are
-     * parsed from the AdvancedStock's WSJ website.
+     * defined in AdvancedStock. Updates the AdvancedStock's top values and
+     * {@link Stat}s.
+     * <p>
+     * The {@link AdvancedStock#STATIC_STATS} are only downloaded if they have
+     * not been downloaded or loaded from {@link StaticStatsStore} yet, and
+     * {@link StaticStatsStore} does not have a record of them from today.
      */
     private static final class DownloadStatsTask extends AsyncTask<Void, Integer, Integer> {
 
-        private AdvancedStock stock;
+        private final AdvancedStock stock;
+        private final Set<Stat> staticMissingStats;
         private final Set<Stat> missingStats = new HashSet<>();
         private final WeakReference<DownloadStatsTaskListener> completionListener;
 
+        /**
+         * @param stock              The AdvancedStock to update
+         * @param staticMissingStats The static Stats that are missing from
+         *                           stock, or null if the static Stats of
+         *                           stock have not been downloaded or loaded
+         * @param completionListener The listener to notify
+         */
         private DownloadStatsTask(final AdvancedStock stock,
+                                  final Set<Stat> staticMissingStats,
                                   final DownloadStatsTaskListener completionListener) {
             this.stock = stock;
+            this.staticMissingStats = staticMissingStats;
             this.completionListener = new WeakReference<>(completionListener);
         }
 
         /**
-         * Connects to the {@link #stock}'s WSJ website and parses it for values
-         * that are fields of {@link AdvancedStock}, excluding values related
-         * the AdvancedStock's chart data (historical prices and dates). The
-         * values updated in this method are represented by {@link Stat}, or are
-         * "top values". On the WSJ website, many values are irregular values,
-         * or "missing" values. {@link #missingStats} keeps track of these
-         * values, and is passed as a parameter to {@link #completionListener}.
-         * <p>
-         * If an {@link IOException} is thrown while connecting to the WSJ
-         * website, this returns {@link Status#IO_EXCEPTION}. Otherwise, {@link
-         * Status#GOOD} is returned.
+         * Updates {@link #stock} from {@link Sources#getQuoteSource()}. Stats
+         * that are missing from the source are added to {@link #missingStats},
+         * which is passed as a parameter to {@link #completionListener}. The
+         * static Stats that are already known to be missing are added to
+         * missingStats as well, so that it always has every missing Stat.
          *
          * @param voids Take no parameters
          * @return The Status of the task
          */
         @Override
         protected Integer doInBackground(final Void... voids) {
-            int status = Status.GOOD;
-
-            Document individualDoc;
-            try {
-                individualDoc = Jsoup.connect(
-                        "https://quotes.wsj.com/" + stock.getTicker())
-                        .timeout(8000)
-                        .get();
-            } catch (final IOException ioe) {
-                individualDoc = null;
-                status = Status.IO_EXCEPTION;
+            final QuoteSource source = Sources.getQuoteSource();
+            if (staticMissingStats != null) {
+                missingStats.addAll(staticMissingStats);
+                return source.downloadStats(stock, false, missingStats);
             }
-
-            if (individualDoc != null) {
-                /* Get chart data for periods greater than one day from Wall Street
-                 * Journal. Certain values from WSJ page are needed for the URL of
-                 * the WSJ database of historical prices. */
-                final Element contentFrame = individualDoc.selectFirst(
-                        ":root > body > div.pageFrame > div.contentFrame");
-                final Element module2 = contentFrame.selectFirst(
-                        ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]");
-
-
-                /* Get non-chart data. */
-                final Element mainData = module2.selectFirst(
-                        "ul[class$=info_main]");
-                final double price, changePoint, changePercent, open, prevClose;
-                // Remove ',' or '%' that could be in strings
-                price = parseDouble(mainData.selectFirst(
-                        ":root > li[class$=quote] > span.curr_price > " +
-                                "span > span#quote_val").ownText().replaceAll("[^0-9.]+", ""));
-                final Elements diffs = mainData.select(
-                        ":root > li[class$=diff] > span > span");
-                changePoint = parseDouble(
-                        diffs.get(0).ownText().replaceAll("[^0-9.-]+", ""));
-                changePercent = parseDouble(
-                        diffs.get(1).ownText().replaceAll("[^0-9.-]+", ""));
-                // Assume that price, change point, and change percent cannot be missing
-                stock.setPrice(price);
-                stock.setChangePoint(changePoint);
-                stock.setChangePercent(changePercent);
-
-                final Elements openAndPrevClose = module2.select(
-                        ":root > div > div[id=chart_divId] > div[class$=compare] > " +
-                                "div[class$=compare_data] > ul > li > span.data_data");
-                open = parseDouble(openAndPrevClose.get(0).ownText().replaceAll("[^0-9.]+", ""));
-                prevClose = parseDouble(openAndPrevClose.get(1).ownText().replaceAll("[^0-9.]+", ""));
-                /* If previous close isn't applicable (stock just had IPO),
-                 * element exists and has value 0. Same applies for open. */
-                if (open == 0) {
-                    missingStats.add(Stat.OPEN);
-                } else {
-                    stock.setOpen(open);
-                }
-                if (prevClose == 0) {
-                    missingStats.add(Stat.PREV_CLOSE);
-                } else {
-                    stock.setPrevClose(prevClose);
-                }
-
-
-                final Element subData = mainData.nextElementSibling();
-                final boolean stockHasExtraVals = subData.className().endsWith("info_sub");
-
-                final Stock.State state;
-                final String stateStr;
-                if (stockHasExtraVals) {
-                    // Ensure stock is the correct type
-                    if (!(stock instanceof StockWithEhVals)) {
-                        stock = new ConcreteAdvancedStockWithEhVals(stock);
-                    }
-
-                    final double ehPrice, ehChangePoint, ehChangePercent;
-                    // Remove ',' or '%' that could be in strings
-                    ehPrice = parseDouble(subData.selectFirst(
-                            "span#ms_quote_val").ownText().replaceAll("[^0-9.]+", ""));
-                    final Elements eh_diffs = subData.select(
-                            "span[id] > span");
-                    ehChangePoint = parseDouble(eh_diffs.get(0).ownText().replaceAll("[^0-9.-]+", ""));
-                    ehChangePercent = parseDouble(eh_diffs.get(1).ownText().replaceAll("[^0-9.-]+", ""));
-                    final StockWithEhVals ehStock = (StockWithEhVals) stock;
-                    ehStock.setExtraHoursPrice(ehPrice);
-                    ehStock.setExtraHoursChangePoint(ehChangePoint);
-                    ehStock.setExtraHoursChangePercent(ehChangePercent);
-
-                    stateStr = subData.selectFirst("span").ownText();
-                    state = stateStr.equals("AFTER HOURS") ? AFTER_HOURS : PREMARKET;
-                } else {
-                    // Ensure stock is the correct type
-                    if (stock instanceof StockWithEhVals) {
-                        stock = new ConcreteAdvancedStock(stock);
-                    }
-
-                    stateStr = mainData.selectFirst("span.timestamp_label").ownText();
-                    state = stateStr.equals("REAL TIME") ? OPEN : CLOSED;
-                }
-                stock.setState(state);
-
-
-                String strBuff;
-
-                /* Values in the table (keyData1) can be either a real value (i.e.
-                 * "310,540 - 313,799"), or something else (i.e. empty string). It
-                 * is difficult to find examples of irregular values in this table.
-                 * All the values are numeric and positive, and some of the values
-                 * could start with a decimal, so check if the first char in the
-                 * value is a digit or '.'. */
-                final Elements keyData1 = module2.select(
-                        "ul[class$=charts_info] > li > div > span.data_data");
-
-                final String volume;
-                strBuff = keyData1.get(0).ownText();
-                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
-                    volume = strBuff;
-                    stock.setVolume(volume);
-                } else {
-                    missingStats.add(Stat.VOLUME);
-                }
-
-                final String avgVolume;
-                strBuff = keyData1.get(1).ownText();
-                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
-                    avgVolume = strBuff;
-                    stock.setAverageVolume(avgVolume);
-                } else {
-                    missingStats.add(Stat.AVG_VOLUME);
-                }
-
-                final double todaysLow, todaysHigh;
-                strBuff = keyData1.get(2).ownText();
-                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
-                    // " - " is between low and high values
-                    final String[] todaysRange = strBuff.split("\\s-\\s");
-                    todaysLow = parseDouble(todaysRange[0].replaceAll("[^0-9.]+", ""));
-                    todaysHigh = parseDouble(todaysRange[1].replaceAll("[^0-9.]+", ""));
-                    stock.setTodaysLow(todaysLow);
-                    stock.setTodaysHigh(todaysHigh);
-                } else {
-                    missingStats.add(Stat.TODAYS_LOW);
-                    missingStats.add(Stat.TODAYS_HIGH);
-                }
-
-                final double fiftyTwoWeekLow, fiftyTwoWeekHigh;
-                strBuff = keyData1.get(3).ownText();
-                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
-                    // " - " is between low and high values
-                    final String[] fiftyTwoWeekRange = strBuff.split("\\s-\\s");
-                    fiftyTwoWeekLow = parseDouble(fiftyTwoWeekRange[0].replaceAll("[^0-9.]+", ""));
-                    fiftyTwoWeekHigh = parseDouble(fiftyTwoWeekRange[1].replaceAll("[^0-9.]+", ""));
-                    stock.setFiftyTwoWeekLow(fiftyTwoWeekLow);
-                    stock.setFiftyTwoWeekHigh(fiftyTwoWeekHigh);
-                } else {
-                    missingStats.add(Stat.FIFTY_TWO_WEEK_LOW);
-                    missingStats.add(Stat.FIFTY_TWO_WEEK_HIGH);
-                }
-
-
-                /* Values in the table (keyData2) can be either a real value (i.e.
-                 * "366,452"), a missing value (i.e. "N/A"), or something else (i.e.
-                 * "BRK.A has not issued dividends in more than 1 year"). All the
-                 * values are numeric, and some values could be negative, or start
-                 * with a decimal, so check if the first char in the value is a
-                 * digit, '.', or '-'. */
-                final Element module6 = contentFrame.selectFirst(
-                        ":root > section[class$=section_2] > div#contentCol > " +
-                                "div:eq(1) > div.zonedModule[data-module-id=6]");
-                final Elements keyData2 = module6.select(
-                        "div > div[class$=keystock_drawer] > div > ul > li > div > span");
-
-                final double peRatio; // P/E ratio can be negative
-                strBuff = keyData2.get(0).ownText();
-                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
-                    peRatio = parseDouble(strBuff.replaceAll("[^0-9.-]+", ""));
-                    stock.setPeRatio(peRatio);
-                } else {
-                    missingStats.add(Stat.PE_RATIO);
-                }
-
-                final double eps; // EPS can be negative
-                strBuff = keyData2.get(1).ownText();
-                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
-                    eps = parseDouble(strBuff.replaceAll("[^0-9.-]+", ""));
-                    stock.setEps(eps);
-                } else {
-                    missingStats.add(Stat.EPS);
-                }
-
-                final String marketCap;
-                // Example market cap value: "1.4 T"
-                strBuff = keyData2.get(2).ownText();
-                if (Util.Char.isDigitOrDec(strBuff.charAt(0))) {
-                    marketCap = strBuff;
-                    stock.setMarketCap(marketCap);
-                } else {
-                    missingStats.add(Stat.MARKET_CAP);
-                }
-
-                final double yield; // Yield can be negative
-                strBuff = keyData2.get(5).ownText();
-                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
-                    yield = parseDouble(strBuff.replaceAll("[^0-9.-]+", ""));
-                    stock.setYield(yield);
-                } else {
-                    missingStats.add(Stat.YIELD);
-                }
-
-                final String description;
-                final Element descriptionElmnt = contentFrame.selectFirst(
-                        ":root > section[class$=section_2] > div#contentCol + div > " +
-                                "div:eq(1) > div.zonedModule[data-module-id=11] > div > " +
-                                "div[class$=data] > div[class$=description] > p.txtBody");
-                // If there is no description, the description element (p.txtBody) doesn't exist
-                if (descriptionElmnt != null) {
-                    description = descriptionElmnt.ownText();
-                    stock.setDescription(description);
-                } else {
-                    missingStats.add(Stat.DESCRIPTION);
-                }
+            if (StaticStatsStore.load(stock, missingStats)) {
+                return source.downloadStats(stock, false, missingStats);
             }
 
+            final int status = source.downloadStats(stock, true, missingStats);
+            if (status == Status.GOOD) {
+                StaticStatsStore.save(stock, missingStats);
+            }
             return status;
         }
 
@@ -1969,160 +1697,119 @@ public final class IndividualStockActivity
         }
 
 
-        interface Status {
-
-            int GOOD = 0;
-            int IO_EXCEPTION = 1;
-
+        interface Status extends QuoteSource.StatsStatus {
         }
 
     }
 
 
     /**
-     * An AsyncTask that fills a {@link SparseArray<Article>} with {@link
-     * Article}. This method creates Articles by parsing {@link #stock}'s page
-     * on Finviz.
+     * An AsyncTask that downloads the {@link Article}s from {@link
+     * Sources#getNewsSource()} that are newer than the Articles that are
+     * already shown.
+     * <p>
+     * If no Articles are shown yet, the Articles in {@link NewsStore} are
+     * passed to the listener first, and only the Articles that are newer than
+     * them are downloaded. If the stored Articles were checked less than
+     * {@link #NEWS_MAX_AGE_MS} ago, nothing is downloaded. Downloaded Articles
+     * are added to NewsStore.
      */
     private static final class DownloadNewsTask extends AsyncTask<Void, Integer, Integer> {
 
         private final String ticker;
+        private final List<Article> knownArticles;
+        private final List<Article> articles = new ArrayList<>();
+        private final WeakReference<DownloadNewsTaskListener> completionListener;
 
         /**
-         * To understand why a {@link SparseArray<Article>} is used instead of
-         * a more traditional container of {@link Article}, look at {@link
-         * NewsRecyclerAdapter}.
+         * Set in {@link #doInBackground(Void...)} before {@link
+         * #publishProgress(Object[])} is called.
          */
-        private final SparseArray<Article> sparseArray;
-
-        private final WeakReference<DownloadNewsTaskListener> completionListener;
+        private List<Article> storedArticles;
 
         /**
          * The only constructor of a DownloadNewsTask.
-         * <p>
-         * The Finviz website uses '-' in their stock tickers, not '.'. For
-         * example, BRK.A is BRK-A on Finviz. Replace '.' with '-' immediately,
-         * so that {@link #ticker} is the ticker for Finviz.
          *
          * @param ticker             The ticker passed from
-         *                           IndividualStockActivity. This ticker could
-         *                           have '.' in it.
-         * @param sparseArray        The sparseArray to fill with Article
+         *                           IndividualStockActivity
+         * @param knownArticles      The Articles that are already shown, from
+         *                           newest to oldest, which must not be
+         *                           modified while this task runs
          * @param completionListener The listener to notify when this task is
          *                           completed
          */
-        private DownloadNewsTask(final String ticker, final SparseArray<Article> sparseArray,
+        private DownloadNewsTask(final String ticker, final List<Article> knownArticles,
                                  final DownloadNewsTaskListener completionListener) {
-            this.ticker = ticker.replaceAll("\\.", "-");
-            this.sparseArray = sparseArray;
+            this.ticker = ticker;
+            this.knownArticles = knownArticles;
             this.completionListener = new WeakReference<>(completionListener);
         }
 
         /**
-         * Connects to the Finviz website for {@link #stock} and parses the
-         * page for article information. This information is used to create
-         * {@link Article}s that are added to {@link #sparseArray}.
-         * <p>
-         * If an {@link IOException} is thrown while connecting to the Finviz
-         * website, this method returns {@link Status#IO_EXCEPTION}. If no
-         * articles are found, this returns {@link Status#NO_NEWS_ARTICLES}. If
-         * at least one article is found, this returns {@link Status#GOOD}.
+         * Fills {@link #articles} with the new news articles about the Stock
+         * with {@link #ticker}.
          *
          * @param voids Take no parameters
          * @return The Status of the task
          */
         @Override
         protected Integer doInBackground(final Void... voids) {
-            int status = Status.GOOD;
-
-            final String base_url = "https://finviz.com/quote.ashx?t=";
-            final String url = base_url + ticker;
-
-            Document doc;
-            try {
-                doc = Jsoup.connect(url)
-                        .timeout(20000)
-                        .get();
-            } catch (final IOException ioe) {
-                ioe.printStackTrace();
-                doc = null;
-                status = Status.IO_EXCEPTION;
+            List<Article> known = knownArticles;
+            if (known.isEmpty()) {
+                final NewsStore.Stored stored = NewsStore.read(ticker);
+                if (stored != null && !stored.articles.isEmpty()) {
+                    storedArticles = stored.articles;
+                    publishProgress();
+
+                    known = stored.articles;
+                    if (System.currentTimeMillis() - stored.checkTime < NEWS_MAX_AGE_MS) {
+                        return Status.GOOD;
+                    }
+                }
             }
 
-            if (doc != null) {
-                final Element tableBody = doc.selectFirst("table#news-table > tbody");
-
-                final Elements articleElmnts = tableBody.children();
-
-                /* The HTML table that lists these values only displays the date
-                 * when it is has not been seen before. For example, if an
-                 * article from "Aug-20" has not been seen, the row will have
-                 * a td[style] element that could be "Aug-20-18 08:46pm. But if
-                 * an article from "Aug-20" has already been seen, the row does
-                 * not have a td[style] element. The date values have a lot of
-                 * extra whitespace - trim it off. */
-                String curTitle, curSource, curDate, curUrl;
-                String prevDate;
-                if (articleElmnts.size() > 0) {
-                    Element dateElmnt;
-                    dateElmnt = articleElmnts.get(0).selectFirst("td[style]");
-                    // Trim off the time; get the date only
-                    curDate = StringUtils.substringBefore(dateElmnt.ownText().trim(), " ");
-                    prevDate = curDate;
-
-                    curTitle = articleElmnts.get(0).selectFirst("a").ownText();
-                    curUrl = articleElmnts.get(0).selectFirst("a").attr("href");
-                    curSource = articleElmnts.get(0).selectFirst("span").ownText();
-
-                    /* Everytime a new date is found, that takes a spot in the
-                     * sparse array. */
-                    int sparseNdx = 1; // Index 0 is a date
-                    sparseArray.append(sparseNdx++, new Article(curDate, curTitle, curSource, curUrl));
-
-                    for (int articleNdx = 1; articleNdx < articleElmnts.size(); articleNdx++, sparseNdx++) {
-                        dateElmnt = articleElmnts.get(articleNdx).selectFirst("td[style]");
-                        if (dateElmnt == null) {
-                            curDate = prevDate;
-                        } else {
-                            curDate = StringUtils.substringBefore(dateElmnt.ownText().trim(), " ");
-                            prevDate = curDate;
-
-                            sparseNdx++; // Date added, pushing sparseNdx back 1
-                        }
-
-                        curTitle = articleElmnts.get(articleNdx).selectFirst("a").ownText();
-                        curUrl = articleElmnts.get(articleNdx).selectFirst("a").attr("href");
-                        curSource = articleElmnts.get(articleNdx).selectFirst("td > span").ownText();
-
-                        sparseArray.append(sparseNdx, new Article(curDate, curTitle, curSource, curUrl));
-                    }
+            final String newestKnownUrl = known.isEmpty() ? null : known.get(0).getUrl();
+            final int status = Sources.getNewsSource().downloadNews(ticker, newestKnownUrl, articles);
+            if (status == Status.GOOD) {
+                if (articles.isEmpty()) {
+                    NewsStore.touch(ticker);
                 } else {
-                    status = Status.NO_NEWS_ARTICLES;
+                    final List<Article> allArticles = new ArrayList<>(articles.size() + known.size());
+                    allArticles.addAll(articles);
+                    allArticles.addAll(known);
+                    NewsStore.write(ticker, allArticles);
                 }
             }
-
             return status;
         }
 
         /**
-         * Notifies {@link #completionListener} that the task is complete.
+         * Passes {@link #storedArticles} to {@link #completionListener}.
+         *
+         * @param values Take no values
+         */
+        @Override
+        protected void onProgressUpdate(final Integer... values) {
+            if (completionListener.get() != null) {
+                completionListener.get().onStoredNewsLoaded(storedArticles);
+            }
+        }
+
+        /**
+         * Notifies {@link #completionListener} that the task is complete, and
+         * passes it {@link #articles}.
          *
          * @param status The Status of the task
          */
         @Override
         protected void onPostExecute(final Integer status) {
             if (completionListener.get() != null) {
-                completionListener.get().onDownloadNewsTaskCompleted(status);
+                completionListener.get().onDownloadNewsTaskCompleted(status, articles);
             }
         }
 
 
-        public interface Status {
-
-            int GOOD = 0;
-            int NO_NEWS_ARTICLES = 1;
-            int IO_EXCEPTION = 2;
-
+        public interface Status extends NewsSource.Status {
         }
 
     }
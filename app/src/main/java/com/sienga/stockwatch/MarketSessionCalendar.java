@@ -0,0 +1,174 @@
+package com.sienga.stockwatch;
+
+import com.sienga.stockwatch.stocks.Stock;
+
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
+import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
+import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
+import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
+
+
+/**
+ * Describes when an exchange trades. A trading day is split into the premarket
+ * session, the open session, and the after hours session. Weekends and the
+ * dates of the calendar's {@link Holidays} are not trading days.
+ * <p>
+ * Unlike a Stock's {@link Stock.State}, the State returned from {@link
+ * #getSessionState(long)} does represent the current state of the market.
+ * {@link RefreshScheduler} uses this to stop polling while the market is
+ * closed.
+ */
+public final class MarketSessionCalendar {
+
+    private final ZoneId zone;
+    private final LocalTime premarketOpen;
+    private final LocalTime marketOpen;
+    private final LocalTime marketClose;
+    private final LocalTime afterHoursClose;
+    private final Holidays holidays;
+
+    /**
+     * All times are local to zone. Each time must be later than the time
+     * before it.
+     *
+     * @param zone            The time zone of the exchange
+     * @param premarketOpen   The start of the premarket session
+     * @param marketOpen      The end of the premarket session and the start of
+     *                        the open session
+     * @param marketClose     The end of the open session and the start of the
+     *                        after hours session
+     * @param afterHoursClose The end of the after hours session
+     * @param holidays        The weekdays that the exchange is closed for
+     */
+    public MarketSessionCalendar(final ZoneId zone,
+                                 final LocalTime premarketOpen, final LocalTime marketOpen,
+                                 final LocalTime marketClose, final LocalTime afterHoursClose,
+                                 final Holidays holidays) {
+        this.zone = zone;
+        this.premarketOpen = premarketOpen;
+        this.marketOpen = marketOpen;
+        this.marketClose = marketClose;
+        this.afterHoursClose = afterHoursClose;
+        this.holidays = holidays;
+    }
+
+    /**
+     * @return A MarketSessionCalendar for the US exchanges that the Market
+     * Watch and WSJ websites show quotes for. Premarket trading is from
+     * 4:00am - 9:30am ET, open trading is from 9:30am - 4:00pm ET, and after
+     * hours trading is from 4:00pm - 8:00pm ET. The exchanges are closed on
+     * the holidays of {@link NyseHolidays}.
+     */
+    public static MarketSessionCalendar newYorkCalendar() {
+        return new MarketSessionCalendar(ZoneId.of("America/New_York"),
+                LocalTime.of(4, 0), LocalTime.of(9, 30),
+                LocalTime.of(16, 0), LocalTime.of(20, 0),
+                NyseHolidays::isHoliday);
+    }
+
+    /**
+     * @param date The local date to evaluate
+     * @return True if the exchange trades on date
+     */
+    public boolean isTradingDay(final LocalDate date) {
+        final DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.isHoliday(date);
+    }
+
+    /**
+     * @param epochMillis The time to evaluate
+     * @return {@link Stock.State#PREMARKET}, {@link Stock.State#OPEN}, or
+     * {@link Stock.State#AFTER_HOURS} if the exchange is in that session at
+     * epochMillis. Otherwise, {@link Stock.State#CLOSED}.
+     */
+    public Stock.State getSessionState(final long epochMillis) {
+        final ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+        if (!isTradingDay(time.toLocalDate())) {
+            return CLOSED;
+        }
+
+        final LocalTime localTime = time.toLocalTime();
+        if (localTime.isBefore(premarketOpen)) {
+            return CLOSED;
+        } else if (localTime.isBefore(marketOpen)) {
+            return PREMARKET;
+        } else if (localTime.isBefore(marketClose)) {
+            return OPEN;
+        } else if (localTime.isBefore(afterHoursClose)) {
+            return AFTER_HOURS;
+        } else {
+            return CLOSED;
+        }
+    }
+
+    /**
+     * @param epochMillis The time to start searching from
+     * @return The number of milliseconds from epochMillis until the next
+     * premarket session starts. If the exchange is in a session at epochMillis,
+     * return 0.
+     */
+    public long getMillisUntilNextSession(final long epochMillis) {
+        if (getSessionState(epochMillis) != CLOSED) {
+            return 0;
+        }
+
+        ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+        if (!time.toLocalTime().isBefore(premarketOpen)) {
+            // Today's sessions are over, so start searching from tomorrow
+            time = time.plusDays(1);
+        }
+        LocalDate date = time.toLocalDate();
+        // Long weekends and holidays are never more than a few days long
+        while (!isTradingDay(date)) {
+            date = date.plusDays(1);
+        }
+
+        final long nextSessionMillis = date.atTime(premarketOpen).atZone(zone)
+                .toInstant().toEpochMilli();
+        return Math.max(0, nextSessionMillis - epochMillis);
+    }
+
+    /**
+     * @param epochMillis The time to evaluate
+     * @return The date of the open session that is in progress at epochMillis,
+     * or of the most recent open session if none is, as days since 1970-01-01
+     * (see {@link LocalDate#toEpochDay()}). This is the date of the trades of
+     * a one day chart at epochMillis.
+     */
+    public int getSessionEpochDay(final long epochMillis) {
+        final ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+        LocalDate date = time.toLocalDate();
+        if (time.toLocalTime().isBefore(marketOpen)) {
+            // Today's open session has not started
+            date = date.minusDays(1);
+        }
+        // Long weekends and holidays are never more than a few days long
+        while (!isTradingDay(date)) {
+            date = date.minusDays(1);
+        }
+        return (int) date.toEpochDay();
+    }
+
+
+    /**
+     * The holidays of an exchange. Implementations must be thread-safe,
+     * because calendars are used from worker threads.
+     */
+    public interface Holidays {
+
+        /**
+         * @param date A local date of the exchange
+         * @return True if the exchange is closed for a holiday on date
+         */
+        boolean isHoliday(final LocalDate date);
+
+    }
+
+}
@@ -0,0 +1,515 @@
+package com.sienga.stockwatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Extracts quotes from the HTML of the MarketWatch multiple-stock website in a
+ * single pass over the response bytes, without building a DOM. This is used by
+ * {@link MultiStockRequest} in place of {@link org.jsoup.Jsoup#parse(String)}
+ * and a dozen selects, which were the dominant CPU and GC cost of updating a
+ * large list of Stocks.
+ * <p>
+ * The scanner tokenizes tags and only keeps track of the nesting depth of div
+ * elements. Quotes, sections, and fields are recognized by their class
+ * attributes, which are the same classes that the selectors in {@link
+ * MultiStockRequest} match:
+ * <pre>
+ * div[class^=quotedisplay]                       starts a quote
+ *   div.ticker > a                               ticker
+ *   div[class^=section activeQuote bgQuote]      live section
+ *     p.column.marketstate                       market state
+ *     p.data.bgLast                              live price
+ *     span.bgChange, span.bgPercentChange        live change
+ *   div[class^=prevclose section bgQuote]        close section
+ *     p.data.bgLast.price                        close price
+ *     span.bgChange, span.bgPercentChange        close change
+ * </pre>
+ * The text of a field is the text between its start tag and the next tag,
+ * which is the same as {@link org.jsoup.nodes.Element#ownText()} for the
+ * elements above. Only ASCII is compared, so the response can be scanned as
+ * bytes regardless of its charset.
+ * <p>
+ * This class is thread-safe.
+ */
+final class MultiQuoteScanner {
+
+    private static final int SECTION_NONE = 0;
+    private static final int SECTION_LIVE = 1;
+    private static final int SECTION_CLOSE = 2;
+
+    private static final int FIELD_NONE = 0;
+    private static final int FIELD_TICKER = 1;
+    private static final int FIELD_STATE = 2;
+    private static final int FIELD_PRICE = 3;
+    private static final int FIELD_CHANGE_POINT = 4;
+    private static final int FIELD_CHANGE_PERCENT = 5;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private MultiQuoteScanner() {
+    }
+
+    /**
+     * @param data The bytes of the MarketWatch multiple-stock website
+     * @return The quotes in data, in the order that they appear, or null if
+     * data does not contain any quotes or a quote is missing a field. If null
+     * is returned, the caller should fall back to parsing data with Jsoup.
+     */
+    static List<Quote> scan(final byte[] data) {
+        final List<Quote> quotes = new ArrayList<>(10);
+        final int[] classRange = new int[2];
+        final int n = data.length;
+
+        Quote curQuote = null;
+        int section = SECTION_NONE;
+        int divDepth = 0;
+        int sectionDivDepth = -1;
+        int tickerDivDepth = -1;
+
+        int i = 0;
+        while (i < n) {
+            if (data[i] != '<') {
+                i++;
+                continue;
+            }
+
+            // Skip comments
+            if (regionMatches(data, i, "<!--")) {
+                final int commentEnd = indexOf(data, "-->", i + 4);
+                if (commentEnd < 0) {
+                    break;
+                }
+                i = commentEnd + 3;
+                continue;
+            }
+
+            int j = i + 1;
+            final boolean isEndTag = j < n && data[j] == '/';
+            if (isEndTag) {
+                j++;
+            }
+            final int nameStart = j;
+            while (j < n && isTagNameChar(data[j])) {
+                j++;
+            }
+            final int nameEnd = j;
+            if (nameEnd == nameStart) {
+                // A '<' in text, or a declaration such as <!DOCTYPE html>
+                i++;
+                continue;
+            }
+
+            j = scanAttributes(data, j, classRange);
+            if (j < 0) {
+                break;
+            }
+            i = j + 1; // i is now at the start of the text after the tag
+
+            final int nameLength = nameEnd - nameStart;
+
+            if (!isEndTag && (nameEqualsIgnoreCase(data, nameStart, nameLength, "script")
+                    || nameEqualsIgnoreCase(data, nameStart, nameLength, "style"))) {
+                // Skip raw text, which could contain anything, including "<div"
+                final String endTag = nameEqualsIgnoreCase(data, nameStart, nameLength, "script")
+                        ? "</script" : "</style";
+                final int rawTextEnd = indexOfIgnoreCase(data, endTag, i);
+                if (rawTextEnd < 0) {
+                    break;
+                }
+                i = rawTextEnd;
+                continue;
+            }
+
+            if (nameEqualsIgnoreCase(data, nameStart, nameLength, "div")) {
+                if (isEndTag) {
+                    if (divDepth == sectionDivDepth) {
+                        section = SECTION_NONE;
+                        sectionDivDepth = -1;
+                    }
+                    if (divDepth == tickerDivDepth) {
+                        tickerDivDepth = -1;
+                    }
+                    divDepth--;
+                    continue;
+                }
+
+                divDepth++;
+                final int classStart = classRange[0];
+                final int classEnd = classRange[1];
+                if (classStart < 0) {
+                    continue;
+                }
+                if (regionMatches(data, classStart, classEnd, "quotedisplay")) {
+                    curQuote = new Quote();
+                    quotes.add(curQuote);
+                    section = SECTION_NONE;
+                    sectionDivDepth = -1;
+                    tickerDivDepth = -1;
+                } else if (curQuote == null) {
+                    continue;
+                } else if (regionMatches(data, classStart, classEnd,
+                        "section activeQuote bgQuote")) {
+                    section = SECTION_LIVE;
+                    sectionDivDepth = divDepth;
+                } else if (regionMatches(data, classStart, classEnd,
+                        "prevclose section bgQuote")) {
+                    section = SECTION_CLOSE;
+                    sectionDivDepth = divDepth;
+                } else if (hasClass(data, classStart, classEnd, "ticker")) {
+                    tickerDivDepth = divDepth;
+                }
+                continue;
+            }
+
+            if (isEndTag || curQuote == null) {
+                continue;
+            }
+
+            final int field = getField(data, nameStart, nameLength, classRange,
+                    section, tickerDivDepth >= 0);
+            if (field == FIELD_NONE) {
+                continue;
+            }
+
+            // The field's text ends at the next tag
+            int textEnd = i;
+            while (textEnd < n && data[textEnd] != '<') {
+                textEnd++;
+            }
+            final boolean isLive = section == SECTION_LIVE;
+            switch (field) {
+                case FIELD_TICKER:
+                    if (curQuote.ticker == null) {
+                        curQuote.ticker = trimmedAscii(data, i, textEnd);
+                    }
+                    break;
+                case FIELD_STATE:
+                    if (curQuote.state == null) {
+                        curQuote.state = trimmedAscii(data, i, textEnd);
+                    }
+                    break;
+                case FIELD_PRICE:
+                    if (isLive && Double.isNaN(curQuote.livePrice)) {
+                        curQuote.livePrice = parseNumber(data, i, textEnd, false);
+                    } else if (!isLive && Double.isNaN(curQuote.closePrice)) {
+                        curQuote.closePrice = parseNumber(data, i, textEnd, false);
+                    }
+                    break;
+                case FIELD_CHANGE_POINT:
+                    if (isLive && Double.isNaN(curQuote.liveChangePoint)) {
+                        curQuote.liveChangePoint = parseNumber(data, i, textEnd, true);
+                    } else if (!isLive && Double.isNaN(curQuote.closeChangePoint)) {
+                        curQuote.closeChangePoint = parseNumber(data, i, textEnd, true);
+                    }
+                    break;
+                case FIELD_CHANGE_PERCENT:
+                    if (isLive && Double.isNaN(curQuote.liveChangePercent)) {
+                        curQuote.liveChangePercent = parseNumber(data, i, textEnd, true);
+                    } else if (!isLive && Double.isNaN(curQuote.closeChangePercent)) {
+                        curQuote.closeChangePercent = parseNumber(data, i, textEnd, true);
+                    }
+                    break;
+            }
+            i = textEnd;
+        }
+
+        if (quotes.isEmpty()) {
+            return null;
+        }
+        for (final Quote q : quotes) {
+            if (q.ticker == null || q.state == null || Double.isNaN(q.livePrice)
+                    || Double.isNaN(q.liveChangePoint) || Double.isNaN(q.liveChangePercent)) {
+                return null;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * @param data            The bytes being scanned
+     * @param nameStart       The index of the tag's name
+     * @param nameLength      The length of the tag's name
+     * @param classRange      The range of the tag's class attribute
+     * @param section         The section that the tag is in
+     * @param isInTickerDiv   True if the tag is in a div.ticker
+     * @return The field that the text of the tag is, or {@link #FIELD_NONE}
+     */
+    private static int getField(final byte[] data, final int nameStart, final int nameLength,
+                                final int[] classRange, final int section,
+                                final boolean isInTickerDiv) {
+        if (isInTickerDiv && nameEqualsIgnoreCase(data, nameStart, nameLength, "a")) {
+            return FIELD_TICKER;
+        }
+
+        final int classStart = classRange[0];
+        final int classEnd = classRange[1];
+        if (classStart < 0 || section == SECTION_NONE) {
+            return FIELD_NONE;
+        }
+
+        if (nameEqualsIgnoreCase(data, nameStart, nameLength, "p")) {
+            if (section == SECTION_LIVE && hasClass(data, classStart, classEnd, "marketstate")
+                    && hasClass(data, classStart, classEnd, "column")) {
+                return FIELD_STATE;
+            }
+            if (hasClass(data, classStart, classEnd, "bgLast")
+                    && hasClass(data, classStart, classEnd, "data")
+                    && (section == SECTION_LIVE || hasClass(data, classStart, classEnd, "price"))) {
+                return FIELD_PRICE;
+            }
+        } else if (nameEqualsIgnoreCase(data, nameStart, nameLength, "span")) {
+            if (hasClass(data, classStart, classEnd, "bgChange")) {
+                return FIELD_CHANGE_POINT;
+            }
+            if (hasClass(data, classStart, classEnd, "bgPercentChange")) {
+                return FIELD_CHANGE_PERCENT;
+            }
+        }
+        return FIELD_NONE;
+    }
+
+    /**
+     * Scans the attributes of a tag, and finds the value of its class
+     * attribute.
+     *
+     * @param data       The bytes being scanned
+     * @param start      The index right after the tag's name
+     * @param classRange Set to the start (inclusive) and end (exclusive) of the
+     *                   class attribute's value, or {-1, -1} if the tag does
+     *                   not have a class attribute
+     * @return The index of the '>' that ends the tag, or -1 if the tag is not
+     * terminated
+     */
+    private static int scanAttributes(final byte[] data, final int start, final int[] classRange) {
+        final int n = data.length;
+        classRange[0] = -1;
+        classRange[1] = -1;
+
+        int j = start;
+        while (j < n) {
+            final byte b = data[j];
+            if (b == '>') {
+                return j;
+            }
+            if (isWhitespace(b) || b == '/') {
+                j++;
+                continue;
+            }
+
+            final int attrNameStart = j;
+            while (j < n && data[j] != '=' && data[j] != '>' && data[j] != '/'
+                    && !isWhitespace(data[j])) {
+                j++;
+            }
+            final int attrNameLength = j - attrNameStart;
+
+            while (j < n && isWhitespace(data[j])) {
+                j++;
+            }
+            if (j >= n || data[j] != '=') {
+                continue; // Attribute without a value
+            }
+            j++;
+            while (j < n && isWhitespace(data[j])) {
+                j++;
+            }
+            if (j >= n) {
+                return -1;
+            }
+
+            final int valueStart;
+            final int valueEnd;
+            final byte quote = data[j];
+            if (quote == '"' || quote == '\'') {
+                valueStart = j + 1;
+                valueEnd = indexOf(data, quote, valueStart);
+                if (valueEnd < 0) {
+                    return -1;
+                }
+                j = valueEnd + 1;
+            } else {
+                valueStart = j;
+                while (j < n && data[j] != '>' && !isWhitespace(data[j])) {
+                    j++;
+                }
+                valueEnd = j;
+            }
+
+            if (nameEqualsIgnoreCase(data, attrNameStart, attrNameLength, "class")) {
+                classRange[0] = valueStart;
+                classRange[1] = valueEnd;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Mirrors {@code parseDouble(text.replaceAll("[^0-9.-]+", ""))}, without
+     * creating the intermediate Strings (see {@link Util.Num}).
+     *
+     * @param data       The bytes being scanned
+     * @param start      The start of the text, inclusive
+     * @param end        The end of the text, exclusive
+     * @param allowMinus True to keep '-' characters, for values that can be
+     *                   negative
+     * @return The parsed value, or NaN if the text is not a number
+     */
+    private static double parseNumber(final byte[] data, final int start, final int end,
+                                      final boolean allowMinus) {
+        try {
+            return Util.Num.parseDouble(data, start, end, allowMinus);
+        } catch (final NumberFormatException nfe) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return The text from start to end with leading and trailing whitespace
+     * removed. Only ASCII characters are kept.
+     */
+    private static String trimmedAscii(final byte[] data, int start, int end) {
+        while (start < end && isWhitespace(data[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(data[end - 1])) {
+            end--;
+        }
+        final StringBuilder sb = new StringBuilder(end - start);
+        for (int k = start; k < end; k++) {
+            if (data[k] >= 0) {
+                sb.append((char) data[k]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return True if the class attribute from start to end contains the
+     * whitespace-separated class name
+     */
+    private static boolean hasClass(final byte[] data, final int start, final int end,
+                                    final String name) {
+        final int nameLength = name.length();
+        int k = start;
+        while (k < end) {
+            while (k < end && isWhitespace(data[k])) {
+                k++;
+            }
+            final int tokenStart = k;
+            while (k < end && !isWhitespace(data[k])) {
+                k++;
+            }
+            if (k - tokenStart == nameLength && regionMatches(data, tokenStart, k, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the bytes from start to end begin with prefix
+     */
+    private static boolean regionMatches(final byte[] data, final int start, final int end,
+                                         final String prefix) {
+        final int length = prefix.length();
+        if (end - start < length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (data[start + k] != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the bytes at start begin with prefix
+     */
+    private static boolean regionMatches(final byte[] data, final int start, final String prefix) {
+        return regionMatches(data, start, data.length, prefix);
+    }
+
+    /**
+     * @return True if the tag name from start with length equals name,
+     * ignoring case
+     */
+    private static boolean nameEqualsIgnoreCase(final byte[] data, final int start,
+                                                final int length, final String name) {
+        if (length != name.length()) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (Character.toLowerCase((char) data[start + k]) != name.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final byte[] data, final byte b, final int from) {
+        for (int k = from; k < data.length; k++) {
+            if (data[k] == b) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(final byte[] data, final String s, final int from) {
+        final int last = data.length - s.length();
+        for (int k = from; k <= last; k++) {
+            if (regionMatches(data, k, s)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfIgnoreCase(final byte[] data, final String s, final int from) {
+        final int last = data.length - s.length();
+        for (int k = from; k <= last; k++) {
+            if (nameEqualsIgnoreCase(data, k, s.length(), s)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTagNameChar(final byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9');
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+
+    /**
+     * The raw values of one quote on the MarketWatch multiple-stock website.
+     * Values that were not found are NaN. The close values are only present if
+     * the stock is in premarket or after hours trading.
+     */
+    static final class Quote {
+
+        String ticker;
+
+        /**
+         * The text of the market state, i.e. "Market Closed".
+         */
+        String state;
+
+        double livePrice = Double.NaN;
+        double liveChangePoint = Double.NaN;
+        double liveChangePercent = Double.NaN;
+        double closePrice = Double.NaN;
+        double closeChangePoint = Double.NaN;
+        double closeChangePercent = Double.NaN;
+
+    }
+
+}
@@ -12,13 +12,13 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 
+import java.util.List;
 import java.util.Locale;
 
 import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
 import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
 import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
 import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
-import static java.lang.Double.parseDouble;
 
 
 /**
@@ -26,6 +26,26 @@ import static java.lang.Double.parseDouble;
  */
 public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList> {
 
+    /**
+     * How the response is parsed.
+     */
+    public enum ParseMode {
+
+        /**
+         * Scan the response bytes in a single pass with {@link
+         * MultiQuoteScanner}, without building a DOM. If the response is not
+         * recognized, fall back to {@link #DOM}.
+         */
+        STREAMING,
+
+        /**
+         * Parse the response into a Jsoup {@link Document} and select the
+         * values from it.
+         */
+        DOM
+
+    }
+
     /**
      * Lock to guard {@link #responseListener} as it is cleared on {@link
      * #cancel()} and read on delivery.
@@ -45,20 +65,53 @@ public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList
      */
     private final ConcreteStockWithEhValsList stocks;
 
+    private final ParseMode parseMode;
+
     /**
+     * The generation of the refresh cycle that this request was created in.
+     * Stocks that have been updated by a later generation are not updated.
+     */
+    private final long generation;
+
+    /**
+     * Same as {@link #MultiStockRequest(String, ConcreteStockWithEhValsList,
+     * long, ParseMode, Response.Listener, Response.ErrorListener)} with {@link
+     * ParseMode#STREAMING}.
+     *
      * @param url              The URL of the MarketWatch multiple-stock site to
      *                         get data from
      * @param stocks           The stocks that should be updated
+     * @param generation       The generation of the refresh cycle
      * @param responseListener Listener to receive the
      *                         ConcreteStockWithEhValsList response
      * @param errorListener    Error responseListener, or null to ignore errors
      */
-    MultiStockRequest(final String url, final ConcreteStockWithEhValsList stocks,
-                      final Response.Listener<ConcreteStockWithEhValsList> responseListener,
-                      final Response.ErrorListener errorListener) {
+    public MultiStockRequest(final String url, final ConcreteStockWithEhValsList stocks,
+                             final long generation,
+                             final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+                             final Response.ErrorListener errorListener) {
+        this(url, stocks, generation, ParseMode.STREAMING, responseListener, errorListener);
+    }
+
+    /**
+     * @param url              The URL of the MarketWatch multiple-stock site to
+     *                         get data from
+     * @param stocks           The stocks that should be updated
+     * @param generation       The generation of the refresh cycle
+     * @param parseMode        How the response should be parsed
+     * @param responseListener Listener to receive the
+     *                         ConcreteStockWithEhValsList response
+     * @param errorListener    Error responseListener, or null to ignore errors
+     */
+    public MultiStockRequest(final String url, final ConcreteStockWithEhValsList stocks,
+                             final long generation, final ParseMode parseMode,
+                             final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+                             final Response.ErrorListener errorListener) {
         super(Method.GET, url, errorListener);
         this.responseListener = responseListener;
         this.stocks = new ConcreteStockWithEhValsList(stocks);
+        this.generation = generation;
+        this.parseMode = parseMode;
     }
 
     /**
@@ -68,6 +121,14 @@ public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList
      * in the website/response. Each {@link ConcreteStockWithEhVals} in
      * {@link #stocks} is then updated with the parsed information.
      * <p>
+     * If {@link #parseMode} is {@link ParseMode#STREAMING}, the response is
+     * scanned with {@link MultiQuoteScanner}. If the scanner does not recognize
+     * the response, or parseMode is {@link ParseMode#DOM}, the response is
+     * parsed with {@link #parseWithDom(NetworkResponse)}.
+     * <p>
+     * If this request has been cancelled, no Stocks are updated, because a
+     * newer request may have already updated them.
+     * <p>
      * This method will be called from a worker thread.
      *
      * @param response Response from the network
@@ -76,7 +137,74 @@ public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList
      */
     @Override
     protected Response<ConcreteStockWithEhValsList> parseNetworkResponse(final NetworkResponse response) {
-        ConcreteStockWithEhVals curStock;
+        if (isCanceled()) {
+            // Cancelled requests are not delivered
+            return Response.success(stocks, null);
+        }
+
+        final List<MultiQuoteScanner.Quote> quotes = parseMode == ParseMode.STREAMING
+                ? MultiQuoteScanner.scan(response.data)
+                : null;
+
+        if (quotes == null || !updateStocks(quotes)) {
+            parseWithDom(response);
+        }
+
+        return Response.success(stocks, HttpHeaderParser.parseCacheHeaders(response));
+    }
+
+    /**
+     * Updates the Stocks in {@link #stocks} with the values scanned by {@link
+     * MultiQuoteScanner}. The i-th quote updates the i-th Stock, the same as
+     * in {@link #parseWithDom(NetworkResponse)}.
+     *
+     * @param quotes The quotes scanned from the response
+     * @return True if the Stocks were updated. False if a premarket or after
+     * hours quote is missing its close values, in which case no Stocks are
+     * updated.
+     */
+    private boolean updateStocks(final List<MultiQuoteScanner.Quote> quotes) {
+        final int numStocksToUpdate = Math.min(quotes.size(), stocks.size());
+
+        for (int i = 0; i < numStocksToUpdate; i++) {
+            final MultiQuoteScanner.Quote quote = quotes.get(i);
+            final Stock.State state = parseState(quote.state);
+            if ((state == AFTER_HOURS || state == PREMARKET) && (Double.isNaN(quote.closePrice)
+                    || Double.isNaN(quote.closeChangePoint)
+                    || Double.isNaN(quote.closeChangePercent))) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < numStocksToUpdate; i++) {
+            final MultiQuoteScanner.Quote quote = quotes.get(i);
+            final Stock.State state = parseState(quote.state);
+            if (state == null) {
+                // Do not add this error stock to the list that will be returned
+                continue;
+            }
+
+            if (state == AFTER_HOURS || state == PREMARKET) {
+                stocks.get(i).update(generation, state,
+                        quote.closePrice, quote.closeChangePoint, quote.closeChangePercent,
+                        quote.livePrice, quote.liveChangePoint, quote.liveChangePercent);
+            } else {
+                // Ensure that extra hours values are 0
+                stocks.get(i).update(generation, state,
+                        quote.livePrice, quote.liveChangePoint, quote.liveChangePercent,
+                        0, 0, 0);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the response into a Jsoup {@link Document}, and updates the
+     * Stocks in {@link #stocks} with the values selected from it.
+     *
+     * @param response Response from the network
+     */
+    private void parseWithDom(final NetworkResponse response) {
         Stock.State curState;
         double curPrice, curChangePoint, curChangePercent,
                 curEhPrice, curEhChangePoint, curEhChangePercent;
@@ -85,85 +213,62 @@ public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList
                 close_prices, close_changeRoots, close_changePoints, close_changePercents;
 
         final Document doc = Jsoup.parse(new String(response.data));
-        quoteRoots = doc.select(
+        quoteRoots = ExtractionPlan.of(
                 ":root > body > div[id=blanket] > div[class*=multi] > " +
                         "div[id=maincontent] > div[class^=block multiquote] > " +
-                        "div[class^=quotedisplay]");
-
-        live_valueRoots = quoteRoots.select(
-                ":root > div[class^=section activeQuote bgQuote]");
-        tickers = live_valueRoots.select(
-                ":root > div.ticker > a[href][title]");
-        states = live_valueRoots.select(
-                ":root > div.marketheader > p.column.marketstate");
-        live_prices = live_valueRoots.select(
-                ":root > div.lastprice > div.pricewrap > p.data.bgLast");
-        live_changeRoots = live_valueRoots.select(
-                ":root > div.lastpricedetails > p.lastcolumn.data");
-        live_changePoints = live_changeRoots.select(
-                ":root > span.bgChange");
-        live_changePercents = live_changeRoots.select(
-                ":root > span.bgPercentChange");
-
-        close_valueRoots = quoteRoots.select(
-                ":root > div[class^=prevclose section bgQuote] > div.offhours");
-        close_prices = close_valueRoots.select(
-                ":root > p.lastcolumn.data.bgLast.price");
-        close_changeRoots = close_valueRoots.select(
-                ":root > p.lastcolumn.data");
-        close_changePoints = close_changeRoots.select(
-                ":root > span.bgChange");
-        close_changePercents = close_changeRoots.select(
-                ":root > span.bgPercentChange");
+                        "div[class^=quotedisplay]").select(doc);
+
+        live_valueRoots = ExtractionPlan.of(
+                ":root > div[class^=section activeQuote bgQuote]").select(quoteRoots);
+        tickers = ExtractionPlan.of(
+                ":root > div.ticker > a[href][title]").select(live_valueRoots);
+        states = ExtractionPlan.of(
+                ":root > div.marketheader > p.column.marketstate").select(live_valueRoots);
+        live_prices = ExtractionPlan.of(
+                ":root > div.lastprice > div.pricewrap > p.data.bgLast").select(live_valueRoots);
+        live_changeRoots = ExtractionPlan.of(
+                ":root > div.lastpricedetails > p.lastcolumn.data").select(live_valueRoots);
+        live_changePoints = ExtractionPlan.of(
+                ":root > span.bgChange").select(live_changeRoots);
+        live_changePercents = ExtractionPlan.of(
+                ":root > span.bgPercentChange").select(live_changeRoots);
+
+        close_valueRoots = ExtractionPlan.of(
+                ":root > div[class^=prevclose section bgQuote] > div.offhours").select(quoteRoots);
+        close_prices = ExtractionPlan.of(
+                ":root > p.lastcolumn.data.bgLast.price").select(close_valueRoots);
+        close_changeRoots = ExtractionPlan.of(
+                ":root > p.lastcolumn.data").select(close_valueRoots);
+        close_changePoints = ExtractionPlan.of(
+                ":root > span.bgChange").select(close_changeRoots);
+        close_changePercents = ExtractionPlan.of(
+                ":root > span.bgPercentChange").select(close_changeRoots);
 
         final int numStocksToUpdate = tickers.size();
 
         // Iterate through stocks that we're updating
         for (int i = 0; i < numStocksToUpdate; i++) {
-            switch (states.get(i).ownText().toLowerCase(Locale.US)) {
-                case "before the bell":
-                    curState = PREMARKET;
-                    break;
-                case "market open":
-                case "countdown to close":
-                    curState = OPEN;
-                    break;
-                case "after hours":
-                    curState = AFTER_HOURS;
-                    break;
-                case "market closed":
-                    curState = CLOSED;
-                    break;
-                default:
-                    // Do not add this error stock to the list that will be returned
-                    continue;
+            curState = parseState(states.get(i).ownText());
+            if (curState == null) {
+                // Do not add this error stock to the list that will be returned
+                continue;
             }
 
-            curStock = stocks.get(i);
-            curStock.setState(curState);
-
             // Remove ',' or '%' that could be in strings
             if (curState == AFTER_HOURS || curState == PREMARKET) {
-                curPrice = parseDouble(
-                        close_prices.get(i).ownText().replaceAll("[^0-9.]+", ""));
-                curChangePoint = parseDouble(
-                        close_changePoints.get(i).ownText().replaceAll("[^0-9.-]+", ""));
-                curChangePercent = parseDouble(
-                        close_changePercents.get(i).ownText().replaceAll("[^0-9.-]+", ""));
-
-                curEhPrice = parseDouble(
-                        live_prices.get(i).ownText().replaceAll("[^0-9.]+", ""));
-                curEhChangePoint = parseDouble(
-                        live_changePoints.get(i).ownText().replaceAll("[^0-9.-]+", ""));
-                curEhChangePercent = parseDouble(
-                        live_changePercents.get(i).ownText().replaceAll("[^0-9.-]+", ""));
+                curPrice = Util.Num.parseDouble(close_prices.get(i).ownText());
+                curChangePoint = Util.Num.parseSignedDouble(close_changePoints.get(i).ownText());
+                curChangePercent = Util.Num.parseSignedDouble(
+                        close_changePercents.get(i).ownText());
+
+                curEhPrice = Util.Num.parseDouble(live_prices.get(i).ownText());
+                curEhChangePoint = Util.Num.parseSignedDouble(live_changePoints.get(i).ownText());
+                curEhChangePercent = Util.Num.parseSignedDouble(
+                        live_changePercents.get(i).ownText());
             } else {
-                curPrice = parseDouble(
-                        live_prices.get(i).ownText().replaceAll("[^0-9.]+", ""));
-                curChangePoint = parseDouble(
-                        live_changePoints.get(i).ownText().replaceAll("[^0-9.-]+", ""));
-                curChangePercent = parseDouble(
-                        live_changePercents.get(i).ownText().replaceAll("[^0-9.-]+", ""));
+                curPrice = Util.Num.parseDouble(live_prices.get(i).ownText());
+                curChangePoint = Util.Num.parseSignedDouble(live_changePoints.get(i).ownText());
+                curChangePercent = Util.Num.parseSignedDouble(live_changePercents.get(i).ownText());
 
                 // Ensure that extra hours values are 0
                 curEhPrice = 0;
@@ -171,15 +276,31 @@ public final class MultiStockRequest extends Request<ConcreteStockWithEhValsList
                 curEhChangePercent = 0;
             }
 
-            curStock.setPrice(curPrice);
-            curStock.setChangePoint(curChangePoint);
-            curStock.setChangePercent(curChangePercent);
-            curStock.setExtraHoursPrice(curEhPrice);
-            curStock.setExtraHoursChangePoint(curEhChangePoint);
-            curStock.setExtraHoursChangePercent(curEhChangePercent);
+            stocks.get(i).update(generation, curState, curPrice, curChangePoint, curChangePercent,
+                    curEhPrice, curEhChangePoint, curEhChangePercent);
         }
+    }
 
-        return Response.success(stocks, HttpHeaderParser.parseCacheHeaders(response));
+    /**
+     * @param stateText The text of the market state on the MarketWatch
+     *                  multiple-stock website
+     * @return The State that stateText represents, or null if stateText is not
+     * recognized
+     */
+    private static Stock.State parseState(final String stateText) {
+        switch (stateText.toLowerCase(Locale.US)) {
+            case "before the bell":
+                return PREMARKET;
+            case "market open":
+            case "countdown to close":
+                return OPEN;
+            case "after hours":
+                return AFTER_HOURS;
+            case "market closed":
+                return CLOSED;
+            default:
+                return null;
+        }
     }
 
     /**
@@ -0,0 +1,142 @@
+package com.sienga.stockwatch;
+
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.LocalDate;
+
+
+/**
+ * The full day holidays of the New York Stock Exchange and NASDAQ, found from
+ * the rules that set their dates, so that they never need to be updated:
+ * <ul>
+ * <li>New Year's Day, January 1</li>
+ * <li>Martin Luther King, Jr. Day, the third Monday in January</li>
+ * <li>Washington's Birthday, the third Monday in February</li>
+ * <li>Good Friday, the Friday before Easter Sunday</li>
+ * <li>Memorial Day, the last Monday in May</li>
+ * <li>Juneteenth, June 19, since 2022</li>
+ * <li>Independence Day, July 4</li>
+ * <li>Labor Day, the first Monday in September</li>
+ * <li>Thanksgiving Day, the fourth Thursday in November</li>
+ * <li>Christmas Day, December 25</li>
+ * </ul>
+ * A holiday on a Saturday is observed on the Friday before it, and a holiday
+ * on a Sunday is observed on the Monday after it. New Year's Day on a
+ * Saturday is not observed, because the exchanges do not close at the end of
+ * their accounting year.
+ * <p>
+ * Closures that are announced on short notice, i.e. national days of
+ * mourning, are not included. On those days, every Stock is {@link
+ * com.sienga.stockwatch.stocks.Stock.State#CLOSED}, which {@link
+ * RefreshScheduler} also detects.
+ */
+public final class NyseHolidays {
+
+    /**
+     * The first year that Juneteenth was a holiday of the exchanges.
+     */
+    private static final int FIRST_JUNETEENTH_YEAR = 2022;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private NyseHolidays() {
+    }
+
+    /**
+     * @param date The local date in New York to evaluate
+     * @return True if the exchanges are closed for a holiday on date
+     */
+    public static boolean isHoliday(final LocalDate date) {
+        final DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            // Weekends are never trading days, so they are not holidays
+            return false;
+        }
+
+        final int year = date.getYear();
+        switch (date.getMonthValue()) {
+            case 1:
+                return isObserved(date, year, 1, 1, false) ||
+                        isNthWeekday(date, DayOfWeek.MONDAY, 3);
+            case 2:
+                return isNthWeekday(date, DayOfWeek.MONDAY, 3);
+            case 3:
+            case 4:
+                return dayOfWeek == DayOfWeek.FRIDAY &&
+                        date.toEpochDay() == getEasterSunday(year).toEpochDay() - 2;
+            case 5:
+                // The last Monday of a month with 31 days
+                return dayOfWeek == DayOfWeek.MONDAY && date.getDayOfMonth() > 31 - 7;
+            case 6:
+                return year >= FIRST_JUNETEENTH_YEAR && isObserved(date, year, 6, 19, true);
+            case 7:
+                return isObserved(date, year, 7, 4, true);
+            case 9:
+                return isNthWeekday(date, DayOfWeek.MONDAY, 1);
+            case 11:
+                return isNthWeekday(date, DayOfWeek.THURSDAY, 4);
+            case 12:
+                return isObserved(date, year, 12, 25, true);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param date               A weekday
+     * @param year               The year of date
+     * @param month              The month of the holiday
+     * @param dayOfMonth         The day of the month of the holiday
+     * @param isObservedOnFriday True if the holiday is observed on the
+     *                           Friday before it when it is on a Saturday
+     * @return True if the holiday of year is observed on date
+     */
+    private static boolean isObserved(final LocalDate date, final int year, final int month,
+                                      final int dayOfMonth, final boolean isObservedOnFriday) {
+        final long holiday = LocalDate.of(year, month, dayOfMonth).toEpochDay();
+        final long day = date.toEpochDay();
+        switch (date.getDayOfWeek()) {
+            case FRIDAY:
+                return day == holiday || (isObservedOnFriday && day + 1 == holiday);
+            case MONDAY:
+                return day == holiday || day - 1 == holiday;
+            default:
+                return day == holiday;
+        }
+    }
+
+    /**
+     * @return True if date is the nth dayOfWeek of its month
+     */
+    private static boolean isNthWeekday(final LocalDate date, final DayOfWeek dayOfWeek,
+                                        final int n) {
+        return date.getDayOfWeek() == dayOfWeek && (date.getDayOfMonth() - 1) / 7 == n - 1;
+    }
+
+    /**
+     * Finds Easter Sunday with the anonymous Gregorian algorithm (Meeus,
+     * Jones, and Butcher).
+     *
+     * @param year The year to evaluate
+     * @return The date of Easter Sunday in year
+     */
+    private static LocalDate getEasterSunday(final int year) {
+        final int a = year % 19;
+        final int b = year / 100;
+        final int c = year % 100;
+        final int d = b / 4;
+        final int e = b % 4;
+        final int f = (b + 8) / 25;
+        final int g = (b - f + 1) / 3;
+        final int h = (19 * a + b - d - g + 15) % 30;
+        final int i = c / 4;
+        final int k = c % 4;
+        final int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        final int m = (a + 11 * h + 22 * l) / 451;
+        final int month = (h + l - 7 * m + 114) / 31;
+        final int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.sienga.stockwatch;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.Stock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
+
+
+/**
+ * Decides when each Stock in {@link HomeActivity}'s list of Stocks should be
+ * updated. This replaces a fixed-rate Timer that updated every Stock every 10
+ * seconds, regardless of whether or not the market was open.
+ * <p>
+ * Each Stock's refresh interval is derived from its last known {@link
+ * Stock.State} and from the current session of the {@link
+ * MarketSessionCalendar}. While the calendar's session is {@link
+ * Stock.State#CLOSED} (overnight, weekends, and holidays), polling is
+ * suspended entirely, and the next check is scheduled for the start of the
+ * next session. If the calendar is in a session, but every Stock's last
+ * State is CLOSED, i.e. on a closure that the calendar does not know about,
+ * the Stocks are only probed every {@link #ALL_CLOSED_INTERVAL_MS}. Stocks
+ * that are {@link Stock.State#OPEN} are updated the most often.
+ * <p>
+ * The first check after {@link #start()} always updates every Stock, because
+ * the Stocks' States may have been restored from preferences and may be out of
+ * date.
+ * <p>
+ * All callbacks are made on the main thread.
+ */
+public final class RefreshScheduler {
+
+    /**
+     * Refresh interval of a Stock whose State is {@link Stock.State#OPEN}.
+     */
+    private static final long OPEN_INTERVAL_MS = 5000;
+
+    /**
+     * Refresh interval of a Stock whose State is {@link Stock.State#PREMARKET}
+     * or {@link Stock.State#AFTER_HOURS}. Extra hours trading is thin, so
+     * prices move less often.
+     */
+    private static final long EXTRA_HOURS_INTERVAL_MS = 15000;
+
+    /**
+     * Refresh interval of a Stock whose State is {@link Stock.State#CLOSED}
+     * while the calendar says that the market is in a session. This covers
+     * Stocks that are halted or that trade on a different schedule, and picks
+     * up a Stock's transition out of CLOSED.
+     */
+    private static final long CLOSED_IN_SESSION_INTERVAL_MS = 60000;
+
+    /**
+     * Refresh interval of every Stock while the calendar says that the market
+     * is in a session, but every Stock's State is {@link Stock.State#CLOSED}.
+     * The exchanges are most likely closed for the whole day, so the Stocks
+     * are only probed to pick up a late open.
+     */
+    private static final long ALL_CLOSED_INTERVAL_MS = 15 * 60000;
+
+    /**
+     * Refresh interval of a Stock whose State is {@link Stock.State#ERROR},
+     * i.e. its last update failed. This is the interval that every Stock used
+     * to be updated at.
+     */
+    private static final long ERROR_RETRY_INTERVAL_MS = 10000;
+
+    /**
+     * Minimum delay between two checks, so that Stocks that become due at
+     * nearly the same time are updated together.
+     */
+    private static final long MIN_CHECK_DELAY_MS = 1000;
+
+    private final ConcreteStockWithEhValsList stocks;
+    private final MarketSessionCalendar calendar;
+    private final OnRefreshDueListener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Maps each ticker to the {@link SystemClock#elapsedRealtime()} at which
+     * its Stock was last passed to {@link #listener}.
+     */
+    private final Map<String, Long> lastRefreshTimes = new HashMap<>();
+
+    private boolean isStarted = false;
+
+    private final Runnable checkRunnable = this::check;
+
+    /**
+     * @param stocks   The list of Stocks to schedule updates for. The
+     *                 contents of this list can change between checks.
+     * @param calendar The calendar that describes when the market is open
+     * @param listener The listener to pass due Stocks to
+     */
+    public RefreshScheduler(final ConcreteStockWithEhValsList stocks,
+                            final MarketSessionCalendar calendar,
+                            final OnRefreshDueListener listener) {
+        this.stocks = stocks;
+        this.calendar = calendar;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts checking for due Stocks, starting immediately. Every Stock is
+     * due in the first check.
+     */
+    public void start() {
+        if (isStarted) {
+            return;
+        }
+        isStarted = true;
+        lastRefreshTimes.clear();
+        handler.post(checkRunnable);
+    }
+
+    /**
+     * Stops all future checks.
+     */
+    public void stop() {
+        isStarted = false;
+        handler.removeCallbacks(checkRunnable);
+    }
+
+    /**
+     * Passes every Stock that is due to {@link #listener}, then schedules the
+     * next check for when the next Stock becomes due. If the market is
+     * closed, the next check is scheduled for the start of the next session.
+     * If every Stock is closed while the market is in a session, each Stock
+     * is due every {@link #ALL_CLOSED_INTERVAL_MS}.
+     */
+    private void check() {
+        if (!isStarted) {
+            return;
+        }
+
+        final long now = SystemClock.elapsedRealtime();
+        final Stock.State sessionState = calendar.getSessionState(System.currentTimeMillis());
+
+        // The calendar's CLOSED session suspends polling instead
+        boolean areAllClosed = sessionState != CLOSED && !stocks.isEmpty();
+        for (final ConcreteStockWithEhVals s : stocks) {
+            if (s.getState() != CLOSED) {
+                areAllClosed = false;
+                break;
+            }
+        }
+
+        final ConcreteStockWithEhValsList due = new ConcreteStockWithEhValsList();
+        long nextCheckDelay = Long.MAX_VALUE;
+        for (final ConcreteStockWithEhVals s : stocks) {
+            final Long lastRefreshTime = lastRefreshTimes.get(s.getTicker());
+            if (lastRefreshTime == null) {
+                // Never updated since start()
+                due.add(s);
+                lastRefreshTimes.put(s.getTicker(), now);
+                continue;
+            }
+
+            final long interval = areAllClosed ?
+                    ALL_CLOSED_INTERVAL_MS :
+                    getRefreshInterval(s.getState(), sessionState);
+            if (interval == Long.MAX_VALUE) {
+                continue;
+            }
+
+            final long untilDue = lastRefreshTime + interval - now;
+            if (untilDue <= 0) {
+                due.add(s);
+                lastRefreshTimes.put(s.getTicker(), now);
+                nextCheckDelay = Math.min(nextCheckDelay, interval);
+            } else {
+                nextCheckDelay = Math.min(nextCheckDelay, untilDue);
+            }
+        }
+
+        if (!due.isEmpty()) {
+            listener.onRefreshDue(due);
+        }
+
+        if (sessionState == CLOSED) {
+            // Suspend polling until the market opens
+            nextCheckDelay = calendar.getMillisUntilNextSession(System.currentTimeMillis());
+            // Stocks that were updated before the close become due when the session starts
+            lastRefreshTimes.clear();
+        } else if (nextCheckDelay == Long.MAX_VALUE) {
+            // stocks is empty. Check again in case a Stock is added
+            nextCheckDelay = OPEN_INTERVAL_MS;
+        }
+
+        handler.postDelayed(checkRunnable, Math.max(MIN_CHECK_DELAY_MS, nextCheckDelay));
+    }
+
+    /**
+     * @param stockState   The last known State of a Stock
+     * @param sessionState The current session State of {@link #calendar}
+     * @return The number of milliseconds to wait between updates of a Stock
+     * with stockState, or {@link Long#MAX_VALUE} if the Stock should not be
+     * updated
+     */
+    private static long getRefreshInterval(final Stock.State stockState,
+                                           final Stock.State sessionState) {
+        if (sessionState == CLOSED) {
+            return Long.MAX_VALUE;
+        }
+
+        switch (stockState) {
+            case OPEN:
+                return OPEN_INTERVAL_MS;
+            case PREMARKET:
+            case AFTER_HOURS:
+                return EXTRA_HOURS_INTERVAL_MS;
+            case CLOSED:
+                return CLOSED_IN_SESSION_INTERVAL_MS;
+            case ERROR:
+                return ERROR_RETRY_INTERVAL_MS;
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+
+    public interface OnRefreshDueListener {
+
+        /**
+         * @param dueStocks The Stocks that should be updated now. This list is
+         *                  a new list, but contains the same Stocks as the list
+         *                  passed to the RefreshScheduler.
+         */
+        void onRefreshDue(final ConcreteStockWithEhValsList dueStocks);
+
+    }
+
+}
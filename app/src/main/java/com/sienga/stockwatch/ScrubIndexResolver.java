@@ -0,0 +1,91 @@
+package com.sienga.stockwatch;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Maps the x coordinate of a scrub to the index of the nearest point of a
+ * {@link CustomSparkView}.
+ * <p>
+ * SparkView places points at evenly spaced x coordinates, so the nearest index
+ * is computed with arithmetic from the first x coordinate and the spacing. If
+ * the points are not evenly spaced, the nearest index is found with a binary
+ * search of a float[] copy of the x coordinates. Either way, the boxed x
+ * coordinates of the SparkView are only read when the points change (see
+ * {@link CustomSparkView#getPointsVersion()}), not on every move of a scrub.
+ */
+final class ScrubIndexResolver {
+
+    private float[] xPoints = new float[0];
+    private int numPts = 0;
+    private float firstX;
+    private float stepX;
+    private boolean evenlySpaced;
+
+    /**
+     * Copies the x coordinates of the points.
+     *
+     * @param points The x coordinates of the points, in increasing order
+     */
+    void update(final List<Float> points) {
+        final int size = points.size();
+        if (xPoints.length < size) {
+            xPoints = new float[size];
+        }
+        for (int i = 0; i < size; i++) {
+            xPoints[i] = points.get(i);
+        }
+        numPts = size;
+
+        firstX = size == 0 ? 0 : xPoints[0];
+        stepX = size < 2 ? 0 : (xPoints[size - 1] - firstX) / (size - 1);
+        evenlySpaced = stepX > 0;
+        // Allow for float rounding in SparkView's scaling
+        final float tolerance = stepX / 100;
+        for (int i = 1; evenlySpaced && i < size - 1; i++) {
+            evenlySpaced = Math.abs(xPoints[i] - (firstX + i * stepX)) <= tolerance;
+        }
+    }
+
+    /**
+     * @param x The x coordinate of the scrub
+     * @return The index of the point nearest to x, or -1 if there are no
+     * points
+     */
+    int getNearestIndex(final float x) {
+        if (numPts <= 1) {
+            return numPts - 1;
+        }
+
+        if (evenlySpaced) {
+            final int index = Math.round((x - firstX) / stepX);
+            return Math.max(0, Math.min(index, numPts - 1));
+        }
+
+        int index = Arrays.binarySearch(xPoints, 0, numPts, x);
+
+        // If binary search returns positive, it is an exact match. Return this index.
+        if (index >= 0) return index;
+
+        // Otherwise, calculate the binary search's specified insertion index
+        index = -1 - index;
+
+        // If inserting at 0, then our guaranteed nearest index is 0
+        if (index == 0) return index;
+
+        // If inserting at the very end, then our guaranteed nearest index is the final one
+        if (index == numPts) return --index;
+
+        // Otherwise we need to check which of our two neighbors we're closer to
+        final float deltaUp = xPoints[index] - x;
+        final float deltaDown = x - xPoints[index - 1];
+        if (deltaUp > deltaDown) {
+            // If the below neighbor is closer, decrement index
+            index--;
+        }
+
+        return index;
+    }
+
+}
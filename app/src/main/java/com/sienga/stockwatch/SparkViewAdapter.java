@@ -1,22 +1,34 @@
 package com.sienga.stockwatch;
 
+import android.graphics.RectF;
+
 import com.robinhood.spark.SparkAdapter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 
 import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.DaySeries;
+import com.sienga.stockwatch.stocks.PriceSeries;
 
 
 public final class SparkViewAdapter extends SparkAdapter {
 
-    private List<Double> prices;
-    private List<String> dates;
+    private PriceSeries prices;
+    private DaySeries dates;
     private AdvancedStock.ChartPeriod chartPeriod = null;
 
+    /**
+     * Maps each ChartPeriod to the bounds of the prices that were last shown
+     * for it, so that the bounds are not found again when a chart is shown
+     * again, or when the same chart is refreshed.
+     */
+    private final Map<AdvancedStock.ChartPeriod, Bounds> periodToBoundsMap =
+            new EnumMap<>(AdvancedStock.ChartPeriod.class);
+
     SparkViewAdapter() {
-        prices = new ArrayList<>();
-        dates = new ArrayList<>();
+        prices = new PriceSeries();
+        dates = DaySeries.EMPTY;
     }
 
     /**
@@ -28,6 +40,8 @@ public final class SparkViewAdapter extends SparkAdapter {
     }
 
     /**
+     * Boxes the price. Drawing and scrubbing only use {@link #getY(int)}.
+     *
      * @return the object at the given index
      */
     @Override
@@ -41,18 +55,49 @@ public final class SparkViewAdapter extends SparkAdapter {
      */
     @Override
     public float getY(final int index) {
-        return (float) prices.get(index).doubleValue();
+        return (float) prices.get(index);
+    }
+
+    /**
+     * SparkView gets the bounds every time that it rebuilds its path. The
+     * bounds of the prices are cached for each ChartPeriod. If prices are
+     * appended to the shown prices, only the appended prices are read. If a
+     * shown price is replaced, {@link #invalidateBounds(AdvancedStock.ChartPeriod)}
+     * must be called.
+     *
+     * @return the bounds of the points, where the x value of each point is its
+     * index
+     */
+    @Override
+    public RectF getDataBounds() {
+        if (chartPeriod == null) {
+            return super.getDataBounds();
+        }
+
+        Bounds bounds = periodToBoundsMap.get(chartPeriod);
+        if (bounds == null) {
+            bounds = new Bounds();
+            periodToBoundsMap.put(chartPeriod, bounds);
+        }
+        bounds.update(prices);
+        // SparkView modifies the RectF, so it can not be cached
+        return new RectF(0, bounds.minY, Math.max(prices.size() - 1, 0), bounds.maxY);
     }
 
     public float getPrice(final int index) {
         return getY(index);
     }
 
+    /**
+     * Dates are only formatted here, so only the scrubbed date is formatted.
+     *
+     * @return the text of the date at the given index
+     */
     public String getDate(final int index) {
-        return dates.get(index);
+        return DaySeries.format(dates.get(index));
     }
 
-    public List<Double> getPrices() {
+    public PriceSeries getPrices() {
         return prices;
     }
 
@@ -61,11 +106,23 @@ public final class SparkViewAdapter extends SparkAdapter {
      *
      * @param yData To set prices to
      */
-    public void setPrices(final List<Double> yData) {
+    public void setPrices(final PriceSeries yData) {
         prices = yData;
     }
 
-    public List<String> getDates() {
+    /**
+     * Makes the bounds of chartPeriod be found again from all of its prices.
+     * Must be called when a price that was already shown is replaced, because
+     * the cached bounds only read appended prices. This function does not
+     * call {@link #notifyDataSetChanged()}.
+     *
+     * @param chartPeriod The ChartPeriod whose prices were replaced
+     */
+    public void invalidateBounds(final AdvancedStock.ChartPeriod chartPeriod) {
+        periodToBoundsMap.remove(chartPeriod);
+    }
+
+    public DaySeries getDates() {
         return dates;
     }
 
@@ -74,7 +131,7 @@ public final class SparkViewAdapter extends SparkAdapter {
      *
      * @param dates To set dates to
      */
-    public void setDates(final List<String> dates) {
+    public void setDates(final DaySeries dates) {
         this.dates = dates;
     }
 
@@ -86,4 +143,38 @@ public final class SparkViewAdapter extends SparkAdapter {
         this.chartPeriod = chartPeriod;
     }
 
+
+
+    /**
+     * The minimum and maximum of a PriceSeries, and the number of its prices
+     * that have been read.
+     */
+    private static final class Bounds {
+
+        private PriceSeries prices;
+        private int numReadPts;
+        private float minY;
+        private float maxY;
+
+        /**
+         * Reads the prices of prices that have not been read. If prices is not
+         * the series that was last read, or it has been cleared, all of its
+         * prices are read.
+         */
+        private void update(final PriceSeries prices) {
+            if (prices != this.prices || prices.size() < numReadPts) {
+                this.prices = prices;
+                numReadPts = 0;
+                minY = Float.MAX_VALUE;
+                maxY = -Float.MAX_VALUE;
+            }
+            for (; numReadPts < prices.size(); numReadPts++) {
+                final float y = (float) prices.get(numReadPts);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,260 @@
+package com.sienga.stockwatch;
+
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * A memory bounded cache of the details of the Stocks that were recently shown
+ * in {@link IndividualStockActivity}: the {@link AdvancedStock} with its stats
+ * and charts, and the news Articles. Users often go back and forth between the
+ * same few Stocks, so when a Stock is shown again, its cached details are
+ * shown immediately, and only the sections that are stale are downloaded.
+ * <p>
+ * Each section of an {@link Entry} has the time that it was last downloaded.
+ * The cache lives as long as the process. The least recently used entries are
+ * evicted once the estimated size of all entries exceeds {@link
+ * #MAX_SIZE_BYTES}.
+ * <p>
+ * Entries must only be used from the main thread, which is checked by {@link
+ * #get(String)} and {@link #put(Entry)}. The AdvancedStock of an Entry is
+ * still updated by the tasks of the Activity that it belongs to, on worker
+ * threads, while it is cached. Therefore:
+ * <ul>
+ * <li>An Activity that shows a cached Stock copies the cached AdvancedStock,
+ * including its {@link com.sienga.stockwatch.stocks.IntradaySeries}, and
+ * caches a new Entry of the copy. The tasks of the previous Activity only
+ * update the previous AdvancedStock.</li>
+ * <li>The size of an Entry is only estimated from values that can be read
+ * while a task updates them: the one day chart is synchronized, the daily
+ * prices are replaced as a whole, and the description is a String.</li>
+ * </ul>
+ */
+final class StockDetailCache {
+
+    /**
+     * The maximum estimated size of all entries. A Stock with five years of
+     * daily prices, a full one day chart, and a page of news is about 20 KB.
+     */
+    private static final int MAX_SIZE_BYTES = 1024 * 1024;
+
+    private static final LruCache<String, Entry> cache = new LruCache<String, Entry>(MAX_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(final String ticker, final Entry entry) {
+            return entry.sizeBytes;
+        }
+    };
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private StockDetailCache() {
+    }
+
+    /**
+     * @param ticker The ticker of the Stock
+     * @return The cached details of ticker, or null if they are not cached
+     */
+    static Entry get(final String ticker) {
+        checkMainThread();
+        return cache.get(ticker);
+    }
+
+    /**
+     * Adds entry to the cache, or updates its size and makes it the most
+     * recently used if it is already cached. This should be called whenever
+     * entry is updated.
+     *
+     * @param entry The Entry to cache
+     */
+    static void put(final Entry entry) {
+        checkMainThread();
+        /* Remove entry before its size changes, so that the cache subtracts
+         * the size that it added. */
+        cache.remove(entry.stock.getTicker());
+        entry.sizeBytes = entry.estimateSize();
+        cache.put(entry.stock.getTicker(), entry);
+    }
+
+    /**
+     * @throws IllegalStateException If this is not called from the main
+     *                               thread
+     */
+    private static void checkMainThread() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("StockDetailCache must be used from the main thread");
+        }
+    }
+
+    /**
+     * @param updateTime The update time of a section of an Entry
+     * @param maxAgeMs   The age after which the section is stale
+     * @return The number of milliseconds until the section is stale, or 0 if
+     * it is stale or has never been downloaded
+     */
+    static long getMillisUntilStale(final long updateTime, final long maxAgeMs) {
+        if (updateTime == Entry.NEVER) {
+            return 0;
+        }
+        return Math.max(0, updateTime + maxAgeMs - SystemClock.elapsedRealtime());
+    }
+
+
+    /**
+     * The cached details of a Stock. A section that has never been downloaded
+     * has an update time of {@link #NEVER}.
+     */
+    static final class Entry {
+
+        static final long NEVER = Long.MIN_VALUE;
+
+        private final AdvancedStock stock;
+
+        private Set<Stat> missingStats = Collections.emptySet();
+        private long statsUpdateTime = NEVER;
+
+        private Set<ChartPeriod> missingChartPeriods = Collections.emptySet();
+        private long chartsUpdateTime = NEVER;
+
+        private List<Article> articles = Collections.emptyList();
+        private int newsStatus;
+        private long newsUpdateTime = NEVER;
+
+        private int sizeBytes;
+
+        /**
+         * @param stock The AdvancedStock that the details are of
+         */
+        Entry(final AdvancedStock stock) {
+            this.stock = stock;
+        }
+
+        AdvancedStock getStock() {
+            return stock;
+        }
+
+        /**
+         * Used when a copy of the AdvancedStock of entry is made, to copy
+         * every section of entry other than the AdvancedStock.
+         *
+         * @param entry The Entry to copy from
+         */
+        void copySectionsFrom(final Entry entry) {
+            missingStats = entry.missingStats;
+            statsUpdateTime = entry.statsUpdateTime;
+            missingChartPeriods = entry.missingChartPeriods;
+            chartsUpdateTime = entry.chartsUpdateTime;
+            articles = entry.articles;
+            newsStatus = entry.newsStatus;
+            newsUpdateTime = entry.newsUpdateTime;
+        }
+
+        Set<Stat> getMissingStats() {
+            return missingStats;
+        }
+
+        long getStatsUpdateTime() {
+            return statsUpdateTime;
+        }
+
+        /**
+         * Called when the stats of {@link #stock} have been downloaded.
+         *
+         * @param missingStats The stats that were missing from the download
+         */
+        void setStatsUpdated(final Set<Stat> missingStats) {
+            this.missingStats = missingStats.isEmpty() ?
+                    Collections.<Stat>emptySet() :
+                    EnumSet.copyOf(missingStats);
+            statsUpdateTime = SystemClock.elapsedRealtime();
+        }
+
+        Set<ChartPeriod> getMissingChartPeriods() {
+            return missingChartPeriods;
+        }
+
+        long getChartsUpdateTime() {
+            return chartsUpdateTime;
+        }
+
+        /**
+         * Called when the charts of {@link #stock} have been downloaded.
+         *
+         * @param missingChartPeriods The ChartPeriods that were missing from
+         *                            the download
+         */
+        void setChartsUpdated(final Set<ChartPeriod> missingChartPeriods) {
+            this.missingChartPeriods = missingChartPeriods.isEmpty() ?
+                    Collections.<ChartPeriod>emptySet() :
+                    EnumSet.copyOf(missingChartPeriods);
+            chartsUpdateTime = SystemClock.elapsedRealtime();
+        }
+
+        /**
+         * @return The cached Articles, from newest to oldest. This must not be
+         * modified.
+         */
+        List<Article> getArticles() {
+            return articles;
+        }
+
+        int getNewsStatus() {
+            return newsStatus;
+        }
+
+        long getNewsUpdateTime() {
+            return newsUpdateTime;
+        }
+
+        /**
+         * Called when the news has been downloaded.
+         *
+         * @param articles Every shown Article, from newest to oldest, which
+         *                 are copied
+         * @param status   The {@link
+         *                 com.sienga.stockwatch.sources.NewsSource.Status}
+         *                 of the download
+         */
+        void setNewsUpdated(final List<Article> articles, final int status) {
+            this.articles = Collections.unmodifiableList(new ArrayList<>(articles));
+            newsStatus = status;
+            newsUpdateTime = SystemClock.elapsedRealtime();
+        }
+
+        /**
+         * Called from the main thread while a task may be updating {@link
+         * #stock} (see {@link StockDetailCache}).
+         *
+         * @return The approximate number of bytes that this uses
+         */
+        private int estimateSize() {
+            // Stats and object overhead
+            int size = 1024;
+            // Read once, because a task can replace it
+            final String description = stock.getDescription();
+            if (description != null) {
+                size += 2 * description.length();
+            }
+            // A double and an int for each daily price, and a double for each one day price
+            size += 12 * stock.getDailyPrices().size();
+            size += 8 * stock.getIntradaySeries().size();
+            // Titles, sources, and URLs
+            size += 512 * articles.size();
+            return size;
+        }
+
+    }
+
+}
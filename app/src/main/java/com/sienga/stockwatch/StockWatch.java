@@ -3,6 +3,13 @@ package com.sienga.stockwatch;
 import android.app.Application;
 import android.content.Context;
 
+import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.sienga.stockwatch.sources.BuildTypeSources;
+import com.sienga.stockwatch.sources.HistoricalPriceStore;
+import com.sienga.stockwatch.sources.InstrumentMetadataStore;
+import com.sienga.stockwatch.sources.NewsStore;
+import com.sienga.stockwatch.sources.StaticStatsStore;
+
 import org.acra.ACRA;
 import org.acra.annotation.AcraCore;
 
@@ -22,4 +29,27 @@ public final class StockWatch extends Application {
         ACRA.init(this);
     }
 
+    /**
+     * This method is overridden to initialize {@link AndroidThreeTen}, which
+     * is used by {@link MarketSessionCalendar} and DownloadChartsTask, {@link
+     * HttpCache}, {@link HistoricalPriceStore}, {@link
+     * InstrumentMetadataStore}, {@link StaticStatsStore}, and {@link
+     * NewsStore}. This is done here, rather than in an Activity, because they
+     * must be initialized before any Activity uses them. The sources of the
+     * build type are set here for the same reason (see {@link
+     * BuildTypeSources}).
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        AndroidThreeTen.init(this);
+        HttpCache.init(this);
+        HistoricalPriceStore.init(this);
+        InstrumentMetadataStore.init(this);
+        StaticStatsStore.init(this);
+        NewsStore.init(this);
+        BuildTypeSources.init();
+    }
+
 }
@@ -35,7 +35,7 @@ public final class Util {
     };
 
 
-    static class Char {
+    public static class Char {
 
         /**
          * @param c Char to evaluate
@@ -55,4 +55,172 @@ public final class Util {
 
     }
 
+
+    /**
+     * Parses the numeric values that are scraped from websites, i.e.
+     * "$1,234.50" and "-0.25%", directly from the text.
+     * <p>
+     * These methods replace {@code parseDouble(s.replaceAll("[^0-9.-]+", ""))},
+     * which compiles a regex and allocates a Matcher and two Strings for every
+     * value. Characters that are not digits, '.', or '-' (for signed values)
+     * are skipped, the same as with the regex. Values with up to 15
+     * significant digits and 22 decimal places are parsed without allocating
+     * anything, and the result is the same as {@link Double#parseDouble(String)}.
+     * Longer values fall back to Double.parseDouble.
+     */
+    public static class Num {
+
+        /**
+         * Exact powers of ten that can be represented by a double.
+         */
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        /**
+         * Mantissas with more digits than this may not be exactly representable
+         * by a double.
+         */
+        private static final int MAX_EXACT_DIGITS = 15;
+
+        /**
+         * @param s The text of an unsigned value, i.e. "$1,234.50"
+         * @return The value of s, ignoring all characters other than digits
+         * and '.'
+         * @throws NumberFormatException If s does not contain a number
+         */
+        public static double parseDouble(final CharSequence s) {
+            return parse(s, null, 0, s.length(), false);
+        }
+
+        /**
+         * @param s     The text that contains an unsigned value
+         * @param start The start of the value in s, inclusive
+         * @param end   The end of the value in s, exclusive
+         * @return The value of s from start to end, ignoring all characters
+         * other than digits and '.'
+         * @throws NumberFormatException If the range does not contain a number
+         */
+        public static double parseDouble(final CharSequence s, final int start, final int end) {
+            return parse(s, null, start, end, false);
+        }
+
+        /**
+         * Same as {@link #parseDouble(CharSequence, int, int)}, for ASCII text
+         * that has not been decoded, so that no String has to be created.
+         *
+         * @param data       The bytes that contain the value
+         * @param start      The start of the value in data, inclusive
+         * @param end        The end of the value in data, exclusive
+         * @param allowMinus True if the value can be negative, in which case
+         *                   '-' is kept
+         * @return The value of data from start to end
+         * @throws NumberFormatException If the range does not contain a number
+         */
+        public static double parseDouble(final byte[] data, final int start, final int end,
+                                          final boolean allowMinus) {
+            return parse(null, data, start, end, allowMinus);
+        }
+
+        /**
+         * Also used for percentages, i.e. "-0.25%", which are stored without
+         * being divided by 100.
+         *
+         * @param s The text of a value that can be negative, i.e. "-1.25"
+         * @return The value of s, ignoring all characters other than digits,
+         * '.', and '-'
+         * @throws NumberFormatException If s does not contain a number
+         */
+        public static double parseSignedDouble(final CharSequence s) {
+            return parse(s, null, 0, s.length(), true);
+        }
+
+        /**
+         * @param s          The text to parse, or null if data is parsed
+         * @param data       The ASCII bytes to parse, if s is null
+         * @param start      The start of the value, inclusive
+         * @param end        The end of the value, exclusive
+         * @param allowMinus True if '-' is kept, false if it is skipped
+         * @return The value from start to end
+         * @throws NumberFormatException If the kept characters are not a
+         *                               number
+         */
+        private static double parse(final CharSequence s, final byte[] data,
+                                    final int start, final int end,
+                                    final boolean allowMinus) {
+            long mantissa = 0;
+            int numDigits = 0; // Significant digits in mantissa
+            int numDecimals = 0;
+            boolean isNegative = false;
+            boolean foundDigit = false;
+            boolean foundDec = false;
+            boolean foundKept = false;
+
+            for (int i = start; i < end; i++) {
+                final char c = s != null ? s.charAt(i) : (char) data[i];
+                if (c >= '0' && c <= '9') {
+                    foundDigit = true;
+                    foundKept = true;
+                    if (numDigits == 0 && c == '0') {
+                        // Leading zeros are not significant
+                        if (foundDec) {
+                            numDecimals++;
+                        }
+                        continue;
+                    }
+                    if (++numDigits > MAX_EXACT_DIGITS) {
+                        return parseSlow(s, data, start, end, allowMinus);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (foundDec) {
+                        numDecimals++;
+                    }
+                } else if (c == '.') {
+                    if (foundDec) {
+                        throw new NumberFormatException("multiple points");
+                    }
+                    foundDec = true;
+                    foundKept = true;
+                } else if (c == '-' && allowMinus) {
+                    // Double.parseDouble only allows a sign before everything else
+                    if (foundKept) {
+                        throw new NumberFormatException("misplaced '-'");
+                    }
+                    isNegative = true;
+                    foundKept = true;
+                }
+            }
+
+            if (!foundDigit) {
+                throw new NumberFormatException("no digits");
+            }
+            if (numDecimals >= POWERS_OF_TEN.length) {
+                return parseSlow(s, data, start, end, allowMinus);
+            }
+
+            // Both operands are exact, so the quotient is correctly rounded
+            final double value = mantissa / POWERS_OF_TEN[numDecimals];
+            return isNegative ? -value : value;
+        }
+
+        /**
+         * Used for values that {@link #parse(CharSequence, byte[], int, int,
+         * boolean)} cannot parse exactly.
+         */
+        private static double parseSlow(final CharSequence s, final byte[] data,
+                                        final int start, final int end,
+                                        final boolean allowMinus) {
+            final StringBuilder kept = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                final char c = s != null ? s.charAt(i) : (char) data[i];
+                if ((c >= '0' && c <= '9') || c == '.' || (allowMinus && c == '-')) {
+                    kept.append(c);
+                }
+            }
+            return Double.parseDouble(kept.toString());
+        }
+
+    }
+
 }
@@ -0,0 +1,336 @@
+package com.sienga.stockwatch;
+
+import android.os.SystemClock;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.sienga.stockwatch.sources.QuoteSource;
+import com.sienga.stockwatch.sources.Sources;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Sends the batch requests that update {@link HomeActivity}'s Stocks. Each
+ * call to {@link #refresh(ConcreteStockWithEhValsList)} starts a refresh
+ * cycle, which splits its Stocks into batches of the current {@link
+ * QuoteSource}.
+ * <p>
+ * Adding every batch to the RequestQueue at once made a large list of Stocks
+ * fire all of its requests at the same instant, which slowed down every
+ * request and caused many of them to time out. Instead, at most {@link
+ * #MAX_IN_FLIGHT_BATCHES} batches are sent at a time, and the rest wait
+ * until a sent batch completes. A Stock that is already waiting or being
+ * updated is not added to another batch, so refresh cycles that overlap do
+ * not build up a backlog. The exception is a batch that has been in flight for
+ * longer than {@link #SUPERSEDE_AFTER_MILLIS}: it is cancelled, and its Stocks
+ * that are still being refreshed are added to the new cycle instead.
+ * <p>
+ * Every cycle has a generation, which is passed to {@link
+ * QuoteSource#newBatchRequest(ConcreteStockWithEhValsList, long,
+ * Response.Listener, Response.ErrorListener)}, so a late response from an
+ * older cycle never replaces the values from a newer one. Cancelled batches
+ * do not update their Stocks, and are not delivered to any listener.
+ * <p>
+ * This class must only be used from the main thread. All callbacks are made on
+ * the main thread.
+ */
+public final class WatchlistRefresher {
+
+    /**
+     * The maximum number of batches that are sent at a time. This is the
+     * number of network threads of a RequestQueue from {@link
+     * com.android.volley.toolbox.Volley#newRequestQueue(android.content.Context)},
+     * so more batches would only wait in the RequestQueue.
+     */
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    /**
+     * The time that a batch can be in flight before a new refresh cycle
+     * cancels it and updates its Stocks again. This is less than Volley's
+     * total timeout with retries, so a stalled connection does not keep its
+     * Stocks from being updated for that long.
+     */
+    private static final long SUPERSEDE_AFTER_MILLIS = 15000;
+
+    private final RequestQueue requestQueue;
+    private final Response.Listener<ConcreteStockWithEhValsList> responseListener;
+    private final Response.ErrorListener errorListener;
+    private final RefreshCycleListener cycleListener;
+
+    private final ArrayDeque<Batch> pendingBatches = new ArrayDeque<>();
+    private final List<Batch> inFlightBatches = new ArrayList<>();
+
+    /**
+     * Maps the ticker of every Stock in {@link #pendingBatches} and {@link
+     * #inFlightBatches} to its batch.
+     */
+    private final Map<String, Batch> tickerToBatchMap = new HashMap<>();
+
+    /**
+     * The generation of the most recent refresh cycle.
+     */
+    private long generation = 0;
+
+    /**
+     * @param requestQueue     The RequestQueue to add batch requests to
+     * @param responseListener Listener to receive the updated Stocks of each
+     *                         batch
+     * @param errorListener    Listener to receive the error of each failed
+     *                         batch
+     * @param cycleListener    Listener to notify when a refresh cycle
+     *                         completes, or null
+     */
+    public WatchlistRefresher(final RequestQueue requestQueue,
+                              final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+                              final Response.ErrorListener errorListener,
+                              final RefreshCycleListener cycleListener) {
+        this.requestQueue = requestQueue;
+        this.responseListener = responseListener;
+        this.errorListener = errorListener;
+        this.cycleListener = cycleListener;
+    }
+
+    /**
+     * Starts a refresh cycle for the Stocks in stocks that are not already
+     * waiting or being updated. Batches that have been in flight for longer
+     * than {@link #SUPERSEDE_AFTER_MILLIS} are cancelled, and their Stocks
+     * that are in stocks are added to this cycle.
+     *
+     * @param stocks The Stocks to update
+     */
+    public void refresh(final ConcreteStockWithEhValsList stocks) {
+        final long now = SystemClock.elapsedRealtime();
+        final ConcreteStockWithEhValsList stocksToUpdate = new ConcreteStockWithEhValsList();
+        for (final ConcreteStockWithEhVals s : stocks) {
+            final Batch queuedBatch = tickerToBatchMap.get(s.getTicker());
+            if (queuedBatch == null) {
+                stocksToUpdate.add(s);
+            } else if (queuedBatch.request != null
+                    && now - queuedBatch.sendTime > SUPERSEDE_AFTER_MILLIS) {
+                /* Stalled. Cancel it and update s in this cycle. Cancelling
+                 * releases every Stock of the batch, so its other Stocks that
+                 * are still in stocks are added once when they are reached,
+                 * and Stocks that were removed from stocks are not added. */
+                cancelBatch(queuedBatch);
+                stocksToUpdate.add(s);
+            }
+            // Otherwise the Stock is waiting, or was recently sent
+        }
+        if (stocksToUpdate.isEmpty()) {
+            sendPendingBatches();
+            return;
+        }
+
+        final QuoteSource quoteSource = Sources.getQuoteSource();
+        final int batchSize = quoteSource.getMaxBatchSize();
+        final int numStocksTotal = stocksToUpdate.size();
+        final Cycle cycle = new Cycle(++generation, numStocksTotal,
+                (numStocksTotal + batchSize - 1) / batchSize);
+
+        for (int start = 0; start < numStocksTotal; start += batchSize) {
+            final int end = Math.min(start + batchSize, numStocksTotal);
+            final Batch batch = new Batch(cycle, quoteSource,
+                    new ConcreteStockWithEhValsList(stocksToUpdate.subList(start, end)));
+            for (final ConcreteStockWithEhVals s : batch.stocks) {
+                tickerToBatchMap.put(s.getTicker(), batch);
+            }
+            pendingBatches.add(batch);
+        }
+        sendPendingBatches();
+    }
+
+    /**
+     * Cancels every batch that is waiting or being updated. Cancelled batches
+     * are not delivered to any listener, and their refresh cycles are not
+     * completed.
+     */
+    public void cancelAll() {
+        for (final Batch batch : inFlightBatches) {
+            batch.cancelled = true;
+        }
+        requestQueue.cancelAll(this);
+        inFlightBatches.clear();
+        pendingBatches.clear();
+        tickerToBatchMap.clear();
+    }
+
+    /**
+     * Cancels an in-flight batch that is being superseded, and releases its
+     * Stocks. The batch counts as a failed batch of its cycle, so that the
+     * cycle still completes.
+     *
+     * @param batch The in-flight batch to cancel
+     */
+    private void cancelBatch(final Batch batch) {
+        batch.cancelled = true;
+        batch.request.cancel();
+        completeBatch(batch, true);
+    }
+
+    /**
+     * Sends pending batches until {@link #MAX_IN_FLIGHT_BATCHES} batches are in
+     * flight.
+     */
+    private void sendPendingBatches() {
+        while (inFlightBatches.size() < MAX_IN_FLIGHT_BATCHES && !pendingBatches.isEmpty()) {
+            final Batch batch = pendingBatches.poll();
+            batch.request = batch.quoteSource.newBatchRequest(batch.stocks, batch.cycle.generation,
+                    response -> {
+                        // A request can deliver twice, e.g. a cached response and
+                        // then a fresh one. Forward both, but complete the batch once.
+                        if (batch.cancelled) {
+                            return;
+                        }
+                        onBatchCompleted(batch, false);
+                        responseListener.onResponse(response);
+                    },
+                    error -> {
+                        if (batch.cancelled) {
+                            return;
+                        }
+                        onBatchCompleted(batch, true);
+                        if (errorListener != null) {
+                            errorListener.onErrorResponse(error);
+                        }
+                    });
+            batch.request.setTag(this);
+            batch.sendTime = SystemClock.elapsedRealtime();
+            inFlightBatches.add(batch);
+            requestQueue.add(batch.request);
+        }
+    }
+
+    /**
+     * Releases batch's Stocks and in-flight slot, sends the next pending
+     * batch, and notifies {@link #cycleListener} if batch was the last batch
+     * of its cycle.
+     *
+     * @param batch  The batch that completed
+     * @param failed True if batch completed with a {@link VolleyError}
+     */
+    private void onBatchCompleted(final Batch batch, final boolean failed) {
+        if (completeBatch(batch, failed)) {
+            sendPendingBatches();
+        }
+    }
+
+    /**
+     * Releases batch's Stocks and in-flight slot, and notifies {@link
+     * #cycleListener} if batch was the last batch of its cycle.
+     *
+     * @param batch  The batch that completed or was cancelled
+     * @param failed True if batch completed with a {@link VolleyError} or was
+     *               cancelled
+     * @return False if batch had already been completed
+     */
+    private boolean completeBatch(final Batch batch, final boolean failed) {
+        if (!inFlightBatches.remove(batch)) {
+            // Already completed, or cancelled by cancelAll()
+            return false;
+        }
+        for (final ConcreteStockWithEhVals s : batch.stocks) {
+            // The ticker may have been queued again in a newer batch
+            tickerToBatchMap.remove(s.getTicker(), batch);
+        }
+
+        final Cycle cycle = batch.cycle;
+        cycle.numCompletedBatches++;
+        if (failed) {
+            cycle.numFailedBatches++;
+        }
+        if (cycle.numCompletedBatches == cycle.numBatches && cycleListener != null) {
+            cycleListener.onRefreshCycleCompleted(cycle.numStocks, cycle.numBatches,
+                    cycle.numFailedBatches, SystemClock.elapsedRealtime() - cycle.startTime);
+        }
+        return true;
+    }
+
+
+    /**
+     * The progress of one call to {@link #refresh(ConcreteStockWithEhValsList)}.
+     */
+    private static final class Cycle {
+
+        private final long generation;
+        private final int numStocks;
+        private final int numBatches;
+        private final long startTime = SystemClock.elapsedRealtime();
+        private int numCompletedBatches = 0;
+        private int numFailedBatches = 0;
+
+        private Cycle(final long generation, final int numStocks, final int numBatches) {
+            this.generation = generation;
+            this.numStocks = numStocks;
+            this.numBatches = numBatches;
+        }
+
+    }
+
+
+    private static final class Batch {
+
+        private final Cycle cycle;
+
+        /**
+         * The QuoteSource at the time that the cycle started, so that a
+         * cycle's batches are not split between two QuoteSources.
+         */
+        private final QuoteSource quoteSource;
+
+        private final ConcreteStockWithEhValsList stocks;
+
+        /**
+         * Null until the batch is sent.
+         */
+        private Request<ConcreteStockWithEhValsList> request;
+
+        /**
+         * The time that the batch was sent, from {@link
+         * SystemClock#elapsedRealtime()}.
+         */
+        private long sendTime;
+
+        /**
+         * True if the batch was cancelled. Volley may still deliver a
+         * cancelled request that was already being delivered, so the
+         * listeners check this.
+         */
+        private boolean cancelled = false;
+
+        private Batch(final Cycle cycle, final QuoteSource quoteSource,
+                      final ConcreteStockWithEhValsList stocks) {
+            this.cycle = cycle;
+            this.quoteSource = quoteSource;
+            this.stocks = stocks;
+        }
+
+    }
+
+
+    public interface RefreshCycleListener {
+
+        /**
+         * @param numStocks        The number of Stocks that were updated in the
+         *                         cycle
+         * @param numBatches       The number of batches that the Stocks were
+         *                         split into
+         * @param numFailedBatches The number of batches that completed with an
+         *                         error
+         * @param elapsedMillis    The time from the start of the cycle to the
+         *                         completion of its last batch
+         */
+        void onRefreshCycleCompleted(final int numStocks, final int numBatches,
+                                     final int numFailedBatches, final long elapsedMillis);
+
+    }
+
+}
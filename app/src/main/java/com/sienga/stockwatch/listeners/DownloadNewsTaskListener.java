@@ -1,7 +1,14 @@
 package com.sienga.stockwatch.listeners;
 
+import java.util.List;
+
+import com.sienga.stockwatch.Article;
+
+
 public interface DownloadNewsTaskListener {
 
-    void onDownloadNewsTaskCompleted(final int status);
+    void onStoredNewsLoaded(final List<Article> articles);
+
+    void onDownloadNewsTaskCompleted(final int status, final List<Article> articles);
 
 }
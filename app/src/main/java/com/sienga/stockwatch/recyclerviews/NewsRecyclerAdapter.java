@@ -2,13 +2,15 @@ package com.sienga.stockwatch.recyclerviews;
 
 import android.support.annotation.NonNull;
 import android.support.v7.widget.RecyclerView;
-import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.sienga.stockwatch.Article;
 import com.sienga.stockwatch.IndividualStockActivity;
@@ -81,7 +83,22 @@ public final class NewsRecyclerAdapter extends RecyclerView.Adapter<RecyclerView
     }
 
 
-    private final SparseArray<Article> articleSparseArray = new SparseArray<>();
+    /**
+     * The date headers and Articles, in the order they are shown. Articles are
+     * from newest to oldest, and each date header is followed by the Articles
+     * that were published on that date.
+     */
+    private final List<Row> rows = new ArrayList<>();
+
+    /**
+     * The URL of each Article in {@link #rows}, so that Articles that are
+     * downloaded again are not added again. The URLs themselves are kept,
+     * rather than their hash codes, so that an Article whose URL has the same
+     * hash code as a shown Article's is still recognized when it is
+     * downloaded again.
+     */
+    private final Set<String> urls = new HashSet<>();
+
     private final OnItemLongClickListener longClickListener;
     private final OnItemClickListener clickListener;
 
@@ -93,21 +110,14 @@ public final class NewsRecyclerAdapter extends RecyclerView.Adapter<RecyclerView
 
     /**
      * @param position The position of the item within the adapter's data set
-     * @return {@link ArticleViewHolder#TYPE_ID} if articleSparseArray has a
-     * mapping for this position. Otherwise, return {@link
-     * DateViewHolder#TYPE_ID}.
+     * @return {@link ArticleViewHolder#TYPE_ID} if the row at position is an
+     * Article. Otherwise, return {@link DateViewHolder#TYPE_ID}.
      */
     @Override
     public int getItemViewType(int position) {
-        int type;
-        if (articleSparseArray.get(position) != null) {
-            type = ArticleViewHolder.TYPE_ID;
-        } else {
-            // If there is no mapping for this index (position)
-            type = DateViewHolder.TYPE_ID;
-        }
-
-        return type;
+        return rows.get(position).article != null ?
+                ArticleViewHolder.TYPE_ID :
+                DateViewHolder.TYPE_ID;
     }
 
     /**
@@ -157,19 +167,11 @@ public final class NewsRecyclerAdapter extends RecyclerView.Adapter<RecyclerView
      */
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        final Row row = rows.get(position);
         if (holder.getItemViewType() == ArticleViewHolder.TYPE_ID) {
-            ((ArticleViewHolder) holder).bind(articleSparseArray.get(position),
-                    clickListener, longClickListener);
+            ((ArticleViewHolder) holder).bind(row.article, clickListener, longClickListener);
         } else {
-            /* articleSparseArray contains dates (no mapping), followed by the
-             * Articles (mapping) that were published on that date. Once a new
-             * date is found, that new date (no mapping) is "added" to the
-             * sparse array, followed by the articles published on that date.
-             * Dates in which no articles were published, are not "added".
-             * Therefore, if there is a date (no mapping) at index n, there must
-             * be a mapping at index n + 1, and the mapping at index n + 1 must
-             * have the date that the non-mapping (date) at index n represents. */
-            ((DateViewHolder) holder).bind(articleSparseArray.get(position + 1).getDate());
+            ((DateViewHolder) holder).bind(row.date);
         }
     }
 
@@ -180,20 +182,91 @@ public final class NewsRecyclerAdapter extends RecyclerView.Adapter<RecyclerView
      */
     @Override
     public int getItemCount() {
-        // Return the highest key (highest mapped index) + 1
-        // size() returns the number of mappings, skipping missing mappings
-        return articleSparseArray.keyAt(articleSparseArray.size() - 1) + 1;
+        return rows.size();
     }
 
     /**
-     * This method is used in {@link IndividualStockActivity} to pass {@link
-     * #articleSparseArray} to the {@link
-     * IndividualStockActivity.DownloadNewsTask}.
+     * Adds the Articles that are not already shown to the top of the list,
+     * and notifies the RecyclerView of only the rows that were inserted. If
+     * the oldest new Article was published on the same date as the newest
+     * shown Article, the new Articles of that date are inserted below its
+     * existing date header.
      *
-     * @return articleSparseArray
+     * @param articles Downloaded Articles, from newest to oldest. These must
+     *                 be newer than the Articles that are already shown.
+     * @return The number of Articles that were added
      */
-    public SparseArray<Article> getArticleSparseArray() {
-        return articleSparseArray;
+    public int addNewArticles(final List<Article> articles) {
+        final List<Row> newRows = new ArrayList<>();
+        int numAdded = 0;
+        String prevDate = null;
+        for (final Article article : articles) {
+            if (!urls.add(article.getUrl())) {
+                continue;
+            }
+
+            if (!article.getDate().equals(prevDate)) {
+                newRows.add(new Row(article.getDate(), null));
+                prevDate = article.getDate();
+            }
+            newRows.add(new Row(article.getDate(), article));
+            numAdded++;
+        }
+        if (numAdded == 0) {
+            return 0;
+        }
+
+        if (!rows.isEmpty() && rows.get(0).date.equals(prevDate)) {
+            // Reuse the existing date header of prevDate
+            int lastHeaderNdx = newRows.size() - 1;
+            while (newRows.get(lastHeaderNdx).article != null) {
+                lastHeaderNdx--;
+            }
+            final List<Row> sameDateRows = newRows.subList(lastHeaderNdx + 1, newRows.size());
+            rows.addAll(1, sameDateRows);
+            notifyItemRangeInserted(1, sameDateRows.size());
+
+            final List<Row> newDateRows = newRows.subList(0, lastHeaderNdx);
+            if (!newDateRows.isEmpty()) {
+                rows.addAll(0, newDateRows);
+                notifyItemRangeInserted(0, newDateRows.size());
+            }
+        } else {
+            rows.addAll(0, newRows);
+            notifyItemRangeInserted(0, newRows.size());
+        }
+
+        return numAdded;
+    }
+
+    /**
+     * @return A copy of the Articles, from newest to oldest
+     */
+    public List<Article> getArticles() {
+        final List<Article> articles = new ArrayList<>(urls.size());
+        for (final Row row : rows) {
+            if (row.article != null) {
+                articles.add(row.article);
+            }
+        }
+        return articles;
+    }
+
+
+    /**
+     * A row of the list: either an Article, or the date header of the
+     * Articles below it, in which case article is null.
+     */
+    private static final class Row {
+
+        private final String date;
+        private final Article article;
+
+        private Row(final String date, final Article article) {
+            this.date = date;
+            this.article = article;
+        }
+
     }
 
 
@@ -15,11 +15,24 @@ import java.util.Locale;
 import com.sienga.stockwatch.HomeActivity;
 import com.sienga.stockwatch.R;
 import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals.Field;
 import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
 
 
 public final class StockRecyclerAdapter extends RecyclerView.Adapter<StockRecyclerAdapter.StockViewHolder> {
 
+    /**
+     * The {@link ConcreteStockWithEhVals.Field}s that {@link
+     * ConcreteStockWithEhVals#getLivePrice()} depends on.
+     */
+    private static final int LIVE_PRICE_FIELDS = Field.PRICE | Field.EH_PRICE;
+
+    /**
+     * The {@link ConcreteStockWithEhVals.Field}s that {@link
+     * ConcreteStockWithEhVals#getNetChangePercent()} depends on.
+     */
+    private static final int NET_CHANGE_PERCENT_FIELDS =
+            Field.STATE | Field.CHANGE_PERCENT | Field.EH_CHANGE_PERCENT;
 
     /**
      * A {@link RecyclerView.ViewHolder} that will represent the information of
@@ -47,8 +60,33 @@ public final class StockRecyclerAdapter extends RecyclerView.Adapter<StockRecycl
         void bind(final ConcreteStockWithEhVals stock, final OnItemClickListener listener) {
             ticker.setText(stock.getTicker());
             name.setText(stock.getName());
+            bindPrice(stock);
+            bindChangePercent(stock);
+
+            itemView.setOnClickListener(l -> listener.onItemClick(stock));
+        }
+
+        /**
+         * Only updates the TextViews whose values depend on changedFields.
+         *
+         * @param stock         The Stock that this StockViewHolder represents
+         * @param changedFields The {@link ConcreteStockWithEhVals.Field}s of
+         *                      stock that have changed since the last bind
+         */
+        void bindChanges(final ConcreteStockWithEhVals stock, final int changedFields) {
+            if ((changedFields & LIVE_PRICE_FIELDS) != 0) {
+                bindPrice(stock);
+            }
+            if ((changedFields & NET_CHANGE_PERCENT_FIELDS) != 0) {
+                bindChangePercent(stock);
+            }
+        }
+
+        private void bindPrice(final ConcreteStockWithEhVals stock) {
             price.setText(String.format(Locale.US, "%.2f", stock.getLivePrice()));
+        }
 
+        private void bindChangePercent(final ConcreteStockWithEhVals stock) {
             if (stock.getNetChangePercent() < 0) {
                 // '-' is already part of the number
                 changePercent.setText(String.format(Locale.US,
@@ -59,8 +97,6 @@ public final class StockRecyclerAdapter extends RecyclerView.Adapter<StockRecycl
                         "+%.2f%%", stock.getNetChangePercent()));
                 changePercent.setTextColor(Color.GREEN);
             }
-
-            itemView.setOnClickListener(l -> listener.onItemClick(stock));
         }
 
     }
@@ -166,6 +202,37 @@ public final class StockRecyclerAdapter extends RecyclerView.Adapter<StockRecycl
         holder.bind(stocks.get(position), onItemClickListener);
     }
 
+    /**
+     * If payloads contains the changed {@link ConcreteStockWithEhVals.Field}s
+     * from {@link HomeActivity#onResponse(ConcreteStockWithEhValsList)}, only
+     * the TextViews that display those Fields are updated. Otherwise, the
+     * whole StockViewHolder is bound.
+     *
+     * @param holder   The StockViewHolder which should be updated to represent the
+     *                 contents of the item at the given position in the data set
+     * @param position The position of the item within the adapter's data set
+     * @param payloads The Integer bit masks of changed Fields, or an empty list
+     *                 if the whole item should be bound
+     */
+    @Override
+    public void onBindViewHolder(@NonNull final StockViewHolder holder, final int position,
+                                 @NonNull final List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        int changedFields = 0;
+        for (final Object payload : payloads) {
+            if (!(payload instanceof Integer)) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            changedFields |= (Integer) payload;
+        }
+        holder.bindChanges(stocks.get(position), changedFields);
+    }
+
     /**
      * Returns the total number of items in the data set held by the adapter.
      *
@@ -0,0 +1,40 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+
+import java.util.Set;
+
+
+/**
+ * Provides the chart prices and dates of AdvancedStocks. The one day chart is
+ * made from intraday prices, and the "big" charts are made from daily closing
+ * prices. Sources may get these from different places, so failures are
+ * reported separately for each.
+ *
+ * @see Sources
+ */
+public interface ChartSource {
+
+    /**
+     * Updates the prices and dates of every {@link ChartPeriod} of stock.
+     * ChartPeriods that could not be updated are added to missingChartPeriods.
+     * This method blocks, so it must be called from a worker thread.
+     *
+     * @param stock               The AdvancedStock to update
+     * @param missingChartPeriods The Set to add missing ChartPeriods to
+     * @return The {@link Status}
+     */
+    int downloadCharts(final AdvancedStock stock, final Set<ChartPeriod> missingChartPeriods);
+
+
+    interface Status {
+
+        int GOOD = 0;
+        int IO_EXCEPTION_FOR_INTRADAY_ONLY = 1;
+        int IO_EXCEPTION_FOR_HISTORICAL_ONLY = 2;
+        int IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL = 3;
+
+    }
+
+}
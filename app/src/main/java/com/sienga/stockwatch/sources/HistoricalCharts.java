@@ -0,0 +1,72 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.DaySeries;
+import com.sienga.stockwatch.stocks.PriceSeries;
+
+
+/**
+ * Builds the "big" charts (all ChartPeriods excluding {@link
+ * ChartPeriod#ONE_DAY}) from daily closing prices. This is shared by every
+ * {@link ChartSource}, so that the charts look the same regardless of where
+ * their prices come from.
+ */
+final class HistoricalCharts {
+
+    /**
+     * A container of the big ChartPeriods (all ChartPeriods excluding {@link
+     * ChartPeriod#ONE_DAY}). The big ChartPeriods are often treated similarly,
+     * and unlike ONE_DAY.
+     */
+    static final ChartPeriod[] BIG_CHART_PERIODS = {
+            ChartPeriod.FIVE_YEARS, ChartPeriod.ONE_YEAR,
+            ChartPeriod.THREE_MONTHS, ChartPeriod.ONE_MONTH,
+            ChartPeriod.TWO_WEEKS
+    };
+
+    /**
+     * The maximum number of daily prices that are used, which is the
+     * unadjusted number of data points for the five year chart.
+     */
+    static final int MAX_DAILY_PRICES = 1260;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private HistoricalCharts() {
+    }
+
+    /**
+     * Sets the daily prices that the charts of every big ChartPeriod of stock
+     * are views of (see {@link AdvancedStock#getPrices(ChartPeriod)}).
+     * <p>
+     * Every daily price of each period is kept. Charts used to keep only every
+     * 9th price of the five year chart, and every 2nd price of the one year
+     * chart, which dropped peaks and troughs. They are now reduced to the
+     * width of the chart when they are shown (see {@link
+     * com.sienga.stockwatch.ChartDownsampler}).
+     *
+     * @param stock     The AdvancedStock to update
+     * @param allPrices The daily closing prices, from oldest to newest. The
+     *                  length must not be greater than {@link
+     *                  #MAX_DAILY_PRICES}. This must not be modified after
+     *                  this is called.
+     * @param allEpochDays The day of each price in allPrices, as days since
+     *                     1970-01-01. This must not be modified after this is
+     *                     called.
+     * @return False if allPrices is empty, in which case stock is not updated
+     */
+    static boolean setBigCharts(final AdvancedStock stock,
+                                final double[] allPrices, final int[] allEpochDays) {
+        if (allPrices.length == 0) {
+            return false;
+        }
+
+        stock.setDailyPrices(PriceSeries.of(allPrices, 0, allPrices.length),
+                DaySeries.wrap(allEpochDays));
+        return true;
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.sienga.stockwatch.sources;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * An on-device store of the daily closing prices of each ticker, so that the
+ * historical prices of a Stock only need to be downloaded once. After that,
+ * only the days after the last stored day are downloaded.
+ * <p>
+ * Each ticker has its own append-only file of fixed size records, from oldest
+ * to newest. Each record is {@link #RECORD_BYTES} bytes: the day as an int
+ * (days since 1970-01-01, see {@link org.threeten.bp.LocalDate#toEpochDay()}),
+ * followed by the closing price as a double. Files are memory-mapped for
+ * reads, so reading the last five years of a ticker does not copy the file
+ * through a stream. A partial record at the end of a file, from a write that
+ * was interrupted, is ignored and overwritten by the next append.
+ * <p>
+ * Only days that have closed should be appended, because stored prices are
+ * never replaced. Past prices are adjusted after splits and dividends, so the
+ * last stored day is downloaded again with the new days. If its price has
+ * changed, the records of the ticker are cleared and downloaded again.
+ * <p>
+ * If {@link #init(Context)} has not been called, nothing is stored, and every
+ * read is empty.
+ */
+public final class HistoricalPriceStore {
+
+    /**
+     * The size of a record: a 4 byte day and an 8 byte price.
+     */
+    private static final int RECORD_BYTES = 12;
+
+    /**
+     * Files with more records than this are compacted to their last {@link
+     * HistoricalCharts#MAX_DAILY_PRICES} records when they are appended to.
+     * Older records are never read.
+     */
+    private static final int MAX_RECORDS = 2 * HistoricalCharts.MAX_DAILY_PRICES;
+
+    /**
+     * Null until {@link #init(Context)} is called.
+     */
+    private static volatile File dir;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private HistoricalPriceStore() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate().
+     *
+     * @param context The Context whose files directory to store prices in
+     */
+    public static void init(final Context context) {
+        dir = new File(context.getFilesDir(), "historical");
+    }
+
+    /**
+     * Reads the most recent records of ticker. This method reads a file, so it
+     * must be called from a worker thread.
+     *
+     * @param ticker     The ticker of the Stock
+     * @param maxRecords The maximum number of records to read
+     * @return The last maxRecords records of ticker, from oldest to newest.
+     * Empty if ticker has no stored records, or the file could not be read.
+     */
+    static synchronized Records read(final String ticker, final int maxRecords) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file == null || !file.exists()) {
+            return Records.EMPTY;
+        }
+
+        try (final FileInputStream in = new FileInputStream(file);
+             final FileChannel channel = in.getChannel()) {
+            final int numRecords = (int) (channel.size() / RECORD_BYTES);
+            final int numToRead = Math.min(numRecords, maxRecords);
+            if (numToRead == 0) {
+                return Records.EMPTY;
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    (long) (numRecords - numToRead) * RECORD_BYTES,
+                    (long) numToRead * RECORD_BYTES);
+            final Records records = new Records(numToRead);
+            for (int i = 0; i < numToRead; i++) {
+                records.epochDays[i] = buffer.getInt();
+                records.prices[i] = buffer.getDouble();
+            }
+            return records;
+        } catch (final IOException ioe) {
+            return Records.EMPTY;
+        }
+    }
+
+    /**
+     * Appends the records that are after the last stored day of ticker. This
+     * method writes a file, so it must be called from a worker thread. If the
+     * file can not be written, the records are not stored, and will be
+     * downloaded again next time.
+     *
+     * @param ticker    The ticker of the Stock
+     * @param epochDays The days of the records, in increasing order
+     * @param prices    The closing price of each day in epochDays
+     * @param count     The number of records in epochDays and prices to
+     *                  append
+     */
+    static synchronized void append(final String ticker, final int[] epochDays,
+                                    final double[] prices, final int count) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file == null || count == 0 || (!dir.exists() && !dir.mkdirs())) {
+            return;
+        }
+
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final int numRecords = (int) (raf.length() / RECORD_BYTES);
+            int lastEpochDay = Integer.MIN_VALUE;
+            if (numRecords > 0) {
+                raf.seek((long) (numRecords - 1) * RECORD_BYTES);
+                lastEpochDay = raf.readInt();
+            }
+
+            int first = 0;
+            while (first < count && epochDays[first] <= lastEpochDay) {
+                first++;
+            }
+            if (first == count) {
+                return;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((count - first) * RECORD_BYTES);
+            for (int i = first; i < count; i++) {
+                buffer.putInt(epochDays[i]);
+                buffer.putDouble(prices[i]);
+            }
+            // Overwrite a partial record, if there is one
+            raf.setLength((long) numRecords * RECORD_BYTES);
+            raf.seek(raf.length());
+            raf.write(buffer.array());
+
+            if (numRecords + count - first > MAX_RECORDS) {
+                compact(file);
+            }
+        } catch (final IOException ioe) {
+            // Not stored
+        }
+    }
+
+    /**
+     * Deletes the records of ticker. This is used when the stored records are
+     * too old to be continued by a download of the days after them, or when
+     * their prices have been adjusted.
+     *
+     * @param ticker The ticker of the Stock
+     */
+    static synchronized void clear(final String ticker) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file != null) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    /**
+     * Rewrites file with only its last {@link HistoricalCharts#MAX_DAILY_PRICES}
+     * records. The records are written to a temporary file first, so that the
+     * file is never left partially written.
+     */
+    private static void compact(final File file) throws IOException {
+        final ByteBuffer buffer;
+        try (final FileInputStream in = new FileInputStream(file);
+             final FileChannel channel = in.getChannel()) {
+            final long numBytes = (long) HistoricalCharts.MAX_DAILY_PRICES * RECORD_BYTES;
+            final long end = channel.size() / RECORD_BYTES * RECORD_BYTES;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, end - numBytes, numBytes);
+        }
+
+        final File tmp = new File(file.getPath() + ".tmp");
+        try (final FileOutputStream out = new FileOutputStream(tmp);
+             final FileChannel channel = out.getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+        }
+    }
+
+
+    /**
+     * Daily closing prices, from oldest to newest.
+     */
+    static final class Records {
+
+        private static final Records EMPTY = new Records(0);
+
+        final int[] epochDays;
+        final double[] prices;
+
+        private Records(final int size) {
+            epochDays = new int[size];
+            prices = new double[size];
+        }
+
+        int size() {
+            return epochDays.length;
+        }
+
+        /**
+         * @return The last day, or {@link Integer#MIN_VALUE} if there are no
+         * records
+         */
+        int getLastEpochDay() {
+            return epochDays.length == 0 ? Integer.MIN_VALUE : epochDays[epochDays.length - 1];
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.sienga.stockwatch.sources;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.sienga.stockwatch.ExtractionPlan;
+
+import org.jsoup.nodes.Element;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * An on-device store of the values of each ticker that never change: the
+ * codes that are needed for the URL of the WSJ historical prices (see {@link
+ * ScraperChartSource}), and the company name. The codes used to be read from
+ * the WSJ quote page of a Stock before every download of its historical
+ * prices. Now the quote page is only needed the first time, and the
+ * historical prices are downloaded straight away after that.
+ * <p>
+ * Metadata is stored in its own SharedPreferences file, with one String per
+ * ticker. Metadata that has been read is also kept in memory.
+ * <p>
+ * If {@link #init(Context)} has not been called, nothing is stored, and only
+ * the metadata in memory is found.
+ */
+public final class InstrumentMetadataStore {
+
+    private static final String PREFS_NAME = "instrument_metadata";
+
+    /**
+     * Separates the fields of the stored String of a ticker. Codes do not
+     * contain tabs, and tabs are removed from names.
+     */
+    private static final char SEPARATOR = '\t';
+
+    private static final Map<String, Metadata> tickerToMetadataMap = new ConcurrentHashMap<>();
+
+    /**
+     * Null until {@link #init(Context)} is called.
+     */
+    private static volatile SharedPreferences prefs;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private InstrumentMetadataStore() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate().
+     *
+     * @param context The Context whose SharedPreferences to store metadata in
+     */
+    public static void init(final Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * @param ticker The ticker of the Stock
+     * @return The metadata of ticker, or null if it has not been stored
+     */
+    static Metadata get(final String ticker) {
+        Metadata metadata = tickerToMetadataMap.get(ticker);
+        if (metadata == null && prefs != null) {
+            metadata = Metadata.decode(prefs.getString(ticker, null));
+            if (metadata != null) {
+                tickerToMetadataMap.put(ticker, metadata);
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Stores the metadata of ticker, if it is not already stored.
+     *
+     * @param ticker   The ticker of the Stock
+     * @param metadata The metadata of ticker
+     */
+    static void put(final String ticker, final Metadata metadata) {
+        if (tickerToMetadataMap.put(ticker, metadata) == null && prefs != null) {
+            prefs.edit().putString(ticker, metadata.encode()).apply();
+        }
+    }
+
+
+    /**
+     * The values of a ticker that never change.
+     */
+    static final class Metadata {
+
+        final String countryCode;
+        final String exchangeCode;
+        final String quoteType;
+        final String name;
+
+        private Metadata(final String countryCode, final String exchangeCode,
+                         final String quoteType, final String name) {
+            this.countryCode = countryCode;
+            this.exchangeCode = exchangeCode;
+            this.quoteType = quoteType;
+            this.name = name;
+        }
+
+        /**
+         * @param contentFrame The content frame of the WSJ quote page of a
+         *                     Stock ("html > body > div.pageFrame >
+         *                     div.contentFrame")
+         * @return The metadata on the page, or null if the page does not
+         * contain all of it
+         */
+        static Metadata fromQuotePage(final Element contentFrame) {
+            final Element nameElmnt = ExtractionPlan.of(
+                    "span.companyName").selectFirst(contentFrame);
+            final Element module2 = ExtractionPlan.of(
+                    ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]")
+                    .selectFirst(contentFrame);
+            if (nameElmnt == null || module2 == null) {
+                return null;
+            }
+
+            final Element countryCode = ExtractionPlan.of(
+                    ":root > input#quote_country_code").selectFirst(module2);
+            final Element exchangeCode = ExtractionPlan.of(
+                    ":root > input#quote_exchange_code").selectFirst(module2);
+            final Element quoteType = ExtractionPlan.of(
+                    ":root > input#quote_type").selectFirst(module2);
+            if (countryCode == null || exchangeCode == null || quoteType == null) {
+                return null;
+            }
+
+            return new Metadata(countryCode.ownText(), exchangeCode.ownText(),
+                    quoteType.ownText(), nameElmnt.ownText().replace(SEPARATOR, ' '));
+        }
+
+        private String encode() {
+            return countryCode + SEPARATOR + exchangeCode + SEPARATOR +
+                    quoteType + SEPARATOR + name;
+        }
+
+        /**
+         * @return The Metadata of s, or null if s is null or not the result
+         * of {@link #encode()}
+         */
+        private static Metadata decode(final String s) {
+            if (s == null) {
+                return null;
+            }
+            final String[] fields = s.split(String.valueOf(SEPARATOR), 4);
+            return fields.length == 4 ?
+                    new Metadata(fields[0], fields[1], fields[2], fields[3]) :
+                    null;
+        }
+
+    }
+
+}
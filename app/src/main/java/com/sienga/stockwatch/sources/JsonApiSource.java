@@ -0,0 +1,478 @@
+package com.sienga.stockwatch.sources;
+
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.sienga.stockwatch.Article;
+import com.sienga.stockwatch.MarketSessionCalendar;
+import com.sienga.stockwatch.Util;
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+import com.sienga.stockwatch.stocks.ConcreteStock;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.Stock;
+import com.sienga.stockwatch.stocks.StockInHomeActivity;
+import com.sienga.stockwatch.stocks.StockWithEhVals;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.LocalDate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.sienga.stockwatch.sources.HistoricalCharts.BIG_CHART_PERIODS;
+import static com.sienga.stockwatch.sources.HistoricalCharts.MAX_DAILY_PRICES;
+import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
+import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
+import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
+import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
+
+
+/**
+ * A QuoteSource, ChartSource, and NewsSource for a structured JSON API. Unlike
+ * the websites that the scraper sources parse, the API does not change its
+ * layout, and its batch quotes endpoint supports up to {@link
+ * #MAX_BATCH_SIZE} symbols per request instead of 10.
+ * <p>
+ * All endpoints are GET requests relative to the base URL:
+ * <ul>
+ * <li>{@code /v1/quotes?symbols=A,B,C} -> {@code {"quotes": [{"symbol",
+ * "name", "state", "price", "change", "changePercent", "ehPrice", "ehChange",
+ * "ehChangePercent"}]}}</li>
+ * <li>{@code /v1/quote?symbol=A} -> a single quote object, with the
+ * additional fields "open", "prevClose", "volume", "avgVolume", "dayLow",
+ * "dayHigh", "yearLow", "yearHigh", "marketCap", "peRatio", "eps", "yield",
+ * and "description". Missing values are omitted or null. Responds with 404 if
+ * the symbol does not exist.</li>
+ * <li>{@code /v1/chart?symbol=A} -> {@code {"intraday": [price, ...],
+ * "daily": [{"date", "close"}, ...]}}, with daily prices from oldest to
+ * newest. Daily dates are ISO dates, i.e. "2019-03-15".</li>
+ * <li>{@code /v1/news?symbol=A} -> {@code {"articles": [{"date", "title",
+ * "source", "url"}, ...]}}, from newest to oldest</li>
+ * </ul>
+ * "state" is the name of a {@link Stock.State}. "volume", "avgVolume",
+ * "marketCap", and the "date" of an article are display strings, and are
+ * shown as they are.
+ */
+public final class JsonApiSource implements QuoteSource, ChartSource, NewsSource {
+
+    /**
+     * The maximum number of symbols in a request to the quotes endpoint. This
+     * keeps the URL well under the length that servers accept.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private static final int TIMEOUT_MILLIS = 20000;
+
+    /**
+     * Used to find the date of the trades of the one day chart.
+     */
+    private static final MarketSessionCalendar CALENDAR = MarketSessionCalendar.newYorkCalendar();
+
+    private final String baseUrl;
+
+    /**
+     * @param baseUrl The URL that the endpoints are relative to, without a
+     *                trailing '/'. For example, "https://api.example.com".
+     */
+    public JsonApiSource(final String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public Request<ConcreteStockWithEhValsList> newBatchRequest(
+            final ConcreteStockWithEhValsList stocks,
+            final long generation,
+            final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+            final Response.ErrorListener errorListener) {
+        final StringBuilder symbols = new StringBuilder(stocks.size() * 6); // Approximate size
+        for (final Stock s : stocks) {
+            symbols.append(s.getTicker());
+            symbols.append(',');
+        }
+        symbols.deleteCharAt(symbols.length() - 1); // Delete extra comma
+
+        return new JsonBatchQuoteRequest(baseUrl + "/v1/quotes?symbols=" + encode(symbols.toString()),
+                stocks, generation, responseListener, errorListener);
+    }
+
+    @Override
+    public StockInHomeActivity findStock(final String ticker) throws IOException {
+        final JSONObject quote = get("/v1/quote?symbol=" + encode(ticker));
+        if (quote == null) {
+            return null;
+        }
+
+        final Stock.State state = parseState(quote.optString("state"));
+        if (state == null) {
+            throw new IOException("Unknown state for " + ticker);
+        }
+        final String name = quote.optString("name", ticker);
+        final double price = quote.optDouble("price", 0);
+        final double changePoint = quote.optDouble("change", 0);
+        final double changePercent = quote.optDouble("changePercent", 0);
+
+        if (state == AFTER_HOURS || state == PREMARKET) {
+            return new ConcreteStockWithEhVals(state, ticker, name,
+                    price, changePoint, changePercent,
+                    quote.optDouble("ehPrice", 0),
+                    quote.optDouble("ehChange", 0),
+                    quote.optDouble("ehChangePercent", 0));
+        } else {
+            return new ConcreteStock(state, ticker, name, price, changePoint, changePercent);
+        }
+    }
+
+    @Override
+    public int downloadStats(final AdvancedStock stock, final boolean includeStaticStats,
+                             final Set<Stat> missingStats) {
+        final JSONObject quote;
+        try {
+            quote = get("/v1/quote?symbol=" + encode(stock.getTicker()));
+        } catch (final IOException ioe) {
+            return StatsStatus.IO_EXCEPTION;
+        }
+        if (quote == null) {
+            // The Stock was delisted after it was added
+            if (includeStaticStats) {
+                missingStats.addAll(Arrays.asList(Stat.values()));
+            } else {
+                missingStats.addAll(EnumSet.complementOf(EnumSet.copyOf(AdvancedStock.STATIC_STATS)));
+            }
+            return StatsStatus.GOOD;
+        }
+
+        final Stock.State state = parseState(quote.optString("state"));
+        if (state != null) {
+            stock.setState(state);
+        }
+        stock.setPrice(quote.optDouble("price", 0));
+        stock.setChangePoint(quote.optDouble("change", 0));
+        stock.setChangePercent(quote.optDouble("changePercent", 0));
+        if (stock instanceof StockWithEhVals) {
+            final StockWithEhVals ehStock = (StockWithEhVals) stock;
+            ehStock.setExtraHoursPrice(quote.optDouble("ehPrice", 0));
+            ehStock.setExtraHoursChangePoint(quote.optDouble("ehChange", 0));
+            ehStock.setExtraHoursChangePercent(quote.optDouble("ehChangePercent", 0));
+        }
+
+        double d;
+        String s;
+
+        if (!Double.isNaN(d = optDouble(quote, "open"))) {
+            stock.setOpen(d);
+        } else {
+            missingStats.add(Stat.OPEN);
+        }
+        if ((s = optString(quote, "volume")) != null) {
+            stock.setVolume(s);
+        } else {
+            missingStats.add(Stat.VOLUME);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "dayLow"))) {
+            stock.setTodaysLow(d);
+        } else {
+            missingStats.add(Stat.TODAYS_LOW);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "dayHigh"))) {
+            stock.setTodaysHigh(d);
+        } else {
+            missingStats.add(Stat.TODAYS_HIGH);
+        }
+        if ((s = optString(quote, "marketCap")) != null) {
+            stock.setMarketCap(s);
+        } else {
+            missingStats.add(Stat.MARKET_CAP);
+        }
+
+        if (!includeStaticStats) {
+            return StatsStatus.GOOD;
+        }
+
+        if (!Double.isNaN(d = optDouble(quote, "prevClose"))) {
+            stock.setPrevClose(d);
+        } else {
+            missingStats.add(Stat.PREV_CLOSE);
+        }
+        if ((s = optString(quote, "avgVolume")) != null) {
+            stock.setAverageVolume(s);
+        } else {
+            missingStats.add(Stat.AVG_VOLUME);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "yearLow"))) {
+            stock.setFiftyTwoWeekLow(d);
+        } else {
+            missingStats.add(Stat.FIFTY_TWO_WEEK_LOW);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "yearHigh"))) {
+            stock.setFiftyTwoWeekHigh(d);
+        } else {
+            missingStats.add(Stat.FIFTY_TWO_WEEK_HIGH);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "peRatio"))) {
+            stock.setPeRatio(d);
+        } else {
+            missingStats.add(Stat.PE_RATIO);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "eps"))) {
+            stock.setEps(d);
+        } else {
+            missingStats.add(Stat.EPS);
+        }
+        if (!Double.isNaN(d = optDouble(quote, "yield"))) {
+            stock.setYield(d);
+        } else {
+            missingStats.add(Stat.YIELD);
+        }
+        if ((s = optString(quote, "description")) != null) {
+            stock.setDescription(s);
+        } else {
+            missingStats.add(Stat.DESCRIPTION);
+        }
+
+        return StatsStatus.GOOD;
+    }
+
+    /**
+     * The intraday and daily prices come from the same endpoint, so an
+     * IOException is always reported as {@link
+     * ChartSource.Status#IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL}.
+     */
+    @Override
+    public int downloadCharts(final AdvancedStock stock,
+                              final Set<ChartPeriod> missingChartPeriods) {
+        final JSONObject chart;
+        try {
+            chart = get("/v1/chart?symbol=" + encode(stock.getTicker()));
+        } catch (final IOException ioe) {
+            missingChartPeriods.add(ChartPeriod.ONE_DAY);
+            missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+            return ChartSource.Status.IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL;
+        }
+
+        final JSONArray intraday = chart == null ? null : chart.optJSONArray("intraday");
+        if (intraday != null && intraday.length() > 0) {
+            final double[] trades = new double[intraday.length()];
+            for (int i = 0; i < trades.length; i++) {
+                // Null prices are NaN, and are replaced by the previous price
+                trades[i] = intraday.optDouble(i, Double.NaN);
+            }
+            stock.getIntradaySeries().ingestTrades(
+                    CALENDAR.getSessionEpochDay(System.currentTimeMillis()), trades);
+        } else {
+            missingChartPeriods.add(ChartPeriod.ONE_DAY);
+        }
+
+        final JSONArray daily = chart == null ? null : chart.optJSONArray("daily");
+        if (daily != null) {
+            // Use the most recent prices if there are more than the charts use
+            final int numActualPts = Math.min(daily.length(), MAX_DAILY_PRICES);
+            final int firstNdx = daily.length() - numActualPts;
+            final double[] allPrices = new double[numActualPts];
+            final int[] allEpochDays = new int[numActualPts];
+            boolean validDates = true;
+            for (int i = 0; i < numActualPts; i++) {
+                final JSONObject day = daily.optJSONObject(firstNdx + i);
+                allPrices[i] = day == null ? 0 : day.optDouble("close", 0);
+                try {
+                    allEpochDays[i] = parseIsoDate(day == null ? "" : day.optString("date", ""));
+                } catch (final NumberFormatException nfe) {
+                    validDates = false;
+                    break;
+                }
+            }
+
+            if (!validDates || !HistoricalCharts.setBigCharts(stock, allPrices, allEpochDays)) {
+                missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+            }
+        } else {
+            missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+        }
+
+        return ChartSource.Status.GOOD;
+    }
+
+    @Override
+    public int downloadNews(final String ticker, final String newestKnownUrl,
+                            final List<Article> articles) {
+        final JSONObject news;
+        try {
+            news = get("/v1/news?symbol=" + encode(ticker));
+        } catch (final IOException ioe) {
+            return NewsSource.Status.IO_EXCEPTION;
+        }
+
+        final JSONArray articleArr = news == null ? null : news.optJSONArray("articles");
+        if (articleArr == null || articleArr.length() == 0) {
+            return NewsSource.Status.NO_NEWS_ARTICLES;
+        }
+
+        boolean hasArticle = false;
+        for (int i = 0; i < articleArr.length(); i++) {
+            final JSONObject article = articleArr.optJSONObject(i);
+            if (article == null) {
+                continue;
+            }
+            hasArticle = true;
+
+            final String url = article.optString("url", "");
+            if (url.equals(newestKnownUrl)) {
+                // This and every older article are already shown
+                break;
+            }
+            articles.add(new Article(article.optString("date", ""),
+                    article.optString("title", ""),
+                    article.optString("source", ""),
+                    url));
+        }
+
+        return hasArticle ? NewsSource.Status.GOOD : NewsSource.Status.NO_NEWS_ARTICLES;
+    }
+
+    /**
+     * @param stateName The name of a {@link Stock.State}
+     * @return The State with stateName, or null if stateName is not {@link
+     * Stock.State#PREMARKET}, {@link Stock.State#OPEN}, {@link
+     * Stock.State#AFTER_HOURS}, or {@link Stock.State#CLOSED}
+     */
+    static Stock.State parseState(final String stateName) {
+        if (stateName == null) {
+            return null;
+        }
+        switch (stateName) {
+            case "PREMARKET":
+                return PREMARKET;
+            case "OPEN":
+                return OPEN;
+            case "AFTER_HOURS":
+                return AFTER_HOURS;
+            case "CLOSED":
+                return CLOSED;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * This method blocks, so it must be called from a worker thread.
+     *
+     * @param pathAndQuery The path and query of the endpoint, starting with '/'
+     * @return The JSON object that the endpoint responds with, or null if the
+     * endpoint responds with 404
+     * @throws IOException If the endpoint could not be reached, responds with
+     *                     another error, or does not respond with a JSON
+     *                     object
+     */
+    private JSONObject get(final String pathAndQuery) throws IOException {
+        final HttpURLConnection connection =
+                (HttpURLConnection) new URL(baseUrl + pathAndQuery).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        connection.setRequestProperty("Accept", "application/json");
+        try {
+            final int statusCode = connection.getResponseCode();
+            if (statusCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            } else if (statusCode < 200 || statusCode >= 300) {
+                throw new IOException("HTTP " + statusCode + " fetching " + pathAndQuery);
+            }
+
+            try (final InputStream in = connection.getInputStream()) {
+                return new JSONObject(readUtf8(in));
+            } catch (final FileNotFoundException fnfe) {
+                return null;
+            } catch (final JSONException je) {
+                throw new IOException("Malformed response from " + pathAndQuery, je);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * @param in The stream to read until its end
+     * @return The contents of in, decoded as UTF-8
+     */
+    private static String readUtf8(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        final byte[] buffer = new byte[4096];
+        int numRead;
+        while ((numRead = in.read(buffer)) != -1) {
+            out.write(buffer, 0, numRead);
+        }
+        return out.toString("UTF-8");
+    }
+
+    /**
+     * @param value The value of a query parameter
+     * @return value, encoded for a URL query
+     */
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (final UnsupportedEncodingException uee) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(uee);
+        }
+    }
+
+    /**
+     * @param date An ISO date, i.e. "2019-03-15"
+     * @return The day of date, as days since 1970-01-01
+     * @throws NumberFormatException If date is not a valid date in the form
+     *                               YYYY-MM-DD
+     */
+    private static int parseIsoDate(final String date) {
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            throw new NumberFormatException("Invalid date: " + date);
+        }
+        final int year = (int) Util.Num.parseDouble(date, 0, 4);
+        final int month = (int) Util.Num.parseDouble(date, 5, 7);
+        final int day = (int) Util.Num.parseDouble(date, 8, 10);
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (final DateTimeException dte) {
+            throw new NumberFormatException("Invalid date: " + date);
+        }
+    }
+
+    /**
+     * @return The number with key, or NaN if obj does not have a number with
+     * key
+     */
+    private static double optDouble(final JSONObject obj, final String key) {
+        return obj.isNull(key) ? Double.NaN : obj.optDouble(key, Double.NaN);
+    }
+
+    /**
+     * @return The non-empty String with key, or null if obj does not have a
+     * non-empty String with key
+     */
+    private static String optString(final JSONObject obj, final String key) {
+        if (obj.isNull(key)) {
+            return null;
+        }
+        final String s = obj.optString(key, "");
+        return s.isEmpty() ? null : s;
+    }
+
+}
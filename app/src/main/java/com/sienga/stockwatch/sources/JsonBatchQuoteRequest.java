@@ -0,0 +1,159 @@
+package com.sienga.stockwatch.sources;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.Stock;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
+import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
+
+
+/**
+ * Updates a batch of Stocks from the quotes endpoint of a {@link
+ * JsonApiSource}. Modeled after {@link com.sienga.stockwatch.MultiStockRequest}.
+ */
+final class JsonBatchQuoteRequest extends Request<ConcreteStockWithEhValsList> {
+
+    /**
+     * Guards {@link #responseListener}, which is cleared on {@link #cancel()}
+     * and read on delivery.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private Response.Listener<ConcreteStockWithEhValsList> responseListener;
+
+    /**
+     * The Stocks to update. These are the same ConcreteStockWithEhVals that
+     * are in HomeActivity's list of Stocks.
+     */
+    private final ConcreteStockWithEhValsList stocks;
+
+    /**
+     * The generation of the refresh cycle that this request was created in.
+     */
+    private final long generation;
+
+    /**
+     * @param url              The URL of the quotes endpoint, including every
+     *                         symbol in stocks
+     * @param stocks           The stocks that should be updated
+     * @param generation       The generation of the refresh cycle
+     * @param responseListener Listener to receive the
+     *                         ConcreteStockWithEhValsList response
+     * @param errorListener    Error listener, or null to ignore errors
+     */
+    JsonBatchQuoteRequest(final String url, final ConcreteStockWithEhValsList stocks,
+                          final long generation,
+                          final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+                          final Response.ErrorListener errorListener) {
+        super(Method.GET, url, errorListener);
+        this.responseListener = responseListener;
+        this.stocks = new ConcreteStockWithEhValsList(stocks);
+        this.generation = generation;
+    }
+
+    /**
+     * Parses the quotes in the response, and updates the Stock in {@link
+     * #stocks} with the same symbol as each quote. Unlike the MarketWatch
+     * website, the quotes are not required to be in the same order as the
+     * requested symbols. Stocks without a quote, and quotes with an unknown
+     * state, are not updated. If this request has been cancelled, no Stocks
+     * are updated.
+     * <p>
+     * This method will be called from a worker thread.
+     *
+     * @param response Response from the network
+     * @return The parsed {@code Response<ConcreteStockWithEhValsList>}, or an
+     * error if the response is not valid JSON
+     */
+    @Override
+    protected Response<ConcreteStockWithEhValsList> parseNetworkResponse(final NetworkResponse response) {
+        if (isCanceled()) {
+            // Cancelled requests are not delivered
+            return Response.success(stocks, null);
+        }
+
+        final JSONArray quotes;
+        try {
+            final String json = new String(response.data,
+                    HttpHeaderParser.parseCharset(response.headers, "UTF-8"));
+            quotes = new JSONObject(json).getJSONArray("quotes");
+        } catch (final UnsupportedEncodingException | JSONException e) {
+            return Response.error(new ParseError(e));
+        }
+
+        final Map<String, ConcreteStockWithEhVals> symbolToStockMap = new HashMap<>();
+        for (final ConcreteStockWithEhVals s : stocks) {
+            symbolToStockMap.put(s.getTicker(), s);
+        }
+
+        for (int i = 0; i < quotes.length(); i++) {
+            final JSONObject quote = quotes.optJSONObject(i);
+            if (quote == null) {
+                continue;
+            }
+
+            final ConcreteStockWithEhVals stock = symbolToStockMap.get(quote.optString("symbol"));
+            final Stock.State state = JsonApiSource.parseState(quote.optString("state"));
+            if (stock == null || state == null) {
+                continue;
+            }
+
+            if (state == AFTER_HOURS || state == PREMARKET) {
+                stock.update(generation, state, quote.optDouble("price", 0),
+                        quote.optDouble("change", 0), quote.optDouble("changePercent", 0),
+                        quote.optDouble("ehPrice", 0), quote.optDouble("ehChange", 0),
+                        quote.optDouble("ehChangePercent", 0));
+            } else {
+                // Ensure that extra hours values are 0
+                stock.update(generation, state, quote.optDouble("price", 0),
+                        quote.optDouble("change", 0), quote.optDouble("changePercent", 0),
+                        0, 0, 0);
+            }
+        }
+
+        return Response.success(stocks, HttpHeaderParser.parseCacheHeaders(response));
+    }
+
+    /**
+     * Callback method to {@link #responseListener}.
+     *
+     * @param responseStocks The ConcreteStockWithEhValsList to pass to
+     *                       responseListener; same as {@link #stocks}
+     */
+    @Override
+    protected void deliverResponse(final ConcreteStockWithEhValsList responseStocks) {
+        final Response.Listener<ConcreteStockWithEhValsList> listener;
+        synchronized (lock) {
+            listener = this.responseListener;
+        }
+        if (listener != null) {
+            listener.onResponse(responseStocks);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        synchronized (lock) {
+            responseListener = null;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.Article;
+
+import java.util.List;
+
+
+/**
+ * Provides news articles about Stocks.
+ *
+ * @see Sources
+ */
+public interface NewsSource {
+
+    /**
+     * Adds the news articles about the Stock with ticker to articles, from
+     * newest to oldest. The articles that are already shown are not parsed
+     * again: the source stops at the article with newestKnownUrl. This method
+     * blocks, so it must be called from a worker thread.
+     *
+     * @param ticker         The ticker of the Stock, as it is shown in the app
+     * @param newestKnownUrl The URL of the newest article that is already
+     *                       shown, or null if no articles are shown
+     * @param articles       The List to add the new Articles to
+     * @return The {@link Status}. {@link Status#GOOD} if the source has at
+     * least one article, even if none of them are new.
+     */
+    int downloadNews(final String ticker, final String newestKnownUrl,
+                     final List<Article> articles);
+
+    interface Status {
+
+        int GOOD = 0;
+        int NO_NEWS_ARTICLES = 1;
+        int IO_EXCEPTION = 2;
+
+    }
+
+}
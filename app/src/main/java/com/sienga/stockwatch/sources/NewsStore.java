@@ -0,0 +1,238 @@
+package com.sienga.stockwatch.sources;
+
+import android.content.Context;
+
+import com.sienga.stockwatch.Article;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * An on-device store of the news Articles of each ticker, so that the news of
+ * a Stock that has been shown before is shown as soon as it is opened, while
+ * newer Articles are downloaded in the background.
+ * <p>
+ * Each ticker has its own file: {@link #VERSION} as an int, the number of
+ * Articles as an int, then the date, title, source, and URL of each Article,
+ * from newest to oldest, as modified UTF-8 Strings (see {@link
+ * DataOutputStream#writeUTF(String)}). The last modified time of a file is
+ * the last time that its Articles were checked for newer Articles. Files are
+ * written to a temporary file first, so that a file is never left partially
+ * written.
+ * <p>
+ * Files that have not been checked for {@link #MAX_AGE_MS} are deleted. If
+ * the size of all files exceeds {@link #MAX_TOTAL_BYTES}, the least recently
+ * checked files are deleted first.
+ * <p>
+ * If {@link #init(Context)} has not been called, nothing is stored, and every
+ * read is empty.
+ */
+public final class NewsStore {
+
+    /**
+     * Changed whenever the format of a file changes, so that old files are
+     * ignored.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The maximum number of Articles that are stored for each ticker. This is
+     * the number of Articles in the Finviz news table.
+     */
+    private static final int MAX_ARTICLES = 100;
+
+    private static final long MAX_AGE_MS = 7 * 24 * 3600000L;
+
+    /**
+     * The maximum size of all files. A file of {@link #MAX_ARTICLES} Articles
+     * is about 20 KB.
+     */
+    private static final long MAX_TOTAL_BYTES = 1024 * 1024;
+
+    /**
+     * Null until {@link #init(Context)} is called.
+     */
+    private static volatile File dir;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private NewsStore() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate().
+     *
+     * @param context The Context whose cache directory to store news in
+     */
+    public static void init(final Context context) {
+        dir = new File(context.getCacheDir(), "news");
+    }
+
+    /**
+     * Reads the stored Articles of ticker. This method reads a file, so it
+     * must be called from a worker thread.
+     *
+     * @param ticker The ticker of the Stock
+     * @return The stored Articles of ticker, or null if ticker has no stored
+     * Articles, they are older than {@link #MAX_AGE_MS}, or the file could
+     * not be read
+     */
+    public static synchronized Stored read(final String ticker) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        final long checkTime = file.lastModified();
+        if (System.currentTimeMillis() - checkTime > MAX_AGE_MS) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return null;
+        }
+
+        try (final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            final int count = in.readInt();
+            final List<Article> articles = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String date = in.readUTF();
+                final String title = in.readUTF();
+                final String source = in.readUTF();
+                final String url = in.readUTF();
+                articles.add(new Article(date, title, source, url));
+            }
+            return new Stored(Collections.unmodifiableList(articles), checkTime);
+        } catch (final IOException ioe) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the Articles of ticker, replacing its stored Articles. Only the
+     * newest {@link #MAX_ARTICLES} are stored. This method writes a file, so
+     * it must be called from a worker thread. If the file can not be written,
+     * the Articles are not stored.
+     *
+     * @param ticker   The ticker of the Stock
+     * @param articles Every Article of ticker, from newest to oldest
+     */
+    public static synchronized void write(final String ticker, final List<Article> articles) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file == null || (!dir.exists() && !dir.mkdirs())) {
+            return;
+        }
+
+        final File tmp = new File(file.getPath() + ".tmp");
+        final int count = Math.min(articles.size(), MAX_ARTICLES);
+        try (final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                final Article article = articles.get(i);
+                out.writeUTF(article.getDate());
+                out.writeUTF(article.getTitle());
+                out.writeUTF(article.getSource());
+                out.writeUTF(article.getUrl());
+            }
+        } catch (final IOException ioe) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+
+        evict();
+    }
+
+    /**
+     * Marks the stored Articles of ticker as checked, when a download found
+     * no newer Articles.
+     *
+     * @param ticker The ticker of the Stock
+     */
+    public static synchronized void touch(final String ticker) {
+        final File file = TickerFiles.getFile(dir, ticker);
+        if (file != null && file.exists()) {
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Deletes the files that are older than {@link #MAX_AGE_MS}, then the
+     * least recently checked files until the size of all files is at most
+     * {@link #MAX_TOTAL_BYTES}.
+     */
+    private static void evict() {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        // Sort from most to least recently checked
+        final long[] checkTimes = new long[files.length];
+        final Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            checkTimes[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(checkTimes[b], checkTimes[a]));
+
+        final long now = System.currentTimeMillis();
+        long totalBytes = 0;
+        for (final int i : order) {
+            final long length = files[i].length();
+            if (now - checkTimes[i] > MAX_AGE_MS || totalBytes + length > MAX_TOTAL_BYTES) {
+                //noinspection ResultOfMethodCallIgnored
+                files[i].delete();
+            } else {
+                totalBytes += length;
+            }
+        }
+    }
+
+
+    /**
+     * The stored Articles of a ticker, and the last time that they were
+     * checked for newer Articles.
+     */
+    public static final class Stored {
+
+        /**
+         * From newest to oldest. This can not be modified.
+         */
+        public final List<Article> articles;
+
+        /**
+         * The {@link System#currentTimeMillis()} of the last check.
+         */
+        public final long checkTime;
+
+        private Stored(final List<Article> articles, final long checkTime) {
+            this.articles = articles;
+            this.checkTime = checkTime;
+        }
+
+    }
+
+}
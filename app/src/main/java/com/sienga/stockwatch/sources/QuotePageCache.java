@@ -0,0 +1,103 @@
+package com.sienga.stockwatch.sources;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.sienga.stockwatch.FetchCoordinator;
+
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+
+
+/**
+ * A short-lived cache of the parsed WSJ quote page of each ticker
+ * (https://quotes.wsj.com/TICKER). The same page is read by {@link
+ * ScraperQuoteSource#findStock(String)} when a Stock is searched for, by
+ * {@link ScraperQuoteSource#downloadStats(com.sienga.stockwatch.stocks.AdvancedStock,
+ * boolean, java.util.Set)} every 15 seconds, and by {@link
+ * ScraperChartSource#downloadCharts(com.sienga.stockwatch.stocks.AdvancedStock,
+ * java.util.Set)} every minute. The WSJ page does not send freshness headers,
+ * so the HTTP cache revalidates it on every read.
+ * <p>
+ * Each reader passes the maximum age of a page that it accepts, so one
+ * download serves every reader within its freshness window. The charts only
+ * read codes from the page that never change, so they accept a much older
+ * page than the stats do. Downloads that overlap in time are coalesced by
+ * {@link FetchCoordinator}.
+ * <p>
+ * The Documents returned from this class are shared between threads, so
+ * callers must only read from them.
+ */
+final class QuotePageCache {
+
+    /**
+     * The maximum age of a page that is used for a Stock's price and stats.
+     * This is less than the interval of the stats downloads, so each one
+     * still gets a new page, but a page that was just downloaded to find a
+     * Stock is reused when the Stock is opened.
+     */
+    static final long QUOTE_MAX_AGE_MS = 10000;
+
+    /**
+     * The maximum age of a page that is only used for the codes that are
+     * needed for the URL of the historical prices.
+     */
+    static final long CODES_MAX_AGE_MS = 30 * 60000;
+
+    /**
+     * The maximum number of pages that are kept.
+     */
+    private static final int MAX_PAGES = 4;
+
+    private static final LruCache<String, Page> tickerToPageMap = new LruCache<>(MAX_PAGES);
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private QuotePageCache() {
+    }
+
+    /**
+     * Gets the WSJ quote page of ticker, downloading it if the cached page is
+     * older than maxAgeMillis. This method may block, so it must be called
+     * from a worker thread.
+     *
+     * @param ticker        The ticker of the Stock
+     * @param timeoutMillis The connect and read timeout
+     * @param maxAgeMillis  The maximum age of a cached page that can be used
+     * @return The parsed page
+     * @throws IOException If the page could not be downloaded
+     */
+    static Document get(final String ticker, final int timeoutMillis,
+                        final long maxAgeMillis) throws IOException {
+        final Page cached = tickerToPageMap.get(ticker);
+        if (cached != null && SystemClock.elapsedRealtime() - cached.downloadTime <= maxAgeMillis) {
+            return cached.doc;
+        }
+
+        final Document doc = FetchCoordinator.fetchDocument(
+                "https://quotes.wsj.com/" + ticker, timeoutMillis);
+        tickerToPageMap.put(ticker, new Page(doc, SystemClock.elapsedRealtime()));
+        return doc;
+    }
+
+
+    /**
+     * A parsed page, and the {@link SystemClock#elapsedRealtime()} at which it
+     * was downloaded.
+     */
+    private static final class Page {
+
+        private final Document doc;
+        private final long downloadTime;
+
+        private Page(final Document doc, final long downloadTime) {
+            this.doc = doc;
+            this.downloadTime = downloadTime;
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.sienga.stockwatch.sources;
+
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.StockInHomeActivity;
+
+import java.io.IOException;
+import java.util.Set;
+
+
+/**
+ * Provides quotes and statistics for Stocks. HomeActivity updates its list of
+ * Stocks with batch requests, and IndividualStockActivity updates a single
+ * AdvancedStock with {@link #downloadStats(AdvancedStock, boolean, Set)}.
+ *
+ * @see Sources
+ */
+public interface QuoteSource {
+
+    /**
+     * @return The maximum number of Stocks that can be passed to {@link
+     * #newBatchRequest(ConcreteStockWithEhValsList, long, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Creates a request that updates the State and prices of every Stock in
+     * stocks. The request is not sent until it is added to a RequestQueue.
+     *
+     * @param stocks           The Stocks to update. The size of stocks must not
+     *                         be greater than {@link #getMaxBatchSize()}.
+     * @param generation       The generation of the refresh cycle that the
+     *                         request is sent in. The request must update
+     *                         stocks with {@link
+     *                         com.sienga.stockwatch.stocks.ConcreteStockWithEhVals#update(long,
+     *                         com.sienga.stockwatch.stocks.Stock.State, double,
+     *                         double, double, double, double, double)}, so that
+     *                         values from an older generation do not replace
+     *                         newer values. If the request is cancelled before
+     *                         its response is parsed, stocks must not be
+     *                         updated.
+     * @param responseListener Listener to receive the updated Stocks
+     * @param errorListener    Error listener, or null to ignore errors
+     * @return The request to add to a RequestQueue
+     */
+    Request<ConcreteStockWithEhValsList> newBatchRequest(
+            final ConcreteStockWithEhValsList stocks,
+            final long generation,
+            final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+            final Response.ErrorListener errorListener);
+
+    /**
+     * This method blocks, so it must be called from a worker thread.
+     *
+     * @param ticker The ticker to search for
+     * @return The Stock with ticker, or null if the Stock does not exist
+     * @throws IOException If the source could not be reached
+     */
+    StockInHomeActivity findStock(final String ticker) throws IOException;
+
+    /**
+     * Updates the top values (price, change, and State) and {@link Stat}s of
+     * stock. Stats that the source does not have a value for are added to
+     * missingStats. This method blocks, so it must be called from a worker
+     * thread.
+     *
+     * @param stock              The AdvancedStock to update
+     * @param includeStaticStats Whether the Stats in {@link
+     *                           AdvancedStock#STATIC_STATS} are updated. If
+     *                           false, they are neither updated nor added to
+     *                           missingStats.
+     * @param missingStats       The Set to add missing Stats to
+     * @return The {@link StatsStatus}
+     */
+    int downloadStats(final AdvancedStock stock, final boolean includeStaticStats,
+                      final Set<Stat> missingStats);
+
+
+    interface StatsStatus {
+
+        int GOOD = 0;
+        int IO_EXCEPTION = 1;
+
+    }
+
+}
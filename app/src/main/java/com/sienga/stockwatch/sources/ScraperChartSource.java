@@ -0,0 +1,420 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.ExtractionPlan;
+import com.sienga.stockwatch.FetchCoordinator;
+import com.sienga.stockwatch.MarketSessionCalendar;
+import com.sienga.stockwatch.Util;
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.IntradaySeries;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.temporal.ChronoUnit;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.sienga.stockwatch.sources.HistoricalCharts.BIG_CHART_PERIODS;
+import static com.sienga.stockwatch.sources.HistoricalCharts.MAX_DAILY_PRICES;
+import static org.apache.commons.lang3.StringUtils.substringBetween;
+
+
+/**
+ * The ChartSource that parses websites. The one day chart is taken from the
+ * MarketWatch multiple-stock website, and all other "big" charts are taken
+ * from two WSJ websites.
+ */
+public final class ScraperChartSource implements ChartSource {
+
+    /**
+     * Selects the closing price cell (5th column) of a row in the WSJ
+     * historical prices table. Used once per row, for up to 1260 rows.
+     */
+    private static final ExtractionPlan CLOSE_PRICE_CELL = ExtractionPlan.of(":root > :eq(4)");
+
+    /**
+     * Selects the date cell (1st column) of a row in the WSJ historical
+     * prices table.
+     */
+    private static final ExtractionPlan DATE_CELL = ExtractionPlan.of(":root > :eq(0)");
+
+    /**
+     * Used to find the date of the trades of the one day chart.
+     */
+    private static final MarketSessionCalendar CALENDAR = MarketSessionCalendar.newYorkCalendar();
+
+    /**
+     * The zone of the dates in the WSJ historical prices table.
+     */
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * This method connects to three websites:
+     * <ul>
+     * <li>to the MarketWatch multiple-stock website
+     * <li>to stock's WSJ overview website
+     * <li>to stock's WSJ historical quotes AJAX website
+     * </ul>
+     * <p>
+     * If an {@link IOException} is thrown during any of the three
+     * connections, the returned {@link ChartSource.Status} can represent which
+     * websites failed to connect. MarketWatch is the intraday source, and WSJ
+     * is the historical source. Because of the co-dependence of the
+     * information taken from the two WSJ websites, these two connections are
+     * treated as pair by the returned Status. For example, if this method
+     * throws and IOException when connecting to the WSJ historical quotes AJAX
+     * website, regardless of the status of the connection to the WSJ overview
+     * website, the returned Status will represent that there was an
+     * IOException from WSJ, without specifying which WSJ website threw the
+     * IOException.
+     * <p>
+     * Daily prices that have been downloaded before are read from {@link
+     * HistoricalPriceStore}, and only the days after the last stored day are
+     * requested from the WSJ historical quotes AJAX website.
+     * <p>
+     * The loading of the one day chart and the loading of the big charts are
+     * treated separately. Meaning that the loading of the big charts is not
+     * effected by the status of the one day chart, and vice versa.
+     */
+    @Override
+    public int downloadCharts(final AdvancedStock stock,
+                              final Set<ChartPeriod> missingChartPeriods) {
+        int status = Status.GOOD;
+
+        Document multiDoc;
+        try {
+            multiDoc = FetchCoordinator.fetchDocument(
+                    "https://www.marketwatch.com/investing/multi?tickers=" + stock.getTicker(),
+                    20000);
+        } catch (final IOException ioe) {
+            multiDoc = null;
+            missingChartPeriods.add(ChartPeriod.ONE_DAY);
+            status = Status.IO_EXCEPTION_FOR_INTRADAY_ONLY;
+        }
+
+        if (multiDoc != null) {
+            final Element multiQuoteValueRoot = ExtractionPlan.of(
+                    "html > body > div#blanket > div[class*=multi] > div#maincontent > " +
+                            "div[class^=block multiquote] > div[class^=quotedisplay] > " +
+                            "div[class^=section activeQuote bgQuote]").selectFirst(multiDoc);
+            final Element javascriptElmnt = ExtractionPlan.of(
+                    ":root > div.intradaychart > script[type=text/javascript]")
+                    .selectFirst(multiQuoteValueRoot);
+
+            /* If there is no chart data, javascriptElmnt element still
+             * exists in the HTML and there is still some javascript code in
+             * javascriptElmnt.toString(). There is just no chart data
+             * embedded in the javascript. This means that the call to
+             * substringBetween() on javascriptElmnt.toString() will return
+             * null, because no substring between the open and close
+             * parameters (substringBetween() parameters) exists.
+             *
+             * The trades of the first session are the only array of numbers
+             * in the chart data, so they are taken from the javascript
+             * directly, instead of parsing all of the chart data as JSON. */
+            final String tradesStr = substringBetween(
+                    javascriptElmnt.toString(),
+                    "Trades\":[", "]");
+            if (tradesStr != null) {
+                final IntradaySeries series = stock.getIntradaySeries();
+                try {
+                    // Only the trades after the ones that were already ingested are parsed
+                    series.ingestTrades(CALENDAR.getSessionEpochDay(System.currentTimeMillis()),
+                            tradesStr);
+
+                    /* The values given on the Market Watch multi stock page can be slightly
+                     * off by minutes. For example, the Market Watch multi stock page may
+                     * correctly say that AAPL closed at $171.00, but the value used for the
+                     * Market Watch graph (where we're getting the 1 day graph data) may
+                     * show that the AAPL price at 4:00pm (time of close) is $171.21; for
+                     * this example, it is likely that around the time of 4:00pm, AAPL's
+                     * price moved toward $171.21 (or at least increased from its closing
+                     * price). The largest problem that this issue causes is that a user
+                     * could be scrubbing through the 1 day graph, and notice that the price
+                     * at 4:00pm is different from the closing price - this also causes the
+                     * change values at 4:00pm to be nonzero, which is incorrect. Fix this
+                     * issue by manually setting the price at 4:00pm to the price at close.
+                     * Recall that in the 1 day chart, the prices are taken every 5 minutes,
+                     * starting at 9:30am - the 4:00pm price is at index 78. */
+                    if (series.size() >= 79) {
+                        series.set(78, stock.getPrice());
+                    }
+                } catch (final NumberFormatException nfe) {
+                    missingChartPeriods.add(ChartPeriod.ONE_DAY);
+                }
+            } else {
+                missingChartPeriods.add(ChartPeriod.ONE_DAY);
+            }
+        }
+        // Done with one day chart. Code below is for the big charts
+
+
+        /* Certain values from the WSJ quote page are needed for the URL of the
+         * WSJ database of historical prices. They never change, so the quote
+         * page is only downloaded if they have not been stored. */
+        InstrumentMetadataStore.Metadata metadata =
+                InstrumentMetadataStore.get(stock.getTicker());
+        if (metadata == null) {
+            try {
+                final Document individualDoc = QuotePageCache.get(stock.getTicker(), 20000,
+                        QuotePageCache.CODES_MAX_AGE_MS);
+                metadata = InstrumentMetadataStore.Metadata.fromQuotePage(ExtractionPlan.of(
+                        ":root > body > div.pageFrame > div.contentFrame")
+                        .selectFirst(individualDoc));
+                if (metadata != null) {
+                    InstrumentMetadataStore.put(stock.getTicker(), metadata);
+                } else {
+                    missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+                }
+            } catch (final IOException ioe) {
+                missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+                status = status == Status.GOOD ?
+                        Status.IO_EXCEPTION_FOR_HISTORICAL_ONLY :
+                        Status.IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL;
+            }
+        }
+
+        if (metadata != null) {
+            // Get chart data for periods greater than one day from Wall Street Journal
+            final LocalDate today = LocalDate.now(ZONE);
+            /* Deduct extra two weeks because it doesn't hurt and ensures
+             * that the URL we create doesn't incorrectly believe that there
+             * isn't enough data for the five year chart. */
+            final LocalDate fiveYearsAgo = today.minusYears(5).minusWeeks(2);
+
+            /* Only download the last stored day and the days after it. If
+             * nothing is stored, or the stored days are too old to continue,
+             * download all five years. */
+            HistoricalPriceStore.Records stored =
+                    HistoricalPriceStore.read(stock.getTicker(), MAX_DAILY_PRICES);
+            LocalDate startDate = fiveYearsAgo;
+            if (stored.size() > 0) {
+                final LocalDate lastStoredDate = LocalDate.ofEpochDay(stored.getLastEpochDay());
+                if (lastStoredDate.isBefore(fiveYearsAgo)) {
+                    HistoricalPriceStore.clear(stock.getTicker());
+                    stored = HistoricalPriceStore.read(stock.getTicker(), MAX_DAILY_PRICES);
+                } else {
+                    startDate = lastStoredDate;
+                }
+            }
+
+            DailyPrices downloaded;
+            try {
+                downloaded = downloadDailyPrices(stock.getTicker(), metadata, startDate, today);
+                if (stored.size() > 0 && !isLastStoredCloseVerified(stored, downloaded)) {
+                    /* WSJ adjusts past closing prices for splits and
+                     * dividends, so every stored price may be wrong. If the
+                     * last stored day changed, or is missing, replace them
+                     * with all five years. */
+                    HistoricalPriceStore.clear(stock.getTicker());
+                    stored = HistoricalPriceStore.read(stock.getTicker(), MAX_DAILY_PRICES);
+                    downloaded = downloadDailyPrices(stock.getTicker(), metadata,
+                            fiveYearsAgo, today);
+                }
+            } catch (final IOException ioe) {
+                downloaded = null;
+                missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+                status = status == Status.GOOD ?
+                        Status.IO_EXCEPTION_FOR_HISTORICAL_ONLY :
+                        Status.IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL;
+            } catch (final NumberFormatException | DateTimeException e) {
+                // The WSJ table has changed, or a row is malformed
+                downloaded = null;
+                missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+            }
+
+            if (downloaded != null) {
+                final int numNewPts = downloaded.prices.length;
+                final double[] newPrices = downloaded.prices;
+                final int[] newEpochDays = downloaded.epochDays;
+
+                /* Store every day that has closed. Today's price can still
+                 * change, so it is downloaded again next time. */
+                final int todayEpochDay = (int) today.toEpochDay();
+                int numClosedPts = numNewPts;
+                while (numClosedPts > 0 && newEpochDays[numClosedPts - 1] >= todayEpochDay) {
+                    numClosedPts--;
+                }
+                HistoricalPriceStore.append(stock.getTicker(), newEpochDays, newPrices, numClosedPts);
+
+                // Join the stored days and the new days, and keep the most recent
+                int firstNewNdx = 0;
+                while (firstNewNdx < numNewPts && newEpochDays[firstNewNdx] <= stored.getLastEpochDay()) {
+                    firstNewNdx++;
+                }
+                final int numAllPts = stored.size() + numNewPts - firstNewNdx;
+                final int numActualPts = Math.min(numAllPts, MAX_DAILY_PRICES);
+                final double[] allPrices = new double[numActualPts];
+                final int[] allEpochDays = new int[numActualPts];
+                for (int i = 0; i < numActualPts; i++) {
+                    final int allNdx = numAllPts - numActualPts + i;
+                    if (allNdx < stored.size()) {
+                        allPrices[i] = stored.prices[allNdx];
+                        allEpochDays[i] = stored.epochDays[allNdx];
+                    } else {
+                        final int newNdx = firstNewNdx + allNdx - stored.size();
+                        allPrices[i] = newPrices[newNdx];
+                        allEpochDays[i] = newEpochDays[newNdx];
+                    }
+                }
+
+                if (!HistoricalCharts.setBigCharts(stock, allPrices, allEpochDays)) {
+                    missingChartPeriods.addAll(Arrays.asList(BIG_CHART_PERIODS));
+                }
+            }
+        }
+
+        return status;
+    }
+
+    /**
+     * Downloads the daily closing prices of ticker from the WSJ database of
+     * historical prices.
+     *
+     * @param ticker    The ticker of the Stock
+     * @param metadata  The stored values of ticker that the URL needs
+     * @param startDate The first day to download
+     * @param today     Today in New York
+     * @return The downloaded prices, from oldest to newest
+     * @throws IOException           If the page could not be downloaded
+     * @throws NumberFormatException If a price or date could not be parsed
+     * @throws DateTimeException     If a date is not a valid date
+     */
+    private static DailyPrices downloadDailyPrices(final String ticker,
+                                                   final InstrumentMetadataStore.Metadata metadata,
+                                                   final LocalDate startDate,
+                                                   final LocalDate today) throws IOException {
+        /* The number of days from startDate to today, including both. This
+         * is at least the number of rows, because there is at most one row a
+         * day. */
+        final int period = (int) ChronoUnit.DAYS.between(startDate, today) + 1;
+
+        // Pad zeros on the left if necessary
+        final String wsj_todayDateStr = String.format(Locale.US, "%d/%d/%d",
+                today.getMonthValue(), today.getDayOfMonth(), today.getYear());
+        final String wsj_startDateStr = String.format(Locale.US, "%d/%d/%d",
+                startDate.getMonthValue(), startDate.getDayOfMonth(), startDate.getYear());
+
+        /* If the WSJ URL parameters (ie. start date) request data from
+         * dates that are prior to a stock's existence, then the WSJ
+         * response delivers all historical data available for the
+         * stock. Because five years is the largest chart period we are
+         * using, data for the smaller periods can be grabbed from the
+         * five year WSJ response page. The actual number of data points
+         * that exists for a stock can be determined by parsing the WSJ
+         * response and counting the number of certain elements (ie.
+         * table rows). */
+        final String wsj_url = String.format(Locale.US,
+                "https://quotes.wsj.com/ajax/historicalprices/4/%s?MOD_VIEW=page" +
+                        "&ticker=%s&country=%s&exchange=%s&instrumentType=%s&num_rows=%d" +
+                        "&range_days=%d&startDate=%s&endDate=%s",
+                ticker, ticker, metadata.countryCode, metadata.exchangeCode, metadata.quoteType,
+                period, period, wsj_startDateStr, wsj_todayDateStr);
+
+        /* Historical prices only change once a day, and this URL changes
+         * when the date changes. Serve from the cache for at least 30
+         * minutes, regardless of its cache headers. */
+        final Document historicalDoc = FetchCoordinator.fetchDocument(wsj_url, 20000,
+                30 * 60 * 1000);
+
+        final Elements rowElmnts = ExtractionPlan.of(
+                ":root > body > div > div#historical_data_table > " +
+                        "div > table > tbody > tr").select(historicalDoc);
+        /* This is the number of new data points. This number is capped at
+         * 1260, which is the unadjusted number of data points for the 5 year
+         * chart. */
+        final int numNewPts = Math.min(rowElmnts.size(), MAX_DAILY_PRICES);
+
+        final DailyPrices downloaded = new DailyPrices(numNewPts);
+        /* The most recent prices are at the top of the WSJ page (top of the
+         * HTML table), and the oldest prices are at the bottom. Fill the
+         * prices starting with the last row so that the oldest prices are at
+         * the front and the recent prices are at the end. Do the same for
+         * the days. */
+        for (int i = 0, reverseNdx = numNewPts - 1; reverseNdx >= 0; i++, reverseNdx--) {
+            /* Charts use the closing price of each day. The closing price is the 5th
+             * column in each row. The date is the 1st column in each row. */
+            final Element row = rowElmnts.get(reverseNdx);
+            downloaded.prices[i] = Util.Num.parseDouble(getCellText(row, CLOSE_PRICE_CELL));
+            downloaded.epochDays[i] = parseWsjDate(getCellText(row, DATE_CELL));
+        }
+        return downloaded;
+    }
+
+    /**
+     * @return The text of the cell of row that cell selects
+     * @throws NumberFormatException If row does not have the cell
+     */
+    private static String getCellText(final Element row, final ExtractionPlan cell) {
+        final Element cellElmnt = cell.selectFirst(row);
+        if (cellElmnt == null) {
+            throw new NumberFormatException("Missing cell: " + cell);
+        }
+        return cellElmnt.ownText();
+    }
+
+    /**
+     * @param stored     The stored prices, which must not be empty
+     * @param downloaded Prices downloaded from the last stored day
+     * @return True if downloaded has the same closing price for the last
+     * stored day. False if it has a different price, which means that past
+     * prices were adjusted, or if it does not have the day, in which case
+     * the stored prices can not be verified.
+     */
+    private static boolean isLastStoredCloseVerified(final HistoricalPriceStore.Records stored,
+                                                     final DailyPrices downloaded) {
+        final int lastStoredEpochDay = stored.getLastEpochDay();
+        for (int i = 0; i < downloaded.epochDays.length; i++) {
+            if (downloaded.epochDays[i] == lastStoredEpochDay) {
+                return downloaded.prices[i] == stored.prices[stored.size() - 1];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param date A date in the WSJ historical prices table, i.e. "03/15/19"
+     * @return The day of date, as days since 1970-01-01
+     * @throws NumberFormatException If date is not in the form MM/DD/YY or
+     *                               MM/DD/YYYY
+     * @throws DateTimeException     If date is not a valid date
+     */
+    private static int parseWsjDate(final String date) {
+        final int firstSlash = date.indexOf('/');
+        final int secondSlash = date.indexOf('/', firstSlash + 1);
+        if (firstSlash == -1 || secondSlash == -1) {
+            throw new NumberFormatException("Invalid date: " + date);
+        }
+        final int month = (int) Util.Num.parseDouble(date, 0, firstSlash);
+        final int day = (int) Util.Num.parseDouble(date, firstSlash + 1, secondSlash);
+        int year = (int) Util.Num.parseDouble(date, secondSlash + 1, date.length());
+        if (year < 100) {
+            year += 2000;
+        }
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+
+    /**
+     * Daily closing prices downloaded from WSJ, from oldest to newest.
+     */
+    private static final class DailyPrices {
+
+        private final double[] prices;
+        private final int[] epochDays;
+
+        private DailyPrices(final int size) {
+            prices = new double[size];
+            epochDays = new int[size];
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.Article;
+import com.sienga.stockwatch.ExtractionPlan;
+import com.sienga.stockwatch.FetchCoordinator;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+
+
+/**
+ * The NewsSource that parses the news table of a Stock's page on Finviz.
+ */
+public final class ScraperNewsSource implements NewsSource {
+
+    /* Used once per row of the Finviz news table. */
+    private static final ExtractionPlan DATE_CELL = ExtractionPlan.of("td[style]");
+    private static final ExtractionPlan LINK = ExtractionPlan.of("a");
+    private static final ExtractionPlan SOURCE = ExtractionPlan.of("td > span");
+
+    /**
+     * Connects to the Finviz website for the Stock with ticker and parses the
+     * page for article information.
+     * <p>
+     * The Finviz website uses '-' in their stock tickers, not '.'. For example,
+     * BRK.A is BRK-A on Finviz.
+     * <p>
+     * Rows are parsed from the top of the news table (newest) until the row
+     * with newestKnownUrl, so a page with no new articles only costs the
+     * parse of its first row.
+     * <p>
+     * If an {@link IOException} is thrown while connecting to the Finviz
+     * website, this method returns {@link Status#IO_EXCEPTION}. If no articles
+     * are found, this returns {@link Status#NO_NEWS_ARTICLES}. If at least one
+     * article is found, this returns {@link Status#GOOD}.
+     */
+    @Override
+    public int downloadNews(final String ticker, final String newestKnownUrl,
+                            final List<Article> articles) {
+        final String finvizTicker = ticker.replace('.', '-');
+
+        int status = Status.GOOD;
+
+        final String base_url = "https://finviz.com/quote.ashx?t=";
+        final String url = base_url + finvizTicker;
+
+        Document doc;
+        try {
+            doc = FetchCoordinator.fetchDocument(url, 20000);
+        } catch (final IOException ioe) {
+            ioe.printStackTrace();
+            doc = null;
+            status = Status.IO_EXCEPTION;
+        }
+
+        if (doc != null) {
+            final Element tableBody = ExtractionPlan.of("table#news-table > tbody")
+                    .selectFirst(doc);
+
+            final Elements articleElmnts = tableBody.children();
+
+            /* The HTML table that lists these values only displays the date
+             * when it is has not been seen before. For example, if an
+             * article from "Aug-20" has not been seen, the row will have
+             * a td[style] element that could be "Aug-20-18 08:46pm. But if
+             * an article from "Aug-20" has already been seen, the row does
+             * not have a td[style] element. The date values have a lot of
+             * extra whitespace - trim it off. */
+            String curTitle, curSource, curDate, curUrl;
+            String prevDate = null;
+            if (articleElmnts.size() > 0) {
+                for (final Element articleElmnt : articleElmnts) {
+                    curUrl = LINK.selectFirst(articleElmnt).attr("href");
+                    if (curUrl.equals(newestKnownUrl)) {
+                        // This and every older article are already shown
+                        break;
+                    }
+
+                    final Element dateElmnt = DATE_CELL.selectFirst(articleElmnt);
+                    if (dateElmnt == null) {
+                        curDate = prevDate;
+                    } else {
+                        // Trim off the time; get the date only
+                        curDate = substringBefore(dateElmnt.ownText().trim(), " ");
+                        prevDate = curDate;
+                    }
+
+                    curTitle = LINK.selectFirst(articleElmnt).ownText();
+                    curSource = SOURCE.selectFirst(articleElmnt).ownText();
+
+                    articles.add(new Article(curDate, curTitle, curSource, curUrl));
+                }
+            } else {
+                status = Status.NO_NEWS_ARTICLES;
+            }
+        }
+
+        return status;
+    }
+
+}
@@ -0,0 +1,412 @@
+package com.sienga.stockwatch.sources;
+
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.sienga.stockwatch.ExtractionPlan;
+import com.sienga.stockwatch.MultiStockRequest;
+import com.sienga.stockwatch.Util;
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+import com.sienga.stockwatch.stocks.ConcreteAdvancedStock;
+import com.sienga.stockwatch.stocks.ConcreteAdvancedStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStock;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.Stock;
+import com.sienga.stockwatch.stocks.StockInHomeActivity;
+import com.sienga.stockwatch.stocks.StockWithEhVals;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static com.sienga.stockwatch.stocks.Stock.State.AFTER_HOURS;
+import static com.sienga.stockwatch.stocks.Stock.State.CLOSED;
+import static com.sienga.stockwatch.stocks.Stock.State.OPEN;
+import static com.sienga.stockwatch.stocks.Stock.State.PREMARKET;
+
+
+/**
+ * The QuoteSource that parses websites. Batches of Stocks are updated from the
+ * MarketWatch multiple-stock website with {@link MultiStockRequest}, and
+ * single Stocks are found and updated from their WSJ websites.
+ */
+public final class ScraperQuoteSource implements QuoteSource {
+
+    /**
+     * Up to 10 stocks are shown in the MarketWatch view multiple stocks
+     * website. The first 10 tickers listed in the URL are shown. Appending
+     * more than 10 tickers onto the URL has no effect on the website - the
+     * first 10 tickers will be shown.
+     */
+    private static final int MAX_BATCH_SIZE = 10;
+
+    /**
+     * URL form: &lt;base URL&gt;&lt;ticker 1&gt;,&lt;ticker 2&gt;,&lt;ticker
+     * n&gt;
+     */
+    private static final String BASE_URL_MULTI = "https://www.marketwatch.com/investing/multi?tickers=";
+
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public Request<ConcreteStockWithEhValsList> newBatchRequest(
+            final ConcreteStockWithEhValsList stocks,
+            final long generation,
+            final Response.Listener<ConcreteStockWithEhValsList> responseListener,
+            final Response.ErrorListener errorListener) {
+        final StringBuilder url = new StringBuilder(BASE_URL_MULTI.length() + 50); // Approximate size
+        url.append(BASE_URL_MULTI);
+        for (final Stock s : stocks) {
+            url.append(s.getTicker());
+            url.append(',');
+        }
+        url.deleteCharAt(url.length() - 1); // Delete extra comma
+
+        return new MultiStockRequest(url.toString(), stocks, generation,
+                responseListener, errorListener);
+    }
+
+    /**
+     * Connects to the WSJ website for the stock with ticker. This function then
+     * checks for a specific Element that only exists on the WSJ
+     * stock-not-found page. If the stock exists, the information needed to
+     * create a {@link Stock} is parsed from the page.
+     */
+    @Override
+    public StockInHomeActivity findStock(final String ticker) throws IOException {
+        final Document doc = QuotePageCache.get(ticker, 20000, QuotePageCache.QUOTE_MAX_AGE_MS);
+        final Element contentFrame = ExtractionPlan.of(
+                "html > body > div.pageFrame > div.contentFrame").selectFirst(doc);
+
+        // If the stock's page is found on WSJ, this element does not exist
+        final Element flagElmnt = ExtractionPlan.of(
+                "div[class$=notfound_header module]").selectFirst(contentFrame);
+
+        if (flagElmnt != null) {
+            return null;
+        }
+
+        InstrumentMetadataStore.Metadata metadata = InstrumentMetadataStore.get(ticker);
+        if (metadata == null) {
+            /* Store the metadata while the page is here, so that the charts
+             * of the Stock do not need to download it. */
+            metadata = InstrumentMetadataStore.Metadata.fromQuotePage(contentFrame);
+            if (metadata != null) {
+                InstrumentMetadataStore.put(ticker, metadata);
+            }
+        }
+        final String name = metadata != null ?
+                metadata.name :
+                ExtractionPlan.of("span.companyName").selectFirst(contentFrame).ownText();
+
+        final Element module2 = ExtractionPlan.of(
+                ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]")
+                .selectFirst(contentFrame);
+        final Element mainData = ExtractionPlan.of(
+                "ul[class$=info_main]").selectFirst(module2);
+
+        // Remove ',' or '%' that could be in strings
+        final double price = Util.Num.parseDouble(ExtractionPlan.of(
+                ":root > li[class$=quote] > span.curr_price > " +
+                        "span > span#quote_val")
+                        .selectFirst(mainData).ownText());
+        final Elements diffs = ExtractionPlan.of(
+                ":root > li[class$=diff] > span > span").select(mainData);
+        final double changePoint = Util.Num.parseSignedDouble(diffs.get(0).ownText());
+        final double changePercent = Util.Num.parseSignedDouble(diffs.get(1).ownText());
+
+        final Element subData = mainData.nextElementSibling();
+        boolean stockHasAhVals = subData.className().endsWith("info_sub");
+
+        final Stock.State state;
+        final String stateStr;
+        if (stockHasAhVals) {
+            final double ehPrice, ehChangePoint, ehChangePercent;
+            // Remove ',' or '%' that could be in strings
+            ehPrice = Util.Num.parseDouble(ExtractionPlan.of(
+                    "span#ms_quote_val")
+                    .selectFirst(subData).ownText());
+            final Elements ah_diffs = ExtractionPlan.of(
+                    "span[id] > span").select(subData);
+            ehChangePoint = Util.Num.parseSignedDouble(ah_diffs.get(0).ownText());
+            ehChangePercent = Util.Num.parseSignedDouble(ah_diffs.get(1).ownText());
+
+            stateStr = ExtractionPlan.of("span").selectFirst(subData).ownText();
+            state = stateStr.equals("AFTER HOURS") ? AFTER_HOURS : PREMARKET;
+
+            return new ConcreteStockWithEhVals(state, ticker, name,
+                    price, changePoint, changePercent,
+                    ehPrice, ehChangePoint, ehChangePercent);
+        } else {
+            stateStr = ExtractionPlan.of("span.timestamp_label").selectFirst(mainData).ownText();
+            state = stateStr.equals("REAL TIME") ? OPEN : CLOSED;
+
+            return new ConcreteStock(state, ticker, name,
+                    price, changePoint, changePercent);
+        }
+
+    }
+
+    /**
+     * Connects to the stock's WSJ website and parses it for values that are
+     * fields of {@link AdvancedStock}, excluding values related the
+     * AdvancedStock's chart data (historical prices and dates). The values
+     * updated in this method are represented by {@link Stat}, or are "top
+     * values". On the WSJ website, many values are irregular values, or
+     * "missing" values, which are added to missingStats.
+     * <p>
+     * Every Stat is on the same page, so the page is downloaded either way,
+     * but if includeStaticStats is false, the elements of the static Stats
+     * are not selected or parsed. Market cap is in the same table as the
+     * static fundamentals, but it changes with the price.
+     * <p>
+     * If an {@link IOException} is thrown while connecting to the WSJ website,
+     * this returns {@link StatsStatus#IO_EXCEPTION}. Otherwise, {@link
+     * StatsStatus#GOOD} is returned.
+     */
+    @Override
+    public int downloadStats(final AdvancedStock advancedStock, final boolean includeStaticStats,
+                             final Set<Stat> missingStats) {
+        // Replaced below if advancedStock is not the correct type
+        AdvancedStock stock = advancedStock;
+        int status = StatsStatus.GOOD;
+
+        Document individualDoc;
+        try {
+            individualDoc = QuotePageCache.get(stock.getTicker(), 8000,
+                    QuotePageCache.QUOTE_MAX_AGE_MS);
+        } catch (final IOException ioe) {
+            individualDoc = null;
+            status = StatsStatus.IO_EXCEPTION;
+        }
+
+        if (individualDoc != null) {
+            /* Get chart data for periods greater than one day from Wall Street
+             * Journal. Certain values from WSJ page are needed for the URL of
+             * the WSJ database of historical prices. */
+            final Element contentFrame = ExtractionPlan.of(
+                    ":root > body > div.pageFrame > div.contentFrame")
+                    .selectFirst(individualDoc);
+            final Element module2 = ExtractionPlan.of(
+                    ":root > section[class$=section_1] > div.zonedModule[data-module-id=2]")
+                    .selectFirst(contentFrame);
+
+
+            /* Get non-chart data. */
+            final Element mainData = ExtractionPlan.of(
+                    "ul[class$=info_main]").selectFirst(module2);
+            final double price, changePoint, changePercent, open, prevClose;
+            // Remove ',' or '%' that could be in strings
+            price = Util.Num.parseDouble(ExtractionPlan.of(
+                    ":root > li[class$=quote] > span.curr_price > " +
+                            "span > span#quote_val")
+                            .selectFirst(mainData).ownText());
+            final Elements diffs = ExtractionPlan.of(
+                    ":root > li[class$=diff] > span > span").select(mainData);
+            changePoint = Util.Num.parseSignedDouble(diffs.get(0).ownText());
+            changePercent = Util.Num.parseSignedDouble(diffs.get(1).ownText());
+            // Assume that price, change point, and change percent cannot be missing
+            stock.setPrice(price);
+            stock.setChangePoint(changePoint);
+            stock.setChangePercent(changePercent);
+
+            final Elements openAndPrevClose = ExtractionPlan.of(
+                    ":root > div > div[id=chart_divId] > div[class$=compare] > " +
+                            "div[class$=compare_data] > ul > li > span.data_data")
+                            .select(module2);
+            open = Util.Num.parseDouble(openAndPrevClose.get(0).ownText());
+            prevClose = Util.Num.parseDouble(openAndPrevClose.get(1).ownText());
+            /* If previous close isn't applicable (stock just had IPO),
+             * element exists and has value 0. Same applies for open. */
+            if (open == 0) {
+                missingStats.add(Stat.OPEN);
+            } else {
+                stock.setOpen(open);
+            }
+            if (includeStaticStats) {
+                if (prevClose == 0) {
+                    missingStats.add(Stat.PREV_CLOSE);
+                } else {
+                    stock.setPrevClose(prevClose);
+                }
+            }
+
+
+            final Element subData = mainData.nextElementSibling();
+            final boolean stockHasExtraVals = subData.className().endsWith("info_sub");
+
+            final Stock.State state;
+            final String stateStr;
+            if (stockHasExtraVals) {
+                // Ensure stock is the correct type
+                if (!(stock instanceof StockWithEhVals)) {
+                    stock = new ConcreteAdvancedStockWithEhVals(stock);
+                }
+
+                final double ehPrice, ehChangePoint, ehChangePercent;
+                // Remove ',' or '%' that could be in strings
+                ehPrice = Util.Num.parseDouble(ExtractionPlan.of(
+                        "span#ms_quote_val")
+                        .selectFirst(subData).ownText());
+                final Elements eh_diffs = ExtractionPlan.of(
+                        "span[id] > span").select(subData);
+                ehChangePoint = Util.Num.parseSignedDouble(eh_diffs.get(0).ownText());
+                ehChangePercent = Util.Num.parseSignedDouble(eh_diffs.get(1).ownText());
+                final StockWithEhVals ehStock = (StockWithEhVals) stock;
+                ehStock.setExtraHoursPrice(ehPrice);
+                ehStock.setExtraHoursChangePoint(ehChangePoint);
+                ehStock.setExtraHoursChangePercent(ehChangePercent);
+
+                stateStr = ExtractionPlan.of("span").selectFirst(subData).ownText();
+                state = stateStr.equals("AFTER HOURS") ? AFTER_HOURS : PREMARKET;
+            } else {
+                // Ensure stock is the correct type
+                if (stock instanceof StockWithEhVals) {
+                    stock = new ConcreteAdvancedStock(stock);
+                }
+
+                stateStr = ExtractionPlan.of("span.timestamp_label").selectFirst(mainData).ownText();
+                state = stateStr.equals("REAL TIME") ? OPEN : CLOSED;
+            }
+            stock.setState(state);
+
+
+            String strBuff;
+
+            /* Values in the table (keyData1) can be either a real value (i.e.
+             * "310,540 - 313,799"), or something else (i.e. empty string). It
+             * is difficult to find examples of irregular values in this table.
+             * All the values are numeric and positive, and some of the values
+             * could start with a decimal, so check if the first char in the
+             * value is a digit or '.'. */
+            final Elements keyData1 = ExtractionPlan.of(
+                    "ul[class$=charts_info] > li > div > span.data_data").select(module2);
+
+            final String volume;
+            strBuff = keyData1.get(0).ownText();
+            if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
+                volume = strBuff;
+                stock.setVolume(volume);
+            } else {
+                missingStats.add(Stat.VOLUME);
+            }
+
+            final double todaysLow, todaysHigh;
+            strBuff = keyData1.get(2).ownText();
+            if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
+                // " - " is between low and high values
+                final int separatorNdx = strBuff.indexOf(" - ");
+                todaysLow = Util.Num.parseDouble(strBuff, 0, separatorNdx);
+                todaysHigh = Util.Num.parseDouble(strBuff, separatorNdx + 3, strBuff.length());
+                stock.setTodaysLow(todaysLow);
+                stock.setTodaysHigh(todaysHigh);
+            } else {
+                missingStats.add(Stat.TODAYS_LOW);
+                missingStats.add(Stat.TODAYS_HIGH);
+            }
+
+            if (includeStaticStats) {
+                final String avgVolume;
+                strBuff = keyData1.get(1).ownText();
+                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
+                    avgVolume = strBuff;
+                    stock.setAverageVolume(avgVolume);
+                } else {
+                    missingStats.add(Stat.AVG_VOLUME);
+                }
+
+                final double fiftyTwoWeekLow, fiftyTwoWeekHigh;
+                strBuff = keyData1.get(3).ownText();
+                if (!strBuff.isEmpty() && Util.Char.isDigitOrDec(strBuff.charAt(0))) {
+                    // " - " is between low and high values
+                    final int separatorNdx = strBuff.indexOf(" - ");
+                    fiftyTwoWeekLow = Util.Num.parseDouble(strBuff, 0, separatorNdx);
+                    fiftyTwoWeekHigh = Util.Num.parseDouble(
+                            strBuff, separatorNdx + 3, strBuff.length());
+                    stock.setFiftyTwoWeekLow(fiftyTwoWeekLow);
+                    stock.setFiftyTwoWeekHigh(fiftyTwoWeekHigh);
+                } else {
+                    missingStats.add(Stat.FIFTY_TWO_WEEK_LOW);
+                    missingStats.add(Stat.FIFTY_TWO_WEEK_HIGH);
+                }
+            }
+
+            /* Values in the table (keyData2) can be either a real value (i.e.
+             * "366,452"), a missing value (i.e. "N/A"), or something else (i.e.
+             * "BRK.A has not issued dividends in more than 1 year"). All the
+             * values are numeric, and some values could be negative, or start
+             * with a decimal, so check if the first char in the value is a
+             * digit, '.', or '-'. */
+            final Element module6 = ExtractionPlan.of(
+                    ":root > section[class$=section_2] > div#contentCol > " +
+                            "div:eq(1) > div.zonedModule[data-module-id=6]")
+                            .selectFirst(contentFrame);
+            final Elements keyData2 = ExtractionPlan.of(
+                    "div > div[class$=keystock_drawer] > div > ul > li > div > span")
+                    .select(module6);
+
+            final String marketCap;
+            // Example market cap value: "1.4 T"
+            strBuff = keyData2.get(2).ownText();
+            if (Util.Char.isDigitOrDec(strBuff.charAt(0))) {
+                marketCap = strBuff;
+                stock.setMarketCap(marketCap);
+            } else {
+                missingStats.add(Stat.MARKET_CAP);
+            }
+
+            if (includeStaticStats) {
+                final double peRatio; // P/E ratio can be negative
+                strBuff = keyData2.get(0).ownText();
+                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
+                    peRatio = Util.Num.parseSignedDouble(strBuff);
+                    stock.setPeRatio(peRatio);
+                } else {
+                    missingStats.add(Stat.PE_RATIO);
+                }
+
+                final double eps; // EPS can be negative
+                strBuff = keyData2.get(1).ownText();
+                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
+                    eps = Util.Num.parseSignedDouble(strBuff);
+                    stock.setEps(eps);
+                } else {
+                    missingStats.add(Stat.EPS);
+                }
+
+                final double yield; // Yield can be negative
+                strBuff = keyData2.get(5).ownText();
+                if (Util.Char.isDigitOrDecOrMinus(strBuff.charAt(0))) {
+                    yield = Util.Num.parseSignedDouble(strBuff);
+                    stock.setYield(yield);
+                } else {
+                    missingStats.add(Stat.YIELD);
+                }
+
+                final String description;
+                final Element descriptionElmnt = ExtractionPlan.of(
+                        ":root > section[class$=section_2] > div#contentCol + div > " +
+                                "div:eq(1) > div.zonedModule[data-module-id=11] > div > " +
+                                "div[class$=data] > div[class$=description] > p.txtBody")
+                                .selectFirst(contentFrame);
+                // If there is no description, the description element (p.txtBody) doesn't exist
+                if (descriptionElmnt != null) {
+                    description = descriptionElmnt.ownText();
+                    stock.setDescription(description);
+                } else {
+                    missingStats.add(Stat.DESCRIPTION);
+                }
+            }
+        }
+
+        return status;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.sienga.stockwatch.sources;
+
+
+/**
+ * Holds the QuoteSource, ChartSource, and NewsSource that the app gets its
+ * data from. By default, every source parses websites (see {@link
+ * ScraperQuoteSource}, {@link ScraperChartSource}, and {@link
+ * ScraperNewsSource}).
+ * <p>
+ * Sources should only be changed before any of the Activities start, i.e.
+ * from StockWatch.onCreate(), because Stocks that were loaded from one source
+ * are not guaranteed to have the same tickers in another.
+ */
+public final class Sources {
+
+    private static volatile QuoteSource quoteSource = new ScraperQuoteSource();
+    private static volatile ChartSource chartSource = new ScraperChartSource();
+    private static volatile NewsSource newsSource = new ScraperNewsSource();
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private Sources() {
+    }
+
+    public static QuoteSource getQuoteSource() {
+        return quoteSource;
+    }
+
+    public static void setQuoteSource(final QuoteSource quoteSource) {
+        Sources.quoteSource = quoteSource;
+    }
+
+    public static ChartSource getChartSource() {
+        return chartSource;
+    }
+
+    public static void setChartSource(final ChartSource chartSource) {
+        Sources.chartSource = chartSource;
+    }
+
+    public static NewsSource getNewsSource() {
+        return newsSource;
+    }
+
+    public static void setNewsSource(final NewsSource newsSource) {
+        Sources.newsSource = newsSource;
+    }
+
+    /**
+     * Gets all data from a single {@link JsonApiSource}. Debug builds call
+     * this from BuildTypeSources to use a local stand-in for the API.
+     *
+     * @param baseUrl The base URL of the JSON API
+     */
+    public static void useJsonApi(final String baseUrl) {
+        final JsonApiSource source = new JsonApiSource(baseUrl);
+        quoteSource = source;
+        chartSource = source;
+        newsSource = source;
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.sienga.stockwatch.sources;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.sienga.stockwatch.stocks.AdvancedStock;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * An on-device store of the {@link AdvancedStock#STATIC_STATS} of each ticker.
+ * The static Stats change at most once a day, so they are only downloaded the
+ * first time a Stock is shown each day. After that, they are read from this
+ * store, and the stats that are downloaded every 15 seconds exclude them (see
+ * {@link QuoteSource#downloadStats(AdvancedStock, boolean, Set)}).
+ * <p>
+ * A stored record is only used on the day it was stored. A day starts when
+ * the premarket session starts (4:00am ET), because that is when the previous
+ * close changes.
+ * <p>
+ * Records are stored in their own SharedPreferences file, with one JSON String
+ * per ticker. If {@link #init(Context)} has not been called, nothing is
+ * stored, and nothing is found.
+ */
+public final class StaticStatsStore {
+
+    private static final String PREFS_NAME = "static_stats";
+
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * The hour in {@link #ZONE} that each day of records starts at.
+     */
+    private static final int DAY_START_HOUR = 4;
+
+    /**
+     * Null until {@link #init(Context)} is called.
+     */
+    private static volatile SharedPreferences prefs;
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private StaticStatsStore() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate().
+     *
+     * @param context The Context whose SharedPreferences to store Stats in
+     */
+    public static void init(final Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Sets the static Stats of stock to the values stored today. This method
+     * may read a file, so it must be called from a worker thread.
+     *
+     * @param stock        The AdvancedStock to update
+     * @param missingStats The Set to add the static Stats that were missing
+     *                     when they were stored to
+     * @return True if a record of stock was stored today, and stock was
+     * updated. Otherwise, false, and missingStats is not changed.
+     */
+    public static boolean load(final AdvancedStock stock, final Set<Stat> missingStats) {
+        if (prefs == null) {
+            return false;
+        }
+        final String s = prefs.getString(stock.getTicker(), null);
+        if (s == null) {
+            return false;
+        }
+
+        try {
+            final JSONObject record = new JSONObject(s);
+            if (record.getLong("day") != getDay(System.currentTimeMillis())) {
+                return false;
+            }
+
+            final JSONArray missing = record.getJSONArray("missing");
+            final Set<Stat> storedMissingStats = EnumSet.noneOf(Stat.class);
+            for (int i = 0; i < missing.length(); i++) {
+                // Throws IllegalArgumentException if a Stat was renamed
+                storedMissingStats.add(Stat.valueOf(missing.getString(i)));
+            }
+            for (final Stat stat : AdvancedStock.STATIC_STATS) {
+                if (!storedMissingStats.contains(stat)) {
+                    setStat(stock, stat, record);
+                }
+            }
+            missingStats.addAll(storedMissingStats);
+            return true;
+        } catch (final JSONException | IllegalArgumentException e) {
+            // The record is unreadable, so it is replaced by the next save
+            return false;
+        }
+    }
+
+    /**
+     * Stores the static Stats of stock as today's record of stock.
+     *
+     * @param stock        The AdvancedStock whose static Stats were just
+     *                     downloaded
+     * @param missingStats The Stats that were missing from the download
+     */
+    public static void save(final AdvancedStock stock, final Set<Stat> missingStats) {
+        if (prefs == null) {
+            return;
+        }
+
+        try {
+            final JSONObject record = new JSONObject();
+            record.put("day", getDay(System.currentTimeMillis()));
+            final JSONArray missing = new JSONArray();
+            for (final Stat stat : AdvancedStock.STATIC_STATS) {
+                if (missingStats.contains(stat)) {
+                    missing.put(stat.name());
+                } else {
+                    putStat(stock, stat, record);
+                }
+            }
+            record.put("missing", missing);
+            prefs.edit().putString(stock.getTicker(), record.toString()).apply();
+        } catch (final JSONException e) {
+            // Only thrown for NaN or infinite values, which are not stored
+        }
+    }
+
+    /**
+     * @param epochMillis The time to evaluate
+     * @return The day of records that epochMillis is in, as days since
+     * 1970-01-01
+     */
+    private static long getDay(final long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZONE)
+                .minusHours(DAY_START_HOUR).toLocalDate().toEpochDay();
+    }
+
+    private static void putStat(final AdvancedStock stock, final Stat stat,
+                                final JSONObject record) throws JSONException {
+        switch (stat) {
+            case PREV_CLOSE:
+                record.put(stat.name(), stock.getPrevClose());
+                break;
+            case AVG_VOLUME:
+                record.put(stat.name(), stock.getAverageVolume());
+                break;
+            case FIFTY_TWO_WEEK_LOW:
+                record.put(stat.name(), stock.getFiftyTwoWeekLow());
+                break;
+            case FIFTY_TWO_WEEK_HIGH:
+                record.put(stat.name(), stock.getFiftyTwoWeekHigh());
+                break;
+            case PE_RATIO:
+                record.put(stat.name(), stock.getPeRatio());
+                break;
+            case EPS:
+                record.put(stat.name(), stock.getEps());
+                break;
+            case YIELD:
+                record.put(stat.name(), stock.getYield());
+                break;
+            case DESCRIPTION:
+                record.put(stat.name(), stock.getDescription());
+                break;
+        }
+    }
+
+    private static void setStat(final AdvancedStock stock, final Stat stat,
+                                final JSONObject record) throws JSONException {
+        switch (stat) {
+            case PREV_CLOSE:
+                stock.setPrevClose(record.getDouble(stat.name()));
+                break;
+            case AVG_VOLUME:
+                stock.setAverageVolume(record.getString(stat.name()));
+                break;
+            case FIFTY_TWO_WEEK_LOW:
+                stock.setFiftyTwoWeekLow(record.getDouble(stat.name()));
+                break;
+            case FIFTY_TWO_WEEK_HIGH:
+                stock.setFiftyTwoWeekHigh(record.getDouble(stat.name()));
+                break;
+            case PE_RATIO:
+                stock.setPeRatio(record.getDouble(stat.name()));
+                break;
+            case EPS:
+                stock.setEps(record.getDouble(stat.name()));
+                break;
+            case YIELD:
+                stock.setYield(record.getDouble(stat.name()));
+                break;
+            case DESCRIPTION:
+                stock.setDescription(record.getString(stat.name()));
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.sienga.stockwatch.sources;
+
+import java.io.File;
+
+
+/**
+ * Names the files that stores keep per ticker, i.e. {@link NewsStore} and
+ * {@link HistoricalPriceStore}, so that every store maps tickers to file names
+ * the same way.
+ */
+final class TickerFiles {
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private TickerFiles() {
+    }
+
+    /**
+     * @param dir    The directory of the store, or null if the store has not
+     *               been initialized
+     * @param ticker The ticker of the file
+     * @return The file of ticker in dir, or null if dir is null
+     */
+    static File getFile(final File dir, final String ticker) {
+        if (dir == null) {
+            return null;
+        }
+
+        // Tickers only contain letters, digits, '.', and '-', but be safe
+        final StringBuilder name = new StringBuilder(ticker.length() + 4);
+        for (int i = 0; i < ticker.length(); i++) {
+            final char c = ticker.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' ? c : '_');
+        }
+        return new File(dir, name.append(".bin").toString());
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.sienga.stockwatch.stocks;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 
 import com.sienga.stockwatch.CustomSparkView;
@@ -31,6 +32,18 @@ public interface AdvancedStock extends Stock {
         MARKET_CAP, PE_RATIO, EPS, YIELD, DESCRIPTION
     }
 
+    /**
+     * The Stats that change at most once a day: the description,
+     * fundamentals, and values that are only updated after the close. These
+     * are downloaded once a day and stored on the device (see {@link
+     * com.sienga.stockwatch.sources.StaticStatsStore}), while the other Stats
+     * are downloaded every time the stats are updated.
+     */
+    Set<Stat> STATIC_STATS = Collections.unmodifiableSet(EnumSet.of(
+            Stat.PREV_CLOSE, Stat.AVG_VOLUME, Stat.FIFTY_TWO_WEEK_LOW,
+            Stat.FIFTY_TWO_WEEK_HIGH, Stat.PE_RATIO, Stat.EPS, Stat.YIELD,
+            Stat.DESCRIPTION));
+
     double getOpen();
 
     void setOpen(final double open);
@@ -83,52 +96,36 @@ public interface AdvancedStock extends Stock {
 
     void setDescription(final String description);
 
-    List<Double> getPrices(final ChartPeriod chartPeriod);
-
-    List<String> getDates(final ChartPeriod chartPeriod);
-
-    List<Double> getPrices_1day();
-
-    void setPrices_1day(final List<Double> prices);
-
-    List<Double> getPrices_2weeks();
-
-    void setPrices_2weeks(final List<Double> prices);
-
-    List<Double> getPrices_1month();
-
-    void setPrices_1month(final List<Double> prices);
-
-    List<Double> getPrices_3months();
-
-    void setPrices_3months(final List<Double> prices);
-
-    List<Double> getPrices_1year();
-
-    void setPrices_1year(final List<Double> prices);
+    PriceSeries getPrices(final ChartPeriod chartPeriod);
 
-    List<Double> getPrices_5years();
+    DaySeries getDates(final ChartPeriod chartPeriod);
 
-    void setPrices_5years(final List<Double> prices);
-
-    List<String> getDates_2weeks();
-
-    void setDates_2weeks(final List<String> dates);
-
-    List<String> getDates_1month();
-
-    void setDates_1month(final List<String> dates);
-
-    List<String> getDates_3months();
-
-    void setDates_3months(final List<String> dates);
+    /**
+     * @return A copy of the prices of {@link #getIntradaySeries()}
+     */
+    PriceSeries getPrices_1day();
 
-    List<String> getDates_1year();
+    IntradaySeries getIntradaySeries();
 
-    void setDates_1year(final List<String> dates);
+    /**
+     * @return The daily closing prices that the charts of the big ChartPeriods
+     * (all ChartPeriods excluding {@link ChartPeriod#ONE_DAY}) are views of,
+     * from oldest to newest
+     */
+    PriceSeries getDailyPrices();
 
-    List<String> getDates_5years();
+    /**
+     * @return The date of each price of {@link #getDailyPrices()}
+     */
+    DaySeries getDailyDates();
 
-    void setDates_5years(final List<String> dates);
+    /**
+     * Replaces the charts of the big ChartPeriods. prices and dates must not
+     * be modified after this is called.
+     *
+     * @param prices The daily closing prices, from oldest to newest
+     * @param dates  The date of each price in prices
+     */
+    void setDailyPrices(final PriceSeries prices, final DaySeries dates);
 
 }
@@ -1,7 +1,5 @@
 package com.sienga.stockwatch.stocks;
 
-import java.util.ArrayList;
-import java.util.List;
 
 import com.sienga.stockwatch.IndividualStockActivity;
 
@@ -21,28 +19,26 @@ public final class ConcreteAdvancedStock extends ConcreteStock implements Advanc
     private double eps;
     private double yield;
     private String description;
-    private List<Double> prices_1day;
-    private List<Double> prices_2weeks;
-    private List<Double> prices_1month;
-    private List<Double> prices_3months;
-    private List<Double> prices_1year;
-    private List<Double> prices_5years;
-    private List<String> dates_2weeks;
-    private List<String> dates_1month;
-    private List<String> dates_3months;
-    private List<String> dates_1year;
-    private List<String> dates_5years;
+    private final IntradaySeries intradaySeries;
+    private volatile DailyCharts dailyCharts = DailyCharts.EMPTY;
 
     public ConcreteAdvancedStock(final State state, final String ticker,
                                  final String name, final double price,
                                  final double changePoint, final double changePercent) {
         super(state, ticker, name, price, changePoint, changePercent);
+        intradaySeries = new IntradaySeries();
     }
 
     /**
      * Copy constructor. Used in {@link IndividualStockActivity} to convert
      * {@link IndividualStockActivity#stock} - which was a {@link
      * ConcreteAdvancedStockWithEhVals} - into a ConcreteAdvancedStock.
+     * <p>
+     * Also used to copy a cached AdvancedStock (see {@link
+     * com.sienga.stockwatch.StockDetailCache}). The copy has its own {@link
+     * IntradaySeries}, so that the tasks of the Activity that the cached
+     * AdvancedStock belongs to do not change the one day chart of the copy.
+     * The daily prices are shared, because they are never modified.
      *
      * @param stock The AdvancedStock to copy
      */
@@ -62,17 +58,8 @@ public final class ConcreteAdvancedStock extends ConcreteStock implements Advanc
         eps = stock.getEps();
         yield = stock.getYield();
         description = stock.getDescription();
-        prices_1day = stock.getPrices_1day();
-        prices_2weeks = stock.getPrices_2weeks();
-        prices_1month = stock.getPrices_1month();
-        prices_3months = stock.getPrices_3months();
-        prices_1year = stock.getPrices_1year();
-        prices_5years = stock.getPrices_5years();
-        dates_2weeks = stock.getDates_2weeks();
-        dates_1month = stock.getDates_1month();
-        dates_3months = stock.getDates_3months();
-        dates_1year = stock.getDates_1year();
-        dates_5years = stock.getDates_5years();
+        intradaySeries = new IntradaySeries(stock.getIntradaySeries());
+        dailyCharts = new DailyCharts(stock.getDailyPrices(), stock.getDailyDates());
     }
 
     @Override
@@ -206,172 +193,44 @@ public final class ConcreteAdvancedStock extends ConcreteStock implements Advanc
     }
 
     @Override
-    public List<Double> getPrices(final ChartPeriod chartPeriod) {
-        final List<Double> ret;
-
-        switch (chartPeriod) {
-            case ONE_DAY:
-                ret = prices_1day;
-                break;
-            case TWO_WEEKS:
-                ret = prices_2weeks;
-                break;
-            case ONE_MONTH:
-                ret = prices_1month;
-                break;
-            case THREE_MONTHS:
-                ret = prices_3months;
-                break;
-            case ONE_YEAR:
-                ret = prices_1year;
-                break;
-            case FIVE_YEARS:
-                ret = prices_5years;
-                break;
-            default:
-                ret = new ArrayList<>();
-                break;
-        }
-
-        return ret;
-    }
-
-    @Override
-    public List<String> getDates(final ChartPeriod chartPeriod) {
-        final List<String> ret;
-
-        switch (chartPeriod) {
-            case TWO_WEEKS:
-                ret = dates_2weeks;
-                break;
-            case ONE_MONTH:
-                ret = dates_1month;
-                break;
-            case THREE_MONTHS:
-                ret = dates_3months;
-                break;
-            case ONE_YEAR:
-                ret = dates_1year;
-                break;
-            case FIVE_YEARS:
-                ret = dates_5years;
-                break;
-            default:
-                ret = new ArrayList<>();
-                break;
-        }
-
-        return ret;
-    }
-
-    @Override
-    public List<Double> getPrices_1day() {
-        return prices_1day;
-    }
-
-    @Override
-    public void setPrices_1day(final List<Double> prices) {
-        prices_1day = prices;
-    }
-
-    @Override
-    public List<Double> getPrices_2weeks() {
-        return prices_2weeks;
-    }
-
-    @Override
-    public void setPrices_2weeks(final List<Double> prices) {
-        prices_2weeks = prices;
-    }
-
-    @Override
-    public List<Double> getPrices_1month() {
-        return prices_1month;
-    }
-
-    @Override
-    public void setPrices_1month(final List<Double> prices) {
-        prices_1month = prices;
-    }
-
-    @Override
-    public List<Double> getPrices_3months() {
-        return prices_3months;
-    }
-
-    @Override
-    public void setPrices_3months(final List<Double> prices) {
-        prices_3months = prices;
-    }
-
-    @Override
-    public List<Double> getPrices_1year() {
-        return prices_1year;
-    }
-
-    @Override
-    public void setPrices_1year(final List<Double> prices) {
-        prices_1year = prices;
-    }
-
-    @Override
-    public List<Double> getPrices_5years() {
-        return prices_5years;
-    }
-
-    @Override
-    public void setPrices_5years(final List<Double> prices) {
-        prices_5years = prices;
-    }
-
-    @Override
-    public List<String> getDates_2weeks() {
-        return dates_2weeks;
-    }
-
-    @Override
-    public void setDates_2weeks(final List<String> dates) {
-        dates_2weeks = dates;
-    }
-
-    @Override
-    public List<String> getDates_1month() {
-        return dates_1month;
-    }
-
-    @Override
-    public void setDates_1month(final List<String> dates) {
-        dates_1month = dates;
+    public PriceSeries getPrices(final ChartPeriod chartPeriod) {
+        return chartPeriod == ChartPeriod.ONE_DAY ?
+                intradaySeries.getPrices() :
+                dailyCharts.getPrices(chartPeriod);
     }
 
+    /**
+     * @return Empty for {@link ChartPeriod#ONE_DAY}, because the one day chart
+     * does not have dates
+     */
     @Override
-    public List<String> getDates_3months() {
-        return dates_3months;
+    public DaySeries getDates(final ChartPeriod chartPeriod) {
+        return dailyCharts.getDates(chartPeriod);
     }
 
     @Override
-    public void setDates_3months(final List<String> dates) {
-        dates_3months = dates;
+    public PriceSeries getPrices_1day() {
+        return intradaySeries.getPrices();
     }
 
     @Override
-    public List<String> getDates_1year() {
-        return dates_1year;
+    public IntradaySeries getIntradaySeries() {
+        return intradaySeries;
     }
 
     @Override
-    public void setDates_1year(final List<String> dates) {
-        dates_1year = dates;
+    public PriceSeries getDailyPrices() {
+        return dailyCharts.getPrices();
     }
 
     @Override
-    public List<String> getDates_5years() {
-        return dates_5years;
+    public DaySeries getDailyDates() {
+        return dailyCharts.getDates();
     }
 
     @Override
-    public void setDates_5years(final List<String> dates) {
-        dates_5years = dates;
+    public void setDailyPrices(final PriceSeries prices, final DaySeries dates) {
+        dailyCharts = new DailyCharts(prices, dates);
     }
 
 }
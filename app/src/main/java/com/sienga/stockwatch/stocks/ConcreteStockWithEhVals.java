@@ -31,6 +31,19 @@ public class ConcreteStockWithEhVals
      */
     private double ehChangePercent;
 
+    /**
+     * The {@link Field}s that have changed in calls to {@link #update(long,
+     * State, double, double, double, double, double, double)} since the last call to
+     * {@link #takeChangedFields()}.
+     */
+    private int changedFields = 0;
+
+    /**
+     * The generation of the last batch request that updated this
+     * ConcreteStockWithEhVals.
+     */
+    private long dataGeneration = Long.MIN_VALUE;
+
     public ConcreteStockWithEhVals(final State state, final String ticker,
                                    final String name, final double price,
                                    final double changePoint,
@@ -67,6 +80,79 @@ public class ConcreteStockWithEhVals
         }
     }
 
+    /**
+     * Sets the State and values of this ConcreteStockWithEhVals, and records
+     * which of them changed. The extra hours values should be 0 if state is
+     * not {@link State#PREMARKET} or {@link State#AFTER_HOURS}.
+     * <p>
+     * Batch requests update Stocks with this method, so that HomeActivity can
+     * skip rebinding rows whose values did not change. Batch requests parse
+     * their responses on worker threads, and responses can arrive out of
+     * order, so values from a generation that is older than the values that
+     * have already been set are dropped.
+     *
+     * @param generation The generation of the refresh cycle that the values
+     *                   were requested in
+     * @return The {@link Field}s that changed in this call. 0 if generation is
+     * older than the last generation that was set.
+     */
+    public final synchronized int update(final long generation,
+                                         final State state, final double price,
+                                         final double changePoint, final double changePercent,
+                                         final double extraHoursPrice,
+                                         final double extraHoursChangePoint,
+                                         final double extraHoursChangePercent) {
+        if (generation < dataGeneration) {
+            return 0;
+        }
+        dataGeneration = generation;
+
+        int changed = 0;
+        if (state != getState()) {
+            changed |= Field.STATE;
+            setState(state);
+        }
+        if (Double.compare(price, getPrice()) != 0) {
+            changed |= Field.PRICE;
+            setPrice(price);
+        }
+        if (Double.compare(changePoint, getChangePoint()) != 0) {
+            changed |= Field.CHANGE_POINT;
+            setChangePoint(changePoint);
+        }
+        if (Double.compare(changePercent, getChangePercent()) != 0) {
+            changed |= Field.CHANGE_PERCENT;
+            setChangePercent(changePercent);
+        }
+        if (Double.compare(extraHoursPrice, ehPrice) != 0) {
+            changed |= Field.EH_PRICE;
+            ehPrice = extraHoursPrice;
+        }
+        if (Double.compare(extraHoursChangePoint, ehChangePoint) != 0) {
+            changed |= Field.EH_CHANGE_POINT;
+            ehChangePoint = extraHoursChangePoint;
+        }
+        if (Double.compare(extraHoursChangePercent, ehChangePercent) != 0) {
+            changed |= Field.EH_CHANGE_PERCENT;
+            ehChangePercent = extraHoursChangePercent;
+        }
+        changedFields |= changed;
+        return changed;
+    }
+
+    /**
+     * Returns and clears the {@link Field}s that have changed in calls to
+     * {@link #update(long, State, double, double, double, double, double, double)}.
+     * Values that are changed through setter methods are not recorded.
+     *
+     * @return The Fields that have changed since the last call to this method
+     */
+    public final synchronized int takeChangedFields() {
+        final int changed = changedFields;
+        changedFields = 0;
+        return changed;
+    }
+
     /**
      * Because this is the only non-AdvancedStock used in HomeActivity, this
      * class must be able to represent stocks that should have extra hours
@@ -188,4 +274,22 @@ public class ConcreteStockWithEhVals
         ehChangePercent = extraHoursChangePercent;
     }
 
+
+    /**
+     * Bit flags for the values of a ConcreteStockWithEhVals.
+     *
+     * @see #update(long, State, double, double, double, double, double, double)
+     */
+    public interface Field {
+
+        int STATE = 1;
+        int PRICE = 1 << 1;
+        int CHANGE_POINT = 1 << 2;
+        int CHANGE_PERCENT = 1 << 3;
+        int EH_PRICE = 1 << 4;
+        int EH_CHANGE_POINT = 1 << 5;
+        int EH_CHANGE_PERCENT = 1 << 6;
+
+    }
+
 }
@@ -0,0 +1,125 @@
+package com.sienga.stockwatch.stocks;
+
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * The charts of the "big" ChartPeriods (all ChartPeriods excluding {@link
+ * ChartPeriod#ONE_DAY}) of an {@link AdvancedStock}. Every big chart is a
+ * range of the same daily prices, so only one master series of prices and
+ * dates is stored. The chart of a ChartPeriod is a view of the end of the
+ * master series, which is made the first time that the ChartPeriod is shown.
+ * <p>
+ * If a Stock isn't old enough to contain all the data for a ChartPeriod's
+ * chart, then that ChartPeriod's chart is padded at the front with the first
+ * price and the day {@link DaySeries#BEFORE_IPO}. The padding is not stored.
+ * <p>
+ * The master series is never modified. New daily prices replace the whole
+ * DailyCharts of a Stock.
+ */
+final class DailyCharts {
+
+    static final DailyCharts EMPTY = new DailyCharts(new PriceSeries(), DaySeries.EMPTY);
+
+    private final PriceSeries prices;
+    private final DaySeries dates;
+
+    /**
+     * Guarded by this.
+     */
+    private final Map<ChartPeriod, PriceSeries> periodToPricesMap = new EnumMap<>(ChartPeriod.class);
+
+    /**
+     * Guarded by this.
+     */
+    private final Map<ChartPeriod, DaySeries> periodToDatesMap = new EnumMap<>(ChartPeriod.class);
+
+    /**
+     * @param prices The daily closing prices, from oldest to newest
+     * @param dates  The date of each price in prices
+     */
+    DailyCharts(final PriceSeries prices, final DaySeries dates) {
+        this.prices = prices;
+        this.dates = dates;
+    }
+
+    PriceSeries getPrices() {
+        return prices;
+    }
+
+    DaySeries getDates() {
+        return dates;
+    }
+
+    /**
+     * @param chartPeriod A ChartPeriod
+     * @return The chart of chartPeriod. The same view is returned every time,
+     * so that it can be used to tell whether the chart has changed. Empty for
+     * {@link ChartPeriod#ONE_DAY}, or if there are no prices.
+     */
+    synchronized PriceSeries getPrices(final ChartPeriod chartPeriod) {
+        PriceSeries view = periodToPricesMap.get(chartPeriod);
+        if (view == null) {
+            final int numPts = getNumPts(chartPeriod);
+            final int numActualPts = prices.size();
+            if (numActualPts == 0) {
+                view = prices;
+            } else if (numActualPts >= numPts) {
+                view = prices.view(numActualPts - numPts, numActualPts);
+            } else {
+                view = prices.paddedView(numPts - numActualPts, prices.get(0));
+            }
+            periodToPricesMap.put(chartPeriod, view);
+        }
+        return view;
+    }
+
+    /**
+     * @param chartPeriod A ChartPeriod
+     * @return The date of each price of {@link #getPrices(ChartPeriod)}
+     */
+    synchronized DaySeries getDates(final ChartPeriod chartPeriod) {
+        DaySeries view = periodToDatesMap.get(chartPeriod);
+        if (view == null) {
+            final int numPts = getNumPts(chartPeriod);
+            final int numActualPts = dates.size();
+            if (numActualPts == 0) {
+                view = dates;
+            } else if (numActualPts >= numPts) {
+                view = dates.view(numActualPts - numPts, numActualPts);
+            } else {
+                view = dates.paddedView(numPts - numActualPts);
+            }
+            periodToDatesMap.put(chartPeriod, view);
+        }
+        return view;
+    }
+
+    /**
+     * @return The number of daily prices in the chart of chartPeriod
+     */
+    private static int getNumPts(final ChartPeriod chartPeriod) {
+        /* The stock market is only open on weekdays, and there are 9 holidays
+         * that the stock market closes for. So the stock market is open for
+         * ~252 days a year. Use this value to approximate the number of data
+         * points that should be in each period. */
+        switch (chartPeriod) {
+            case TWO_WEEKS:
+                return 10;
+            case ONE_MONTH:
+                return 21;
+            case THREE_MONTHS:
+                return 63;
+            case ONE_YEAR:
+                return 252;
+            case FIVE_YEARS:
+                return 1260;
+            default:
+                return 0;
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.sienga.stockwatch.stocks;
+
+import org.threeten.bp.LocalDate;
+
+
+/**
+ * The dates of a chart, stored as days since 1970-01-01 (see {@link
+ * LocalDate#toEpochDay()}) in an int[]. Charts used to store the text of every
+ * date as a String. Now the text of a date is only made when it is shown, with
+ * {@link #format(int)}, and dates are compared as ints.
+ * <p>
+ * Like {@link PriceSeries}, a view is a range of a DaySeries that shares its
+ * array, and a padded view starts with a number of {@link #BEFORE_IPO} days
+ * that are not stored. A DaySeries can not be modified.
+ */
+public final class DaySeries {
+
+    /**
+     * The day of the padding at the front of a chart of a Stock that isn't
+     * old enough to fill the chart.
+     */
+    public static final int BEFORE_IPO = Integer.MIN_VALUE;
+
+    public static final DaySeries EMPTY = new DaySeries(new int[0], 0, 0, 0);
+
+    private final int[] epochDays;
+    private final int offset;
+    private final int size;
+    private final int numPadding;
+
+    private DaySeries(final int[] epochDays, final int offset, final int size,
+                      final int numPadding) {
+        this.epochDays = epochDays;
+        this.offset = offset;
+        this.size = size;
+        this.numPadding = numPadding;
+    }
+
+    /**
+     * @param epochDays The days, from oldest to newest. This must not be
+     *                  modified after this is called.
+     * @return A DaySeries that uses epochDays without copying it
+     */
+    public static DaySeries wrap(final int[] epochDays) {
+        return new DaySeries(epochDays, 0, epochDays.length, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index The index of the day
+     * @return The day, or {@link #BEFORE_IPO} if index is in the padding
+     */
+    public int get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index < numPadding ? BEFORE_IPO : epochDays[offset + index - numPadding];
+    }
+
+    /**
+     * @return The last day, or {@link #BEFORE_IPO} if this is empty
+     */
+    public int getLast() {
+        return size == 0 ? BEFORE_IPO : get(size - 1);
+    }
+
+    /**
+     * @param from The first index of the view, inclusive
+     * @param to   The last index of the view, exclusive
+     * @return A view of the days from index from to index to
+     */
+    public DaySeries view(final int from, final int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + size);
+        }
+        final int viewNumPadding = Math.max(0, Math.min(numPadding - from, to - from));
+        return new DaySeries(epochDays, offset + Math.max(0, from - numPadding), to - from,
+                viewNumPadding);
+    }
+
+    /**
+     * @param numPadding The number of {@link #BEFORE_IPO} days before the days
+     *                   of this
+     * @return A view of every day of this, after numPadding BEFORE_IPO days
+     */
+    public DaySeries paddedView(final int numPadding) {
+        return new DaySeries(epochDays, offset, size + numPadding, this.numPadding + numPadding);
+    }
+
+    /**
+     * @param epochDay A day, or {@link #BEFORE_IPO}
+     * @return The text of epochDay, i.e. "03/15/19", or "Before IPO"
+     */
+    public static String format(final int epochDay) {
+        if (epochDay == BEFORE_IPO) {
+            return "Before IPO";
+        }
+
+        final LocalDate date = LocalDate.ofEpochDay(epochDay);
+        final int month = date.getMonthValue();
+        final int day = date.getDayOfMonth();
+        final int year = date.getYear() % 100;
+        return new String(new char[]{
+                (char) ('0' + month / 10), (char) ('0' + month % 10), '/',
+                (char) ('0' + day / 10), (char) ('0' + day % 10), '/',
+                (char) ('0' + year / 10), (char) ('0' + year % 10)});
+    }
+
+}
@@ -0,0 +1,332 @@
+package com.sienga.stockwatch.stocks;
+
+import com.sienga.stockwatch.Util;
+
+import java.util.Arrays;
+
+
+/**
+ * The one day chart of an {@link AdvancedStock}. Sources download the whole
+ * trading session every time, but at most one new point is added every 5
+ * minutes. This remembers how many of the session's trade points have already
+ * been ingested, and only parses the last ingested point and the points after
+ * it, so each refresh does work proportional to the new data. The last point
+ * is read again because the source can still correct it, i.e. replace a null
+ * point of an interval that just ended.
+ * <p>
+ * A trade point can be null if there were no trades during its interval.
+ * Null points are replaced with the previous price. Null points at the start
+ * of the session are replaced with the first non-null price, once it exists.
+ * <p>
+ * Each session is identified by the date of its trades, which the source
+ * passes to ingest (see {@link
+ * com.sienga.stockwatch.MarketSessionCalendar#getSessionEpochDay(long)}). If
+ * the date changes, or the session's trade points are fewer than the number
+ * that have been ingested, the series is cleared for a new session.
+ * <p>
+ * Copies of the prices are kept up to date with {@link #update(Copy)}, which
+ * only copies the prices that were appended or replaced since the copy was
+ * last updated.
+ * <p>
+ * Points are ingested from worker threads, and read from the main thread, so
+ * all methods are synchronized.
+ */
+public final class IntradaySeries {
+
+    private final PriceSeries prices = new PriceSeries();
+
+    /**
+     * The number of null points at the start of the session that have been
+     * read in the current call to ingest, but have no price to be replaced
+     * with yet.
+     */
+    private int numLeadingNullPts = 0;
+
+    /**
+     * Incremented each time that the series is cleared for a new session.
+     */
+    private int sessionId = 0;
+
+    /**
+     * The date of the trades of the current session, as days since
+     * 1970-01-01.
+     */
+    private int sessionEpochDay = Integer.MIN_VALUE;
+
+    /**
+     * Incremented each time that a price that has already been ingested is
+     * replaced with a different price.
+     */
+    private int revision = 0;
+
+    /**
+     * The {@link #revision} at which each price was last replaced, or 0 if it
+     * has not been replaced. Only the first {@link PriceSeries#size()} of
+     * {@link #prices} are used.
+     */
+    private int[] replacedRevisions = new int[0];
+
+    public IntradaySeries() {
+    }
+
+    /**
+     * @param series The series to copy. The copy does not share any state
+     *               with series.
+     */
+    public IntradaySeries(final IntradaySeries series) {
+        synchronized (series) {
+            prices.addAll(series.prices);
+            sessionId = series.sessionId;
+            sessionEpochDay = series.sessionEpochDay;
+            revision = series.revision;
+            replacedRevisions = series.replacedRevisions.clone();
+        }
+    }
+
+    /**
+     * Ingests the last trade point that has already been ingested, and the
+     * trade points of the session after it.
+     *
+     * @param sessionEpochDay The date of the trades, as days since 1970-01-01
+     * @param trades          The contents of the session's JSON array of
+     *                        trade points, without the brackets, i.e.
+     *                        "171.2,null,171.25"
+     * @return The number of prices that were appended
+     * @throws NumberFormatException If a new trade point is not a number or
+     *                               null. The points before it are still
+     *                               ingested.
+     */
+    public synchronized int ingestTrades(final int sessionEpochDay, final CharSequence trades) {
+        if (sessionEpochDay != this.sessionEpochDay) {
+            startNewSession(sessionEpochDay);
+        }
+
+        final int length = trades.length();
+        if (length == 0) {
+            // A new session without any trades yet
+            if (!prices.isEmpty()) {
+                startNewSession(sessionEpochDay);
+            }
+            return 0;
+        }
+
+        // Skip the points before the last ingested point without parsing them
+        final int numPtsToSkip = Math.max(prices.size() - 1, 0);
+        int start = 0;
+        int ndx = 0;
+        while (ndx < numPtsToSkip && start <= length) {
+            int end = start;
+            while (end < length && trades.charAt(end) != ',') {
+                end++;
+            }
+            start = end + 1;
+            ndx++;
+        }
+        if (ndx < numPtsToSkip || start > length) {
+            // Fewer points than were ingested. This is a new session.
+            startNewSession(sessionEpochDay);
+            start = 0;
+            ndx = 0;
+        }
+
+        numLeadingNullPts = 0;
+        final int prevSize = prices.size();
+        while (start <= length) {
+            int end = start;
+            while (end < length && trades.charAt(end) != ',') {
+                end++;
+            }
+            ingestPoint(ndx++, isNull(trades, start, end)
+                    ? Double.NaN
+                    : Util.Num.parseDouble(trades, start, end));
+            start = end + 1;
+        }
+        return prices.size() - prevSize;
+    }
+
+    /**
+     * Same as {@link #ingestTrades(int, CharSequence)}, for trade points that
+     * have already been parsed.
+     *
+     * @param sessionEpochDay The date of the trades, as days since 1970-01-01
+     * @param trades          The trade points of the current session, with
+     *                        {@link Double#NaN} for null points
+     * @return The number of prices that were appended
+     */
+    public synchronized int ingestTrades(final int sessionEpochDay, final double[] trades) {
+        if (sessionEpochDay != this.sessionEpochDay || trades.length < prices.size()) {
+            startNewSession(sessionEpochDay);
+        }
+
+        numLeadingNullPts = 0;
+        final int prevSize = prices.size();
+        for (int i = Math.max(prevSize - 1, 0); i < trades.length; i++) {
+            ingestPoint(i, trades[i]);
+        }
+        return prices.size() - prevSize;
+    }
+
+    /**
+     * Replaces a price that has already been ingested. Copies see the new
+     * price the next time that they are updated with {@link #update(Copy)}.
+     *
+     * @param ndx   The index of the price
+     * @param price The new price
+     */
+    public synchronized void set(final int ndx, final double price) {
+        replace(ndx, price);
+    }
+
+    public synchronized int size() {
+        return prices.size();
+    }
+
+    /**
+     * @return A copy of every price
+     */
+    public synchronized PriceSeries getPrices() {
+        return prices.copy();
+    }
+
+    /**
+     * Brings copy up to date with this series. If the series has started a
+     * new session since copy was last updated, all of the prices are copied.
+     * Otherwise, only the prices that were replaced or appended since then
+     * are copied.
+     *
+     * @param copy The Copy to update
+     * @return The index of the first price of copy that changed, or -1 if
+     * none changed
+     */
+    public synchronized int update(final Copy copy) {
+        if (copy.sessionId != sessionId) {
+            copy.prices.clear();
+            copy.prices.addAll(prices);
+            copy.sessionId = sessionId;
+            copy.revision = revision;
+            return 0;
+        }
+
+        int firstChangedNdx = -1;
+        if (copy.revision != revision) {
+            for (int i = 0; i < copy.prices.size(); i++) {
+                if (replacedRevisions[i] > copy.revision && copy.prices.get(i) != prices.get(i)) {
+                    copy.prices.set(i, prices.get(i));
+                    if (firstChangedNdx == -1) {
+                        firstChangedNdx = i;
+                    }
+                }
+            }
+            copy.revision = revision;
+        }
+
+        final int numCopiedPts = copy.prices.size();
+        if (numCopiedPts < prices.size()) {
+            copy.prices.addAll(prices.view(numCopiedPts, prices.size()));
+            if (firstChangedNdx == -1) {
+                firstChangedNdx = numCopiedPts;
+            }
+        }
+        return firstChangedNdx;
+    }
+
+    /**
+     * @param ndx   The index of the trade point
+     * @param price The price of the trade point, or {@link Double#NaN} if the
+     *              point is null
+     */
+    private void ingestPoint(final int ndx, final double price) {
+        if (ndx < prices.size()) {
+            // The last ingested point, read again in case it was corrected
+            if (!Double.isNaN(price)) {
+                replace(ndx, price);
+            }
+        } else {
+            appendPoint(price);
+        }
+    }
+
+    private void replace(final int ndx, final double price) {
+        if (prices.get(ndx) == price) {
+            return;
+        }
+        prices.set(ndx, price);
+        revision++;
+        if (replacedRevisions.length < prices.size()) {
+            replacedRevisions = Arrays.copyOf(replacedRevisions, prices.size() + 16);
+        }
+        replacedRevisions[ndx] = revision;
+    }
+
+    /**
+     * @param price The price of the next trade point, or {@link Double#NaN}
+     *              if the point is null
+     */
+    private void appendPoint(final double price) {
+        if (Double.isNaN(price)) {
+            if (prices.isEmpty()) {
+                /* There is no price to replace the null point with yet. It is
+                 * read again in the next call to ingest if there still isn't. */
+                numLeadingNullPts++;
+                return;
+            }
+            prices.add(prices.getLast());
+        } else {
+            // Fill the null points at the start of the session with this price
+            for (; numLeadingNullPts > 0; numLeadingNullPts--) {
+                prices.add(price);
+            }
+            prices.add(price);
+        }
+    }
+
+    private void startNewSession(final int sessionEpochDay) {
+        prices.clear();
+        Arrays.fill(replacedRevisions, 0);
+        sessionId++;
+        this.sessionEpochDay = sessionEpochDay;
+    }
+
+    /**
+     * @return True if the point from start to end is "null", ignoring
+     * whitespace
+     */
+    private static boolean isNull(final CharSequence s, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = s.charAt(i);
+            if (c == 'n') {
+                return true;
+            } else if (c != ' ') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * A copy of the prices of an IntradaySeries, which is kept up to date
+     * with {@link IntradaySeries#update(Copy)}. This is not thread-safe.
+     */
+    public static final class Copy {
+
+        private final PriceSeries prices = new PriceSeries();
+
+        /**
+         * The session and revision of the series when this was last updated.
+         * A new Copy has no session, so its first update copies every price.
+         */
+        private int sessionId = -1;
+        private int revision;
+
+        /**
+         * @return The copied prices, which must only be changed by {@link
+         * IntradaySeries#update(Copy)}
+         */
+        public PriceSeries getPrices() {
+            return prices;
+        }
+
+    }
+
+}
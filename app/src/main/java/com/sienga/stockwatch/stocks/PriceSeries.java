@@ -0,0 +1,176 @@
+package com.sienga.stockwatch.stocks;
+
+import java.util.Arrays;
+
+
+/**
+ * A growable series of prices that is backed by a double[]. Charts used to be
+ * {@code List<Double>}, which stored a five year chart as 1260 Double objects,
+ * and unboxed a Double every time that a point was drawn or scrubbed.
+ * <p>
+ * A view ({@link #view(int, int)}) is a read-only range of a series that
+ * shares its array, so no prices are copied. A padded view ({@link
+ * #paddedView(int, double)}) also starts with a number of copies of a price
+ * that are not stored. Prices that are added to the series after a view is
+ * made are not part of the view.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class PriceSeries {
+
+    private static final double[] EMPTY_VALUES = {};
+
+    private double[] values;
+    private final int offset;
+    private int size;
+    private final boolean isView;
+
+    /**
+     * The number of copies of {@link #padding} before the prices in {@link
+     * #values}. Only views have padding.
+     */
+    private final int numPadding;
+    private final double padding;
+
+    public PriceSeries() {
+        this(0);
+    }
+
+    /**
+     * @param capacity The number of prices that can be added before the array
+     *                 is grown
+     */
+    public PriceSeries(final int capacity) {
+        values = capacity == 0 ? EMPTY_VALUES : new double[capacity];
+        offset = 0;
+        size = 0;
+        isView = false;
+        numPadding = 0;
+        padding = 0;
+    }
+
+    private PriceSeries(final double[] values, final int offset, final int size,
+                        final int numPadding, final double padding) {
+        this.values = values;
+        this.offset = offset;
+        this.size = size;
+        isView = true;
+        this.numPadding = numPadding;
+        this.padding = padding;
+    }
+
+    /**
+     * @param values The prices to copy
+     * @return A series of copies of values from index from to index to
+     */
+    public static PriceSeries of(final double[] values, final int from, final int to) {
+        final PriceSeries series = new PriceSeries(to - from);
+        System.arraycopy(values, from, series.values, 0, to - from);
+        series.size = to - from;
+        return series;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index < numPadding ? padding : values[offset + index - numPadding];
+    }
+
+    /**
+     * @return The last price
+     * @throws IndexOutOfBoundsException If this is empty
+     */
+    public double getLast() {
+        return get(size - 1);
+    }
+
+    public void set(final int index, final double price) {
+        checkModifiable();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        values[index] = price;
+    }
+
+    public void add(final double price) {
+        checkModifiable();
+        ensureCapacity(size + 1);
+        values[size++] = price;
+    }
+
+    public void addAll(final PriceSeries series) {
+        checkModifiable();
+        ensureCapacity(size + series.size);
+        for (int i = 0; i < series.numPadding; i++) {
+            values[size++] = series.padding;
+        }
+        final int numStored = series.size - series.numPadding;
+        System.arraycopy(series.values, series.offset, values, size, numStored);
+        size += numStored;
+    }
+
+    public void clear() {
+        checkModifiable();
+        size = 0;
+    }
+
+    public void ensureCapacity(final int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 3 / 2 + 1));
+        }
+    }
+
+    /**
+     * @param from The first index of the view, inclusive
+     * @param to   The last index of the view, exclusive
+     * @return A read-only view of the prices from index from to index to
+     */
+    public PriceSeries view(final int from, final int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + size);
+        }
+        final int viewNumPadding = Math.max(0, Math.min(numPadding - from, to - from));
+        return new PriceSeries(values, offset + Math.max(0, from - numPadding), to - from,
+                viewNumPadding, padding);
+    }
+
+    /**
+     * @param numPadding The number of copies of padding before the prices of
+     *                   this
+     * @param padding    The price to pad with
+     * @return A read-only view of every price of this, after numPadding
+     * copies of padding
+     */
+    public PriceSeries paddedView(final int numPadding, final double padding) {
+        if (this.numPadding > 0 && padding != this.padding) {
+            throw new IllegalArgumentException("Padding must match the padding of this");
+        }
+        return new PriceSeries(values, offset, size + numPadding,
+                this.numPadding + numPadding, padding);
+    }
+
+    /**
+     * @return A modifiable copy of this, that does not share this's array
+     */
+    public PriceSeries copy() {
+        final PriceSeries copy = new PriceSeries(size);
+        copy.addAll(this);
+        return copy;
+    }
+
+    private void checkModifiable() {
+        if (isView) {
+            throw new UnsupportedOperationException("Views can not be modified");
+        }
+    }
+
+}
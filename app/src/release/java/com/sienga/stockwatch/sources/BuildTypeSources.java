@@ -0,0 +1,24 @@
+package com.sienga.stockwatch.sources;
+
+
+/**
+ * Sets the {@link Sources} of release builds, which always use the default
+ * sources. Debug builds have their own version of this class, which can take
+ * all data from a local stand-in for the JSON API.
+ */
+public final class BuildTypeSources {
+
+    /**
+     * Prevent instantiation by making this private. Do not allow use of default
+     * constructor.
+     */
+    private BuildTypeSources() {
+    }
+
+    /**
+     * Called from StockWatch.onCreate(), before any of the Activities start.
+     */
+    public static void init() {
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.sienga.stockwatch;
+
+import com.android.volley.NetworkResponse;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhVals;
+import com.sienga.stockwatch.stocks.ConcreteStockWithEhValsList;
+import com.sienga.stockwatch.stocks.Stock;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+
+/**
+ * Checks that {@link MultiStockRequest.ParseMode#STREAMING} and {@link
+ * MultiStockRequest.ParseMode#DOM} update Stocks with the same values from a
+ * MarketWatch multiple-stock page.
+ * <p>
+ * marketwatch_multi.html has the structure that the selectors in
+ * MultiStockRequest match, with a quote in every State, and tags in a script,
+ * a style, and a comment that neither parser may read.
+ */
+public final class MultiStockRequestTest {
+
+    private static final String PAGE = "marketwatch_multi.html";
+
+    private static final String[] TICKERS = {"AAPL", "MSFT", "TSLA", "BRK.A", "SPOT"};
+
+    @Test
+    public void scan_recognizesPage() throws IOException {
+        // Otherwise, STREAMING would silently fall back to DOM and be compared to itself
+        final List<MultiQuoteScanner.Quote> quotes = MultiQuoteScanner.scan(readPage());
+        assertNotNull(quotes);
+        assertEquals(TICKERS.length, quotes.size());
+        for (int i = 0; i < TICKERS.length; i++) {
+            assertEquals(TICKERS[i], quotes.get(i).ticker);
+        }
+    }
+
+    @Test
+    public void parseNetworkResponse_streamingSameAsDom() throws IOException {
+        final NetworkResponse response = new NetworkResponse(readPage());
+        final ConcreteStockWithEhValsList streamed =
+                parse(response, MultiStockRequest.ParseMode.STREAMING);
+        final ConcreteStockWithEhValsList parsed =
+                parse(response, MultiStockRequest.ParseMode.DOM);
+
+        assertEquals(TICKERS.length, parsed.size());
+        for (int i = 0; i < TICKERS.length; i++) {
+            final ConcreteStockWithEhVals expected = parsed.get(i);
+            final ConcreteStockWithEhVals actual = streamed.get(i);
+            final String ticker = expected.getTicker();
+            assertEquals(ticker, expected.getState(), actual.getState());
+            assertBitsEqual(ticker, expected.getPrice(), actual.getPrice());
+            assertBitsEqual(ticker, expected.getChangePoint(), actual.getChangePoint());
+            assertBitsEqual(ticker, expected.getChangePercent(), actual.getChangePercent());
+            assertBitsEqual(ticker, expected.getExtraHoursPrice(), actual.getExtraHoursPrice());
+            assertBitsEqual(ticker, expected.getExtraHoursChangePoint(),
+                    actual.getExtraHoursChangePoint());
+            assertBitsEqual(ticker, expected.getExtraHoursChangePercent(),
+                    actual.getExtraHoursChangePercent());
+        }
+    }
+
+    @Test
+    public void parseNetworkResponse_values() throws IOException {
+        final ConcreteStockWithEhValsList stocks = parse(new NetworkResponse(readPage()),
+                MultiStockRequest.ParseMode.STREAMING);
+
+        assertStock(stocks.get(0), Stock.State.OPEN, 1234.5, -2.45, -0.2, 0, 0, 0);
+        assertStock(stocks.get(1), Stock.State.AFTER_HOURS, 309.5, -3.25, -1.04,
+                310.02, 0.52, 0.17);
+        assertStock(stocks.get(2), Stock.State.PREMARKET, 242.25, 5, 2.11, 241.1, -1.15, -0.47);
+        assertStock(stocks.get(3), Stock.State.CLOSED, 612345.67, 0, 0, 0, 0, 0);
+        assertStock(stocks.get(4), Stock.State.OPEN, 0.0815, 0.0015, 1.88, 0, 0, 0);
+    }
+
+    /**
+     * @return New Stocks with the tickers in the page, updated from response
+     * with parseMode
+     */
+    private static ConcreteStockWithEhValsList parse(final NetworkResponse response,
+                                                     final MultiStockRequest.ParseMode parseMode) {
+        final ConcreteStockWithEhValsList stocks = new ConcreteStockWithEhValsList();
+        for (final String ticker : TICKERS) {
+            stocks.add(new ConcreteStockWithEhVals(Stock.State.ERROR, ticker, ticker,
+                    -1, -1, -1, -1, -1, -1));
+        }
+        new MultiStockRequest("https://www.marketwatch.com/investing/multi", stocks, 1,
+                parseMode, null, null).parseNetworkResponse(response);
+        return stocks;
+    }
+
+    private static void assertStock(final ConcreteStockWithEhVals stock, final Stock.State state,
+                                     final double price, final double changePoint,
+                                     final double changePercent, final double ehPrice,
+                                     final double ehChangePoint, final double ehChangePercent) {
+        final String ticker = stock.getTicker();
+        assertEquals(ticker, state, stock.getState());
+        assertEquals(ticker, price, stock.getPrice(), 0);
+        assertEquals(ticker, changePoint, stock.getChangePoint(), 0);
+        assertEquals(ticker, changePercent, stock.getChangePercent(), 0);
+        assertEquals(ticker, ehPrice, stock.getExtraHoursPrice(), 0);
+        assertEquals(ticker, ehChangePoint, stock.getExtraHoursChangePoint(), 0);
+        assertEquals(ticker, ehChangePercent, stock.getExtraHoursChangePercent(), 0);
+    }
+
+    private static void assertBitsEqual(final String message, final double expected,
+                                        final double actual) {
+        assertEquals(message, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    private byte[] readPage() throws IOException {
+        try (final InputStream in = getClass().getResourceAsStream(PAGE)) {
+            assertNotNull(PAGE, in);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int numRead;
+            while ((numRead = in.read(buffer)) != -1) {
+                out.write(buffer, 0, numRead);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}
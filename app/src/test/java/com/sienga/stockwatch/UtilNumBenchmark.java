@@ -0,0 +1,77 @@
+package com.sienga.stockwatch;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Compares the time that {@link Util.Num} and the regex and {@link
+ * Double#parseDouble(String)} that it replaced take to parse the same scraped
+ * values, and prints the results. Both must give the same bits, so the sums of
+ * the parsed values are equal.
+ * <p>
+ * The times are only printed, not asserted, because they depend on the
+ * machine. Run with {@code ./gradlew testDebugUnitTest --tests
+ * '*UtilNumBenchmark' -i} to see them.
+ */
+public final class UtilNumBenchmark {
+
+    private static final int NUM_VALUES = 100000;
+    private static final int NUM_WARMUP_ROUNDS = 5;
+    private static final int NUM_ROUNDS = 10;
+
+    @Test
+    public void parseSignedDouble_vsRegex() {
+        final Random random = new Random(7);
+        final String[] values = new String[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            values[i] = UtilNumTest.randomValue(random);
+        }
+
+        for (int round = 0; round < NUM_WARMUP_ROUNDS; round++) {
+            parseWithRegex(values);
+            parseWithNum(values);
+        }
+
+        long regexNanos = 0;
+        long numNanos = 0;
+        double regexSum = 0;
+        double numSum = 0;
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            long start = System.nanoTime();
+            regexSum = parseWithRegex(values);
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            numSum = parseWithNum(values);
+            numNanos += System.nanoTime() - start;
+        }
+        assertEquals(Double.doubleToLongBits(regexSum), Double.doubleToLongBits(numSum));
+
+        final double numParsed = (double) NUM_VALUES * NUM_ROUNDS;
+        System.out.println(String.format(Locale.US,
+                "Regex and parseDouble: %.1f ns/value%nUtil.Num: %.1f ns/value (%.1fx)",
+                regexNanos / numParsed, numNanos / numParsed, (double) regexNanos / numNanos));
+    }
+
+    private static double parseWithRegex(final String[] values) {
+        double sum = 0;
+        for (final String s : values) {
+            sum += Double.parseDouble(s.replaceAll("[^0-9.-]+", ""));
+        }
+        return sum;
+    }
+
+    private static double parseWithNum(final String[] values) {
+        double sum = 0;
+        for (final String s : values) {
+            sum += Util.Num.parseSignedDouble(s);
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.sienga.stockwatch;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Checks that {@link Util.Num} gives the same result as the regex and
+ * {@link Double#parseDouble(String)} that it replaced.
+ */
+public final class UtilNumTest {
+
+    /**
+     * The number of random values that are compared with the regex.
+     */
+    private static final int NUM_RANDOM_VALUES = 1000000;
+
+    @Test
+    public void parseDouble_scrapedValues() {
+        assertEquals(1234.5, Util.Num.parseDouble("$1,234.50"), 0);
+        assertEquals(171.25, Util.Num.parseDouble(" 171.25 "), 0);
+        assertEquals(0.5, Util.Num.parseDouble(".5"), 0);
+        assertEquals(310540, Util.Num.parseDouble("310,540"), 0);
+        // '-' is skipped by the unsigned methods, the same as with the regex
+        assertEquals(1.25, Util.Num.parseDouble("-1.25"), 0);
+    }
+
+    @Test
+    public void parseSignedDouble_scrapedValues() {
+        assertEquals(-0.25, Util.Num.parseSignedDouble("-0.25%"), 0);
+        assertEquals(3.5, Util.Num.parseSignedDouble("+3.50"), 0);
+        assertEquals(-1234.5, Util.Num.parseSignedDouble("-$1,234.50"), 0);
+    }
+
+    @Test
+    public void parseDouble_range() {
+        final String date = "03/15/19";
+        assertEquals(3, Util.Num.parseDouble(date, 0, 2), 0);
+        assertEquals(15, Util.Num.parseDouble(date, 3, 5), 0);
+        assertEquals(19, Util.Num.parseDouble(date, 6, 8), 0);
+    }
+
+    @Test
+    public void parseDouble_bytes() {
+        final byte[] data = "<p>-$1,234.50</p>".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(1234.5, Util.Num.parseDouble(data, 3, 13, false), 0);
+        assertEquals(-1234.5, Util.Num.parseDouble(data, 3, 13, true), 0);
+    }
+
+    @Test
+    public void parseDouble_longValues() {
+        // More significant digits and decimals than are parsed exactly
+        assertParsedLikeRegex("1234567890.1234567890123", false);
+        assertParsedLikeRegex("0.00000000000000000000000123", false);
+        assertParsedLikeRegex("-98765432109876543210", true);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseDouble_noDigits() {
+        Util.Num.parseDouble("N/A");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseDouble_multiplePoints() {
+        Util.Num.parseDouble("1.2.3");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseSignedDouble_misplacedMinus() {
+        Util.Num.parseSignedDouble("1-2");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseDouble_bytesNoDigits() {
+        final byte[] data = "<p>--</p>".getBytes(StandardCharsets.US_ASCII);
+        Util.Num.parseDouble(data, 3, 5, true);
+    }
+
+    /**
+     * Compares every method with the regex for {@link #NUM_RANDOM_VALUES}
+     * random values, in the forms that are scraped.
+     */
+    @Test
+    public void randomValues_sameAsRegex() {
+        final Random random = new Random(42);
+        for (int i = 0; i < NUM_RANDOM_VALUES; i++) {
+            final String s = randomValue(random);
+            assertParsedLikeRegex(s, false);
+            assertParsedLikeRegex(s, true);
+        }
+    }
+
+    /**
+     * @param random The Random to use
+     * @return A random value as it is shown on a website, i.e. "$1,234.50",
+     * "-0.25%", or "(+3.1416%)"
+     */
+    static String randomValue(final Random random) {
+        final double magnitude = Math.pow(10, random.nextInt(10) - 3);
+        final double value = random.nextDouble() * magnitude * (random.nextBoolean() ? 1 : -1);
+        final int numDecimals = random.nextInt(7);
+        String s = String.format(Locale.US, random.nextBoolean() ? "%,." + numDecimals + "f" :
+                "%." + numDecimals + "f", value);
+        switch (random.nextInt(4)) {
+            case 0:
+                s = s.startsWith("-") ? "-$" + s.substring(1) : "$" + s;
+                break;
+            case 1:
+                s = s + "%";
+                break;
+            case 2:
+                s = "(" + (s.startsWith("-") ? s : "+" + s) + "%)";
+                break;
+            default:
+                break;
+        }
+        return s;
+    }
+
+    /**
+     * Asserts that the String, CharSequence range, and byte range methods all
+     * give the same bits as the regex, or all throw.
+     */
+    private static void assertParsedLikeRegex(final String s, final boolean allowMinus) {
+        final double expected;
+        try {
+            expected = Double.parseDouble(s.replaceAll(allowMinus ? "[^0-9.-]+" : "[^0-9.]+", ""));
+        } catch (final NumberFormatException nfe) {
+            assertThrows(s, allowMinus);
+            return;
+        }
+
+        final double actual = allowMinus ?
+                Util.Num.parseSignedDouble(s) :
+                Util.Num.parseDouble(s);
+        assertEquals(s, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+
+        final byte[] data = s.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(s, Double.doubleToLongBits(expected),
+                Double.doubleToLongBits(Util.Num.parseDouble(data, 0, data.length, allowMinus)));
+        if (!allowMinus) {
+            assertEquals(s, Double.doubleToLongBits(expected),
+                    Double.doubleToLongBits(Util.Num.parseDouble(s, 0, s.length())));
+        }
+    }
+
+    private static void assertThrows(final String s, final boolean allowMinus) {
+        try {
+            if (allowMinus) {
+                Util.Num.parseSignedDouble(s);
+            } else {
+                Util.Num.parseDouble(s);
+            }
+            fail("Expected NumberFormatException: " + s);
+        } catch (final NumberFormatException nfe) {
+            // Expected
+        }
+
+        final byte[] data = s.getBytes(StandardCharsets.US_ASCII);
+        try {
+            Util.Num.parseDouble(data, 0, data.length, allowMinus);
+            fail("Expected NumberFormatException: " + s);
+        } catch (final NumberFormatException nfe) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.sienga.stockwatch.stocks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Checks how {@link IntradaySeries} ingests the points of a session, and what
+ * {@link IntradaySeries#update(IntradaySeries.Copy)} copies.
+ */
+public final class IntradaySeriesTest {
+
+    /**
+     * The epoch day of the session that most tests ingest.
+     */
+    private static final int DAY = 18000;
+
+    @Test
+    public void ingestTrades_appendsNewPoints() {
+        final IntradaySeries series = new IntradaySeries();
+        assertEquals(2, series.ingestTrades(DAY, "171.2,171.25"));
+        assertEquals(2, series.ingestTrades(DAY, "171.2,171.25,171.3,171.1"));
+        assertPrices(series, 171.2, 171.25, 171.3, 171.1);
+    }
+
+    @Test
+    public void ingestTrades_replacesNullPoints() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "null, null,5,null,6");
+        assertPrices(series, 5, 5, 5, 5, 6);
+    }
+
+    @Test
+    public void ingestTrades_onlyLeadingNullPoints() {
+        final IntradaySeries series = new IntradaySeries();
+        assertEquals(0, series.ingestTrades(DAY, "null,null"));
+        assertEquals(0, series.size());
+        // The null points are read again once there is a price to replace them with
+        assertEquals(3, series.ingestTrades(DAY, "null,null,4"));
+        assertPrices(series, 4, 4, 4);
+    }
+
+    @Test
+    public void ingestTrades_readsCorrectedLastPoint() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,null");
+        assertPrices(series, 1, 2, 2);
+        // The source replaced the null point once its interval ended
+        assertEquals(1, series.ingestTrades(DAY, "1,2,2.5,3"));
+        assertPrices(series, 1, 2, 2.5, 3);
+    }
+
+    @Test
+    public void ingestTrades_doesNotReadPointsBeforeLastPoint() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        // Points before the last ingested point are skipped without being parsed
+        series.ingestTrades(DAY, "x,x,4,5");
+        assertPrices(series, 1, 2, 4, 5);
+    }
+
+    @Test
+    public void ingestTrades_shorterSessionStartsNewSession() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3,4");
+        series.ingestTrades(DAY, "7,8");
+        assertPrices(series, 7, 8);
+    }
+
+    @Test
+    public void ingestTrades_emptySessionStartsNewSession() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2");
+        assertEquals(0, series.ingestTrades(DAY, ""));
+        assertEquals(0, series.size());
+    }
+
+    @Test
+    public void ingestTrades_dateChangeStartsNewSession() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        // As many points as the previous session, so only the date tells them apart
+        assertEquals(4, series.ingestTrades(DAY + 1, "4,5,6,7"));
+        assertPrices(series, 4, 5, 6, 7);
+    }
+
+    @Test
+    public void ingestTrades_parsedTrades() {
+        final IntradaySeries series = new IntradaySeries();
+        assertEquals(3, series.ingestTrades(DAY, new double[]{Double.NaN, 2, Double.NaN}));
+        assertPrices(series, 2, 2, 2);
+        assertEquals(1, series.ingestTrades(DAY, new double[]{2, 2, 2.5, 3}));
+        assertPrices(series, 2, 2, 2.5, 3);
+        series.ingestTrades(DAY + 1, new double[]{9});
+        assertPrices(series, 9);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void ingestTrades_invalidPoint() {
+        new IntradaySeries().ingestTrades(DAY, "1,abc");
+    }
+
+    @Test
+    public void update_copiesAllPricesFirst() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        assertEquals(0, series.update(copy));
+        assertCopy(copy, 1, 2, 3);
+        assertEquals(-1, series.update(copy));
+    }
+
+    @Test
+    public void update_copiesAppendedPrices() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        series.update(copy);
+
+        series.ingestTrades(DAY, "1,2,3,4,5");
+        assertEquals(3, series.update(copy));
+        assertCopy(copy, 1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void update_copiesReplacedPrices() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3,4");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        series.update(copy);
+
+        series.set(1, 2.5);
+        series.ingestTrades(DAY, "1,2,3,4.5,5");
+        assertEquals(1, series.update(copy));
+        assertCopy(copy, 1, 2.5, 3, 4.5, 5);
+    }
+
+    @Test
+    public void update_ignoresPricesReplacedWithSameValue() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        series.update(copy);
+
+        series.set(2, 3);
+        series.ingestTrades(DAY, "1,2,3");
+        assertEquals(-1, series.update(copy));
+    }
+
+    @Test
+    public void update_replacedThenRestoredPrice() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        series.update(copy);
+
+        // Like ScraperChartSource, which sets the closing price after every ingest
+        series.set(2, 3.5);
+        assertEquals(2, series.update(copy));
+        series.ingestTrades(DAY, "1,2,3");
+        series.set(2, 3.5);
+        assertEquals(-1, series.update(copy));
+        assertCopy(copy, 1, 2, 3.5);
+    }
+
+    @Test
+    public void update_newSessionCopiesAllPrices() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries.Copy copy = new IntradaySeries.Copy();
+        series.update(copy);
+
+        series.ingestTrades(DAY + 1, "4");
+        assertEquals(0, series.update(copy));
+        assertCopy(copy, 4);
+    }
+
+    @Test
+    public void copyConstructor_doesNotShareState() {
+        final IntradaySeries series = new IntradaySeries();
+        series.ingestTrades(DAY, "1,2,3");
+        final IntradaySeries copied = new IntradaySeries(series);
+
+        series.ingestTrades(DAY, "1,2,3,4");
+        series.set(0, 0.5);
+        assertPrices(copied, 1, 2, 3);
+
+        // The copy continues the same session
+        assertEquals(1, copied.ingestTrades(DAY, "1,2,3,5"));
+        assertPrices(copied, 1, 2, 3, 5);
+    }
+
+    private static void assertPrices(final IntradaySeries series, final double... expected) {
+        assertArrayEquals(expected, toArray(series.getPrices()), 0);
+    }
+
+    private static void assertCopy(final IntradaySeries.Copy copy, final double... expected) {
+        assertArrayEquals(expected, toArray(copy.getPrices()), 0);
+    }
+
+    private static double[] toArray(final PriceSeries prices) {
+        final double[] array = new double[prices.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = prices.get(i);
+        }
+        return array;
+    }
+
+}
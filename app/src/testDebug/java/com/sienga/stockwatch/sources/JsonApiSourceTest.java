@@ -0,0 +1,186 @@
+package com.sienga.stockwatch.sources;
+
+import com.sienga.stockwatch.Article;
+import com.sienga.stockwatch.stocks.AdvancedStock.ChartPeriod;
+import com.sienga.stockwatch.stocks.AdvancedStock.Stat;
+import com.sienga.stockwatch.stocks.ConcreteAdvancedStockWithEhVals;
+import com.sienga.stockwatch.stocks.Stock;
+import com.sienga.stockwatch.stocks.StockInHomeActivity;
+import com.sienga.stockwatch.stocks.StockWithEhVals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Runs {@link JsonApiSource} against a {@link LocalQuoteServer}, so that the
+ * requests and the parsing of every endpoint are exercised without a network
+ * connection. See LocalQuoteServer for the responses.
+ */
+public final class JsonApiSourceTest {
+
+    private static LocalQuoteServer server;
+    private static JsonApiSource source;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = LocalQuoteServer.start();
+        source = new JsonApiSource(server.getBaseUrl());
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void findStock_open() throws IOException {
+        final StockInHomeActivity stock = source.findStock("AAPL");
+        assertFalse(stock instanceof StockWithEhVals);
+        assertEquals(Stock.State.OPEN, stock.getState());
+        assertEquals("AAPL", stock.getTicker());
+        assertEquals("AAPL Inc.", stock.getName());
+        assertTrue(stock.getPrice() >= 10);
+        assertEquals(1, stock.getChangePercent(), 0);
+    }
+
+    @Test
+    public void findStock_afterHours() throws IOException {
+        final StockInHomeActivity stock = source.findStock("AHXY");
+        assertEquals(Stock.State.AFTER_HOURS, stock.getState());
+        final StockWithEhVals ehStock = (StockWithEhVals) stock;
+        assertTrue(ehStock.getExtraHoursPrice() >= 10);
+        assertEquals(0.5, ehStock.getExtraHoursChangePercent(), 0);
+    }
+
+    @Test
+    public void findStock_notFound() throws IOException {
+        assertNull(source.findStock("ZZXY"));
+    }
+
+    @Test
+    public void downloadStats_allStats() {
+        final ConcreteAdvancedStockWithEhVals stock = newStock("PMXY");
+        final Set<Stat> missingStats = EnumSet.noneOf(Stat.class);
+        assertEquals(QuoteSource.StatsStatus.GOOD, source.downloadStats(stock, true, missingStats));
+
+        // LocalQuoteServer always sends a null yield
+        assertEquals(EnumSet.of(Stat.YIELD), missingStats);
+        assertEquals(Stock.State.PREMARKET, stock.getState());
+        assertEquals(1, stock.getChangePercent(), 0);
+        assertEquals(0.5, stock.getExtraHoursChangePercent(), 0);
+        assertEquals("1,234,567", stock.getVolume());
+        assertEquals("2,345,678", stock.getAverageVolume());
+        assertEquals("12.3 B", stock.getMarketCap());
+        assertEquals(18.5, stock.getPeRatio(), 0);
+        assertEquals("A stand-in company for PMXY.", stock.getDescription());
+        assertTrue(stock.getTodaysLow() < stock.getTodaysHigh());
+        assertTrue(stock.getFiftyTwoWeekLow() < stock.getFiftyTwoWeekHigh());
+    }
+
+    @Test
+    public void downloadStats_notFound() {
+        final Set<Stat> missingStats = EnumSet.noneOf(Stat.class);
+        assertEquals(QuoteSource.StatsStatus.GOOD,
+                source.downloadStats(newStock("ZZXY"), true, missingStats));
+        assertEquals(EnumSet.allOf(Stat.class), missingStats);
+    }
+
+    @Test
+    public void downloadStats_unreachable() {
+        final JsonApiSource unreachable = new JsonApiSource(getUnreachableBaseUrl());
+        assertEquals(QuoteSource.StatsStatus.IO_EXCEPTION, unreachable.downloadStats(
+                newStock("AAPL"), true, EnumSet.noneOf(Stat.class)));
+    }
+
+    @Test
+    public void downloadCharts_allCharts() {
+        final ConcreteAdvancedStockWithEhVals stock = newStock("AAPL");
+        final Set<ChartPeriod> missingChartPeriods = EnumSet.noneOf(ChartPeriod.class);
+        final long firstEpochDay = LocalDate.now().toEpochDay();
+        assertEquals(ChartSource.Status.GOOD, source.downloadCharts(stock, missingChartPeriods));
+        final long lastEpochDay = LocalDate.now().toEpochDay();
+
+        assertTrue(missingChartPeriods.isEmpty());
+        assertEquals(78, stock.getIntradaySeries().size());
+        assertEquals(1000, stock.getDailyPrices().size());
+        assertEquals(1000, stock.getDailyDates().size());
+        // The daily prices end today, unless the day changed during the request
+        final int lastDay = stock.getDailyDates().getLast();
+        assertTrue(lastDay >= firstEpochDay && lastDay <= lastEpochDay);
+        assertEquals(lastDay - 999, stock.getDailyDates().get(0));
+    }
+
+    @Test
+    public void downloadCharts_unreachable() {
+        final JsonApiSource unreachable = new JsonApiSource(getUnreachableBaseUrl());
+        final Set<ChartPeriod> missingChartPeriods = EnumSet.noneOf(ChartPeriod.class);
+        assertEquals(ChartSource.Status.IO_EXCEPTION_FOR_INTRADAY_AND_HISTORICAL,
+                unreachable.downloadCharts(newStock("AAPL"), missingChartPeriods));
+        assertEquals(EnumSet.allOf(ChartPeriod.class), missingChartPeriods);
+    }
+
+    @Test
+    public void downloadNews_allArticles() {
+        final List<Article> articles = new ArrayList<>();
+        assertEquals(NewsSource.Status.GOOD, source.downloadNews("AAPL", null, articles));
+
+        assertEquals(6, articles.size());
+        final Article newest = articles.get(0);
+        assertEquals("AAPL headline 1", newest.getTitle());
+        assertEquals("Local", newest.getSource());
+        assertEquals("Day-0", newest.getDate());
+        assertEquals("http://127.0.0.1/AAPL/1", newest.getUrl());
+    }
+
+    @Test
+    public void downloadNews_stopsAtNewestKnownArticle() {
+        final List<Article> articles = new ArrayList<>();
+        assertEquals(NewsSource.Status.GOOD,
+                source.downloadNews("AAPL", "http://127.0.0.1/AAPL/3", articles));
+
+        assertEquals(2, articles.size());
+        assertEquals("http://127.0.0.1/AAPL/1", articles.get(0).getUrl());
+        assertEquals("http://127.0.0.1/AAPL/2", articles.get(1).getUrl());
+    }
+
+    @Test
+    public void downloadNews_unreachable() {
+        final JsonApiSource unreachable = new JsonApiSource(getUnreachableBaseUrl());
+        assertEquals(NewsSource.Status.IO_EXCEPTION,
+                unreachable.downloadNews("AAPL", null, new ArrayList<Article>()));
+    }
+
+    private static ConcreteAdvancedStockWithEhVals newStock(final String ticker) {
+        return new ConcreteAdvancedStockWithEhVals(Stock.State.ERROR, ticker, ticker,
+                0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * @return The base URL of a server that has been stopped, so that every
+     * connection to it is refused
+     */
+    private static String getUnreachableBaseUrl() {
+        try {
+            final LocalQuoteServer stopped = LocalQuoteServer.start();
+            stopped.stop();
+            return stopped.getBaseUrl();
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+}